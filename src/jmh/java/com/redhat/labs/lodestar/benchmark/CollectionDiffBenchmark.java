@@ -0,0 +1,68 @@
+package com.redhat.labs.lodestar.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javers.core.Javers;
+import org.javers.core.JaversBuilder;
+import org.javers.core.diff.ListCompareAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.util.CollectionDiff;
+
+/**
+ * Change detection for an engagement's artifacts with one artifact modified: the identity diff against the
+ * Javers Levenshtein comparison it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionDiffBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int size;
+
+    Javers javers = JaversBuilder.javers().withListCompareAlgorithm(ListCompareAlgorithm.LEVENSHTEIN_DISTANCE).build();
+    CollectionDiff<Artifact> diff = CollectionDiff.of(Artifact.class, Artifact::getUuid);
+
+    List<Artifact> current;
+    List<Artifact> desired;
+
+    @Setup
+    public void setUp() {
+        current = artifacts(size);
+        desired = artifacts(size);
+        desired.get(size / 2).setTitle("changed");
+    }
+
+    @Benchmark
+    public boolean javers() {
+        return javers.compareCollections(current, desired, Artifact.class).hasChanges();
+    }
+
+    @Benchmark
+    public boolean collectionDiff() {
+        return diff.compare(current, desired).hasChanges();
+    }
+
+    private static List<Artifact> artifacts(int size) {
+        return IntStream.range(0, size).mapToObj(i -> Artifact.builder().uuid("a" + i).title("title " + i).type("demo")
+                .linkAddress("http://" + i).created("2020-01-01").build()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,130 @@
+package com.redhat.labs.lodestar.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.json.bind.config.PropertyNamingStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.labs.lodestar.config.JsonConfig;
+import com.redhat.labs.lodestar.config.JsonbWarmup;
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.model.HostingEnvironment;
+import com.redhat.labs.lodestar.model.Score;
+import com.redhat.labs.lodestar.model.UseCase;
+
+/**
+ * Writing and reading one engagement of a realistic size with JSON-B's reflective mapping against the same Jsonb
+ * with the codecs registered. Both instances are warm, so this is the steady state cost, not introspection. Most
+ * of an engagement's JSON is its participants, artifacts and commits, so the sample has many of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    Jsonb reflective;
+    Jsonb codecs;
+
+    Engagement engagement;
+    String json;
+
+    @Setup
+    public void setUp() {
+        reflective = JsonbBuilder.create(config());
+        codecs = JsonbBuilder.create(JsonConfig.withCodecs(config()));
+
+        engagement = JsonbWarmup.sample();
+        engagement.setDescription("An engagement of a realistic size");
+        engagement.setEngagementUsers(Set.copyOf(many(20, this::user)));
+        engagement.setHostingEnvironments(many(3, this::hostingEnvironment));
+        engagement.setArtifacts(many(10, this::artifact));
+        engagement.setCategories(many(5, i -> Category.builder().uuid("category-" + i).name("category " + i).count(i).build()));
+        engagement.setUseCases(many(5, i -> UseCase.builder().uuid("use-case-" + i).title("Use case " + i)
+                .description("What the customer wanted from the engagement " + i).order(i).build()));
+        engagement.setScores(many(5, i -> Score.builder().uuid("score-" + i).name("score " + i).value(i * 10.5).build()));
+        engagement.setCommits(many(50, this::commit));
+        json = reflective.toJson(engagement);
+    }
+
+    @Benchmark
+    public String writeReflective() {
+        return reflective.toJson(engagement);
+    }
+
+    @Benchmark
+    public String writeCodec() {
+        return codecs.toJson(engagement);
+    }
+
+    @Benchmark
+    public Engagement readReflective() {
+        return reflective.fromJson(json, Engagement.class);
+    }
+
+    @Benchmark
+    public Engagement readCodec() {
+        return codecs.fromJson(json, Engagement.class);
+    }
+
+    private static <T> List<T> many(int count, IntFunction<T> factory) {
+        return IntStream.range(0, count).mapToObj(factory).collect(Collectors.toList());
+    }
+
+    private EngagementUser user(int i) {
+        return EngagementUser.builder().uuid("user-" + i).firstName("First" + i).lastName("Last" + i)
+                .email("user" + i + "@example.com").role(i % 2 == 0 ? "developer" : "observer").engagementUuid("warmup")
+                .build();
+    }
+
+    private HostingEnvironment hostingEnvironment(int i) {
+        return HostingEnvironment.builder().uuid("env-" + i).engagementUuid("warmup").environmentName("env " + i)
+                .additionalDetails("details " + i).ocpCloudProviderName("aws").ocpCloudProviderRegion("us-east-1")
+                .ocpCloudProviderAvailabilityZone("us-east-1a").ocpPersistentStorageSize("50G").ocpSubDomain("env" + i)
+                .ocpVersion("4.10.3").ocpClusterSize("medium").created("2021-04-08T00:00:00.000Z")
+                .updated("2021-04-08T00:00:00.000Z").build();
+    }
+
+    private Artifact artifact(int i) {
+        return Artifact.builder().uuid("artifact-" + i).engagementUuid("warmup").title("Artifact " + i)
+                .description("Weekly report " + i).type("report").prettyType("Report")
+                .linkAddress("https://docs.example.com/report/" + i).created("2021-04-08T00:00:00.000Z")
+                .updated("2021-04-08T00:00:00.000Z").build();
+    }
+
+    private Commit commit(int i) {
+        return Commit.builder().id("id-" + i).shortId("s" + i).title("Engagement updated " + i)
+                .message("Engagement updated by user " + i).authorName("Author " + i).authorEmail(i + "@example.com")
+                .commiterName("Committer " + i).commiterEmail(i + "@example.com").authoredDate("2021-04-08T00:00:00.000Z")
+                .commitDate("2021-04-08T00:00:00.000Z").url("https://gitlab.example.com/commit/" + i)
+                .engagementUuid("warmup").modified(List.of("engagement/engagement.json")).build();
+    }
+
+    private static JsonbConfig config() {
+        return new JsonbConfig().withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES);
+    }
+}
@@ -0,0 +1,105 @@
+package com.redhat.labs.lodestar.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.json.bind.config.PropertyNamingStrategy;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.util.Passthrough;
+
+/**
+ * Relaying a page of activity from the activity service: binding it to a list of commits and writing the list
+ * back, against copying the body bytes with Passthrough. Run with -prof gc to compare the allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassthroughBenchmark {
+
+    private static final Type COMMIT_LIST = new ArrayList<Commit>(){}.getClass().getGenericSuperclass();
+
+    @Param({ "100", "1000" })
+    int size;
+
+    Jsonb jsonb;
+    byte[] downstream;
+
+    @Setup
+    public void setUp() {
+        jsonb = JsonbBuilder.create(
+                new JsonbConfig().withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES));
+
+        List<Commit> activity = IntStream.range(0, size).mapToObj(this::commit).collect(Collectors.toList());
+        downstream = jsonb.toJson(activity).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void buffered() throws IOException {
+        Response response = Response.ok(body())
+                .header("x-total-activity", size).build();
+        List<Commit> activity = jsonb.fromJson(response.readEntity(String.class), COMMIT_LIST);
+        Response relayed = Response.ok(activity).header("x-total-activity", response.getHeaderString("x-total-activity"))
+                .build();
+
+        try (OutputStream out = OutputStream.nullOutputStream()) {
+            jsonb.toJson(relayed.getEntity(), out);
+        }
+    }
+
+    @Benchmark
+    public void relayed() throws IOException {
+        Response response = Response.ok(body())
+                .header("x-total-activity", size).build();
+        Response relayed = Passthrough.relay(response);
+
+        ((StreamingOutput) relayed.getEntity()).write(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * A plain stream, read in chunks like a socket. ByteArrayInputStream would hand its whole array over in one
+     * write.
+     */
+    private InputStream body() {
+        return new FilterInputStream(new ByteArrayInputStream(downstream)) {
+        };
+    }
+
+    private Commit commit(int i) {
+        return Commit.builder().id("id-" + i).shortId("s" + i).title("Engagement updated " + i)
+                .message("Engagement updated by user " + i).authorName("Author " + i).authorEmail(i + "@rh.com")
+                .commiterName("Committer " + i).commiterEmail(i + "@rh.com").authoredDate("2021-04-08T00:00:00.000Z")
+                .commitDate("2021-04-08T00:00:00.000Z").url("https://gitlab.example.com/commit/" + i)
+                .engagementUuid("uuid-" + i).modified(List.of("engagement/engagement.json")).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.redhat.labs.lodestar.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.redhat.labs.lodestar.util.RbacIndex;
+
+/**
+ * Write permission for every type of a 12 type rbac map and a 50 group token: the index against the list rule
+ * (any token group in the type's list) it replaced. The same token is checked each time, as it is within a
+ * request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RbacBenchmark {
+
+    List<String> types;
+    Map<String, List<String>> rbac;
+    RbacIndex index;
+    Set<String> groups;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        types = IntStream.range(0, 12).mapToObj(i -> "type" + i).collect(Collectors.toList());
+        rbac = types.stream().collect(Collectors.toMap(t -> t,
+                t -> IntStream.range(0, 5).mapToObj(i -> "group" + random.nextInt(200)).collect(Collectors.toList())));
+        index = new RbacIndex(rbac);
+        groups = IntStream.range(0, 50).mapToObj(i -> "group" + random.nextInt(400)).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public void listRule(Blackhole blackhole) {
+        for(String type : types) {
+            blackhole.consume(groups.stream().anyMatch(rbac.get(type)::contains));
+        }
+    }
+
+    @Benchmark
+    public void index(Blackhole blackhole) {
+        for(String type : types) {
+            blackhole.consume(index.isAllowed(groups, type));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.redhat.labs.lodestar.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.context.SmallRyeManagedExecutor;
+import io.smallrye.context.SmallRyeThreadContext;
+import io.vertx.core.Context;
+
+/**
+ * Executors used to fan out calls to the downstream LodeStar services. Kept separate from the
+ * Quarkus worker pool so that a request thread waiting on its downstream calls can never starve
+ * the pool those calls run on.
+ * <p>
+ * Once every platform thread is busy and the queue is full a call runs on the thread that submitted it, so a
+ * burst of requests slows down instead of failing. Event loop threads must not block and are still refused.
+ */
+@ApplicationScoped
+public class ExecutorConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public static final String DOWNSTREAM_EXECUTOR = "downstream-executor";
+
+    static final String SATURATED_METRIC = "lodestar.downstream.executor.saturated";
+
+    @ConfigProperty(name = "downstream.executor.max.async", defaultValue = "50")
+    int maxAsync;
+
+    @ConfigProperty(name = "downstream.executor.max.queued", defaultValue = "1000")
+    int maxQueued;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Produces
+    @ApplicationScoped
+    @Named(DOWNSTREAM_EXECUTOR)
+    ManagedExecutor downstreamExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxAsync, maxAsync, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), new DownstreamThreadFactory(),
+                new CallerRunsWhenSaturated(registry.counter(SATURATED_METRIC)));
+        pool.allowCoreThreadTimeOut(true);
+
+        return managed(pool);
+    }
+
+    /**
+     * Nothing is propagated to a downstream call and nothing is cleared either. Clearing the RESTEasy context
+     * leaves an unmodifiable empty map on the thread, which the rest clients fail on when they look up a param
+     * converter. Left alone, the client creates its own.
+     */
+    private static ManagedExecutor managed(ExecutorService executor) {
+        SmallRyeThreadContext context = (SmallRyeThreadContext) ThreadContext.builder().propagated(ThreadContext.NONE)
+                .cleared().unchanged(ThreadContext.ALL_REMAINING).build();
+        return new SmallRyeManagedExecutor(-1, -1, context, executor, DOWNSTREAM_EXECUTOR);
+    }
+
+    static final class CallerRunsWhenSaturated implements RejectedExecutionHandler {
+        private final Counter saturated;
+
+        CallerRunsWhenSaturated(Counter saturated) {
+            this.saturated = saturated;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            if(pool.isShutdown()) {
+                throw new RejectedExecutionException("downstream executor is shut down");
+            }
+
+            if(Context.isOnEventLoopThread()) {
+                throw new RejectedExecutionException("downstream executor is saturated");
+            }
+
+            saturated.increment();
+            LOGGER.debug("Downstream executor saturated. Running on {}", Thread.currentThread().getName());
+            task.run();
+        }
+    }
+
+    private static final class DownstreamThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "downstream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    void shutdown(@Disposes @Named(DOWNSTREAM_EXECUTOR) ManagedExecutor executor) {
+        executor.shutdown();
+    }
+
+}
@@ -4,14 +4,62 @@ import javax.inject.Singleton;
 import javax.json.bind.JsonbConfig;
 import javax.json.bind.config.PropertyNamingStrategy;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.redhat.labs.lodestar.model.codec.ArtifactCodec;
+import com.redhat.labs.lodestar.model.codec.CategoryCodec;
+import com.redhat.labs.lodestar.model.codec.CommitCodec;
+import com.redhat.labs.lodestar.model.codec.EngagementArtifactCodec;
+import com.redhat.labs.lodestar.model.codec.EngagementCodec;
+import com.redhat.labs.lodestar.model.codec.EngagementUserCodec;
+import com.redhat.labs.lodestar.model.codec.HookCodec;
+import com.redhat.labs.lodestar.model.codec.HostingEnvironmentCodec;
+import com.redhat.labs.lodestar.model.codec.ScoreCodec;
+import com.redhat.labs.lodestar.model.codec.UseCaseCodec;
+
 import io.quarkus.jsonb.JsonbConfigCustomizer;
 
+/**
+ * Responses are compact unless json.pretty is set. A single response can be pretty printed with ?pretty=true.
+ * Engagements, engagement artifacts, hooks and the lists an engagement carries (participants, hosting environments,
+ * artifacts, categories, use cases, scores and commits) go through their codecs rather than reflection unless
+ * json.codecs.enabled is false. The single-valued parts of an engagement (launch, creation details, status, billing
+ * codes) and gitlab projects are still read and written reflectively.
+ */
 @Singleton
 public class JsonConfig implements JsonbConfigCustomizer {
 
+    @ConfigProperty(name = "json.pretty", defaultValue = "false")
+    boolean pretty;
+
+    @ConfigProperty(name = "json.codecs.enabled", defaultValue = "true")
+    boolean codecs;
+
     @Override
     public void customize(JsonbConfig jsonbConfig) {
-        jsonbConfig.withFormatting(true).withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES);
+        jsonbConfig.withFormatting(pretty).withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES);
+
+        if(codecs) {
+            withCodecs(jsonbConfig);
+        }
+    }
+
+    public static JsonbConfig withCodecs(JsonbConfig jsonbConfig) {
+        EngagementCodec engagement = new EngagementCodec();
+        EngagementArtifactCodec engagementArtifact = new EngagementArtifactCodec();
+        EngagementUserCodec user = new EngagementUserCodec();
+        HostingEnvironmentCodec hostingEnvironment = new HostingEnvironmentCodec();
+        ArtifactCodec artifact = new ArtifactCodec();
+        CategoryCodec category = new CategoryCodec();
+        UseCaseCodec useCase = new UseCaseCodec();
+        ScoreCodec score = new ScoreCodec();
+        CommitCodec commit = new CommitCodec();
+
+        return jsonbConfig
+                .withSerializers(engagement, engagementArtifact, user, hostingEnvironment, artifact, category, useCase,
+                        score, commit)
+                .withDeserializers(engagement, engagementArtifact, new HookCodec(), user, hostingEnvironment, artifact,
+                        category, useCase, score, commit);
     }
 
 }
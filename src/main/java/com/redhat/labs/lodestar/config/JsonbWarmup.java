@@ -0,0 +1,82 @@
+package com.redhat.labs.lodestar.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.json.bind.Jsonb;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.model.*;
+
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * JSON-B introspects a class the first time it (de)serializes it and keeps the resulting model for the life
+ * of the Jsonb instance. Running the model graph through the shared instance at startup moves that cost off
+ * the first user requests. The same instance is used by the resources and the rest clients. The top level
+ * classes have codecs (see {@link JsonConfig}) but the classes nested in an engagement are still introspected.
+ */
+@ApplicationScoped
+public class JsonbWarmup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonbWarmup.class);
+
+    @ConfigProperty(name = "json.warmup.on.startup", defaultValue = "true")
+    boolean onStartup;
+
+    @Inject
+    Jsonb jsonb;
+
+    void onStart(@Observes StartupEvent event) {
+        if(onStartup) {
+            warmUp();
+        }
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+
+        roundTrip(sample(), Engagement.class);
+        roundTrip(EngagementArtifact.builder().uuid("warmup").build(), EngagementArtifact.class);
+        // hooks are only ever read
+        read("{\"commits\":[{}],\"project\":{}}", Hook.class);
+
+        LOGGER.debug("JSON-B warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <T> void roundTrip(T value, Class<T> type) {
+        read(jsonb.toJson(value), type);
+    }
+
+    private void read(String json, Class<?> type) {
+        try {
+            jsonb.fromJson(json, type);
+        } catch (RuntimeException e) {
+            LOGGER.warn("JSON-B warm-up failed for {}", type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * An engagement with one of everything so every nested class is visited.
+     */
+    public static Engagement sample() {
+        Message message = Message.builder().build();
+        Status status = Status.builder().status("warmup").messages(List.of(message))
+                .subsystems(List.of(Subsystem.builder().messages(List.of(message)).accessUrls(List.of(Map.of())).build()))
+                .build();
+
+        return Engagement.builder().uuid("warmup").launch(Launch.builder().build())
+                .hostingEnvironments(List.of(HostingEnvironment.builder().build()))
+                .engagementUsers(Set.of(EngagementUser.builder().build())).status(status)
+                .commits(List.of(Commit.builder().build())).creationDetails(CreationDetails.builder().build())
+                .categories(List.of(Category.builder().build())).useCases(List.of(UseCase.builder().build()))
+                .artifacts(List.of(Artifact.builder().build())).scores(List.of(Score.builder().build()))
+                .billingCodes(List.of(BillingCodes.builder().build())).build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.redhat.labs.lodestar.health;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import com.redhat.labs.lodestar.service.EngagementCacheWarmup;
+
+@Readiness
+@ApplicationScoped
+public class CacheWarmupReadinessCheck implements HealthCheck {
+
+    private static final String CACHE_WARMUP = "ENGAGEMENT CACHE WARMUP";
+
+    @Inject
+    EngagementCacheWarmup warmup;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named(CACHE_WARMUP).status(warmup.isReady())
+                .withData("total", warmup.getTotal()).withData("warmed", warmup.getWarmed())
+                .withData("failed", warmup.getFailed()).build();
+    }
+
+}
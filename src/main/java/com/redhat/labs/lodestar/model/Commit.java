@@ -46,10 +46,16 @@ public class Commit {
     
     
     public boolean didFileChange(List<String> fileName) {
+        return changedFiles().stream().filter(fileName::contains).count() > 0;
+    }
+
+    /**
+     * @return all files added, modified or removed by this commit
+     */
+    public Set<String> changedFiles() {
         Set<String> changedFiles = new HashSet<>(added);
         changedFiles.addAll(modified);
         changedFiles.addAll(removed);
-        
-        return changedFiles.stream().filter(fileName::contains).count() > 0;
+        return changedFiles;
     }
 }
@@ -0,0 +1,40 @@
+package com.redhat.labs.lodestar.model;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.redhat.labs.lodestar.util.RbacIndex;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Everything read from the config service at one point in time. Never changed once built. A newer snapshot
+ * replaces it whole.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ConfigSnapshot {
+
+    Map<String, List<String>> rbac;
+    RbacIndex rbacIndex;
+    Map<String, String> artifactOptions;
+    Map<String, String> engagementOptions;
+    Map<String, String> regionOptions;
+    Map<String, String> participantOptions;
+    Map<String, Map<String, String>> participantOptionsByType;
+    Instant loaded;
+
+    /**
+     * @param type an engagement type
+     * @param options the participant options for type
+     * @return a copy of this snapshot with the options added
+     */
+    public ConfigSnapshot withParticipantOptions(String type, Map<String, String> options) {
+        Map<String, Map<String, String>> byType = new HashMap<>(participantOptionsByType);
+        byType.put(type, options);
+        return toBuilder().participantOptionsByType(Map.copyOf(byType)).build();
+    }
+}
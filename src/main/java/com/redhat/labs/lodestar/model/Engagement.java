@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Set;
 
 import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbTransient;
 import javax.validation.constraints.Size;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -144,6 +145,12 @@ public class Engagement {
     @JsonbProperty("engagement_type")
     private String engagementType;
 
+    //a section fell back to empty or null because its service failed. not sent and not cached
+    @JsonbTransient
+    @DiffIgnore
+    @EqualsAndHashCode.Exclude
+    private boolean degraded;
+
     //Legacy
     public void setEngagementRegion(String engagementRegion) {
         this.engagementRegion = engagementRegion;
@@ -221,8 +228,16 @@ public class Engagement {
      * @return the current state based on the current date
      */
     public EngagementState getEngagementCurrentState(Instant currentDate) {
+        return getEngagementState(launch != null, startDate, endDate, archiveDate, currentDate);
+    }
+
+    /**
+     * The state rules for callers that only hold some of an engagement's fields.
+     */
+    public static EngagementState getEngagementState(boolean launched, String startDate, String endDate,
+            String archiveDate, Instant currentDate) {
 
-        if (launch == null || endDate == null || startDate == null) { // not launched or irregularly launched
+        if (!launched || endDate == null || startDate == null) { // not launched or irregularly launched
             return EngagementState.UPCOMING;
         }
         
@@ -0,0 +1,120 @@
+package com.redhat.labs.lodestar.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The parts of a composed {@link Engagement} that are owned by separate downstream services. Sections
+ * backed by a file in the engagement's git repo carry that file name so webhook changes can be mapped
+ * to the sections they affect. The field name ties a section to the include / exclude query options and the
+ * json name ties it to the properties of a patch.
+ */
+public enum EngagementSection {
+
+    ENGAGEMENT("engagement.json", null, null, e -> { }),
+    HOSTING("hosting.json", "hostingEnvironments", "hosting_environments", e -> e.setHostingEnvironments(null)),
+    ARTIFACTS("artifacts.json", "artifacts", "artifacts", e -> e.setArtifacts(null)),
+    PARTICIPANTS("participants.json", "engagementUsers", "engagement_users", e -> e.setEngagementUsers(null)),
+    CATEGORIES("engagement.json", "categories", "engagement_categories", e -> e.setCategories(null)),
+    ACTIVITY(null, "commits", "commits", e -> e.setCommits(null)),
+    STATUS("status.json", "status", "status", e -> e.setStatus(null));
+
+    private final String fileName;
+    private final String fieldName;
+    private final String jsonName;
+    private final Consumer<Engagement> clear;
+
+    EngagementSection(String fileName, String fieldName, String jsonName, Consumer<Engagement> clear) {
+        this.fileName = fileName;
+        this.fieldName = fieldName;
+        this.jsonName = jsonName;
+        this.clear = clear;
+    }
+
+    /**
+     * Removes this section's data from the engagement.
+     *
+     * @param engagement the engagement to clear
+     */
+    public void clear(Engagement engagement) {
+        clear.accept(engagement);
+    }
+
+    public static Set<EngagementSection> all() {
+        return EnumSet.allOf(EngagementSection.class);
+    }
+
+    /**
+     * Returns the sections affected by the given changed files. Files are matched on their name so
+     * that both engagement/participants.json and participants.json map to PARTICIPANTS.
+     *
+     * @param changedFiles paths of files changed in the repo
+     * @return the affected sections. Can be empty
+     */
+    public static Set<EngagementSection> fromFiles(Set<String> changedFiles) {
+        Set<EngagementSection> sections = EnumSet.noneOf(EngagementSection.class);
+
+        for(String file : changedFiles) {
+            String name = file.substring(file.lastIndexOf('/') + 1);
+            for(EngagementSection section : values()) {
+                if(name.equals(section.fileName)) {
+                    sections.add(section);
+                }
+            }
+        }
+
+        return sections;
+    }
+
+    /**
+     * Returns the sections needed to build the requested fields. The engagement itself is always needed.
+     * When includes are given only the sections for those fields are returned, otherwise every section
+     * not excluded. Nested field names (status.status) select their top level section.
+     *
+     * @param includes field names to include. Empty for all
+     * @param excludes field names to exclude
+     * @return the sections to load
+     */
+    public static Set<EngagementSection> fromFields(Optional<Set<String>> includes, Optional<Set<String>> excludes) {
+        Set<EngagementSection> sections = EnumSet.of(ENGAGEMENT);
+
+        for(EngagementSection section : values()) {
+            if(section.fieldName == null) {
+                continue;
+            }
+
+            boolean wanted = includes.map(fields -> containsField(fields, section.fieldName)).orElse(true)
+                    && !excludes.map(fields -> containsField(fields, section.fieldName)).orElse(false);
+
+            if(wanted) {
+                sections.add(section);
+            }
+        }
+
+        return sections;
+    }
+
+    /**
+     * Returns the sections written by a patch with the given top level json properties. Properties that do
+     * not belong to a section are fields of the engagement itself.
+     *
+     * @param properties the json property names in the patch
+     * @return the affected sections. Can be empty
+     */
+    public static Set<EngagementSection> fromJsonProperties(Set<String> properties) {
+        Set<EngagementSection> sections = EnumSet.noneOf(EngagementSection.class);
+
+        for(String property : properties) {
+            sections.add(Arrays.stream(values()).filter(s -> property.equals(s.jsonName)).findFirst().orElse(ENGAGEMENT));
+        }
+
+        return sections;
+    }
+
+    private static boolean containsField(Set<String> fields, String fieldName) {
+        return fields.stream().anyMatch(f -> f.equals(fieldName) || f.startsWith(fieldName + "."));
+    }
+}
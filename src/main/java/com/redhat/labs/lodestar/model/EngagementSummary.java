@@ -0,0 +1,71 @@
+package com.redhat.labs.lodestar.model;
+
+import java.time.Instant;
+
+import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The few engagement fields other resources are decorated with. Immutable so a single instance can be
+ * shared by every reader of the summary index.
+ */
+@Value
+@Builder
+public class EngagementSummary {
+
+    String uuid;
+    String customerName;
+    String projectName;
+    String region;
+    String type;
+    String startDate;
+    String endDate;
+    String archiveDate;
+    String lastUpdate;
+    boolean launched;
+
+    public static EngagementSummary from(Engagement engagement) {
+        return EngagementSummary.builder().uuid(engagement.getUuid()).customerName(engagement.getCustomerName())
+                .projectName(engagement.getProjectName()).region(engagement.getRegion()).type(engagement.getType())
+                .startDate(engagement.getStartDate()).endDate(engagement.getEndDate())
+                .archiveDate(engagement.getArchiveDate()).lastUpdate(engagement.getLastUpdate())
+                .launched(engagement.getLaunch() != null).build();
+    }
+
+    /**
+     * Same as {@link Engagement#getEngagementCurrentState(Instant)}.
+     */
+    public EngagementState getEngagementCurrentState(Instant currentDate) {
+        return Engagement.getEngagementState(launched, startDate, endDate, archiveDate, currentDate);
+    }
+
+    /**
+     * @param currentDate the current time
+     * @return the first instant after currentDate with a different state. null if time alone will not change it
+     */
+    public Instant getNextStateChange(Instant currentDate) {
+        switch (getEngagementCurrentState(currentDate)) {
+        case ACTIVE:
+            // still active at the end date itself
+            return Instant.parse(endDate).plusNanos(1);
+        case TERMINATING:
+            return Instant.parse(archiveDate);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Rough retained size in bytes. Strings are counted as UTF-16 plus their object overhead.
+     */
+    public long estimateSize() {
+        return 24L + 9 * 8L + size(uuid) + size(customerName) + size(projectName) + size(region) + size(type)
+                + size(startDate) + size(endDate) + size(archiveDate) + size(lastUpdate);
+    }
+
+    private static long size(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.javers.core.metamodel.annotation.DiffIgnore;
 import org.javers.core.metamodel.annotation.ValueObject;
 
 @Data
@@ -28,6 +29,10 @@ public class EngagementUser {
     private String role;
     private String uuid;
     private boolean reset;
+    //Set by the participant service when listing participants across engagements
+    @DiffIgnore
+    @JsonbProperty("engagement_uuid")
+    private String engagementUuid;
 
     @Override
     public boolean equals(Object obj) {
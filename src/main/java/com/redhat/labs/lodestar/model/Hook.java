@@ -1,6 +1,9 @@
 package com.redhat.labs.lodestar.model;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +24,10 @@ public class Hook {
     private String groupId;
 
     public boolean didFileChange(List<String> fileName) {
+        if (commits == null) {
+            return false;
+        }
+
         for (Commit commit : commits) {
             if (commit.didFileChange(fileName)) {
                 return true;
@@ -30,6 +37,34 @@ public class Hook {
         return false;
     }
 
+    /**
+     * @return all files added, modified or removed across the commits in this hook
+     */
+    public Set<String> changedFiles() {
+        Set<String> changedFiles = new HashSet<>();
+        for (Commit commit : commits) {
+            changedFiles.addAll(commit.changedFiles());
+        }
+        return changedFiles;
+    }
+
+    /**
+     * @param later a hook for the same project that arrived after this one
+     * @return one hook with the commits of both. Everything else is taken from the later hook
+     */
+    public Hook merge(Hook later) {
+        List<Commit> merged = new ArrayList<>();
+        if (commits != null) {
+            merged.addAll(commits);
+        }
+        if (later.commits != null) {
+            merged.addAll(later.commits);
+        }
+
+        return Hook.builder().objectKind(later.objectKind).eventName(later.eventName).projectId(later.projectId)
+                .project(later.project).groupId(later.groupId).commits(merged).build();
+    }
+
     public String getCustomerName() {
         return project.getCustomerNameFromName();
 
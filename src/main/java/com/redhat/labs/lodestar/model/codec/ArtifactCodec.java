@@ -0,0 +1,36 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Artifact;
+
+/**
+ * {@link Artifact} without reflection. Engagements carry a list of them.
+ */
+public class ArtifactCodec implements JsonbSerializer<Artifact>, JsonbDeserializer<Artifact> {
+
+    static final ModelCodec<Artifact> CODEC = EngagementAttributeCodecs.of(Artifact::new)
+            .string("description", Artifact::getDescription, Artifact::setDescription)
+            .string("link_address", Artifact::getLinkAddress, Artifact::setLinkAddress)
+            .string("pretty_type", Artifact::getPrettyType, Artifact::setPrettyType)
+            .string("title", Artifact::getTitle, Artifact::setTitle)
+            .string("type", Artifact::getType, Artifact::setType)
+            .build();
+
+    @Override
+    public void serialize(Artifact value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public Artifact deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
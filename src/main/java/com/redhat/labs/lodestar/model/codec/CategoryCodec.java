@@ -0,0 +1,33 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Category;
+
+/**
+ * {@link Category} without reflection. Engagements carry a list of them.
+ */
+public class CategoryCodec implements JsonbSerializer<Category>, JsonbDeserializer<Category> {
+
+    static final ModelCodec<Category> CODEC = EngagementAttributeCodecs.of(Category::new)
+            .integer("count", Category::getCount, Category::setCount)
+            .string("name", Category::getName, Category::setName)
+            .build();
+
+    @Override
+    public void serialize(Category value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public Category deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
@@ -0,0 +1,49 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Commit;
+
+/**
+ * {@link Commit} without reflection. Engagements and gitlab hooks carry a list of them.
+ */
+public class CommitCodec implements JsonbSerializer<Commit>, JsonbDeserializer<Commit> {
+
+    private static final Type FILES = new ArrayList<String>() {}.getClass().getGenericSuperclass();
+
+    static final ModelCodec<Commit> CODEC = ModelCodec.of(Commit::new)
+            .object("added", FILES, Commit::getAdded, Commit::setAdded)
+            .string("author_email", Commit::getAuthorEmail, Commit::setAuthorEmail)
+            .string("author_name", Commit::getAuthorName, Commit::setAuthorName)
+            .string("authored_date", Commit::getAuthoredDate, Commit::setAuthoredDate)
+            .string("committed_date", Commit::getCommitDate, Commit::setCommitDate)
+            .string("committer_email", Commit::getCommiterEmail, Commit::setCommiterEmail)
+            .string("committer_name", Commit::getCommiterName, Commit::setCommiterName)
+            .string("engagement_uuid", Commit::getEngagementUuid, Commit::setEngagementUuid)
+            .string("id", Commit::getId, Commit::setId)
+            .string("message", Commit::getMessage, Commit::setMessage)
+            .object("modified", FILES, Commit::getModified, Commit::setModified)
+            .object("removed", FILES, Commit::getRemoved, Commit::setRemoved)
+            .string("short_id", Commit::getShortId, Commit::setShortId)
+            .string("title", Commit::getTitle, Commit::setTitle)
+            .string("web_url", Commit::getUrl, Commit::setUrl)
+            .build();
+
+    @Override
+    public void serialize(Commit value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public Commit deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
@@ -0,0 +1,44 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.EngagementArtifact;
+
+/**
+ * {@link EngagementArtifact} without reflection. Artifact pages are read from the artifact service and written
+ * back out with the engagement's names added.
+ */
+public class EngagementArtifactCodec implements JsonbSerializer<EngagementArtifact>, JsonbDeserializer<EngagementArtifact> {
+
+    static final ModelCodec<EngagementArtifact> CODEC = ModelCodec.of(EngagementArtifact::new)
+            .string("created", EngagementArtifact::getCreated, EngagementArtifact::setCreated)
+            .string("customer_name", EngagementArtifact::getCustomerName, EngagementArtifact::setCustomerName)
+            .string("description", EngagementArtifact::getDescription, EngagementArtifact::setDescription)
+            .string("engagement_uuid", EngagementArtifact::getEngagementUuid, EngagementArtifact::setEngagementUuid)
+            .string("link_address", EngagementArtifact::getLinkAddress, EngagementArtifact::setLinkAddress)
+            .string("pretty_type", EngagementArtifact::getPrettyType, EngagementArtifact::setPrettyType)
+            .string("project_name", EngagementArtifact::getProjectName, EngagementArtifact::setProjectName)
+            .string("region", EngagementArtifact::getRegion, EngagementArtifact::setRegion)
+            .string("title", EngagementArtifact::getTitle, EngagementArtifact::setTitle)
+            .string("type", EngagementArtifact::getType, EngagementArtifact::setType)
+            .string("updated", EngagementArtifact::getUpdated, EngagementArtifact::setUpdated)
+            .string("uuid", EngagementArtifact::getUuid, EngagementArtifact::setUuid)
+            .build();
+
+    @Override
+    public void serialize(EngagementArtifact artifact, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(artifact, generator, ctx);
+    }
+
+    @Override
+    public EngagementArtifact deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
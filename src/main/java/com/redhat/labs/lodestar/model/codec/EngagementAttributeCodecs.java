@@ -0,0 +1,22 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.util.function.Supplier;
+
+import com.redhat.labs.lodestar.model.EngagementAttribute;
+
+/**
+ * The properties every {@link EngagementAttribute} has, for the codecs of its subclasses.
+ */
+final class EngagementAttributeCodecs {
+
+    private EngagementAttributeCodecs() {
+    }
+
+    static <T extends EngagementAttribute> ModelCodec.Builder<T> of(Supplier<T> factory) {
+        return ModelCodec.of(factory)
+                .string("created", EngagementAttribute::getCreated, EngagementAttribute::setCreated)
+                .string("engagement_uuid", EngagementAttribute::getEngagementUuid, EngagementAttribute::setEngagementUuid)
+                .string("updated", EngagementAttribute::getUpdated, EngagementAttribute::setUpdated)
+                .string("uuid", EngagementAttribute::getUuid, EngagementAttribute::setUuid);
+    }
+}
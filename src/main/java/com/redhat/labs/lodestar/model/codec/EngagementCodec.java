@@ -0,0 +1,98 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.BillingCodes;
+import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.model.CreationDetails;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.model.HostingEnvironment;
+import com.redhat.labs.lodestar.model.Launch;
+import com.redhat.labs.lodestar.model.Score;
+import com.redhat.labs.lodestar.model.Status;
+import com.redhat.labs.lodestar.model.UseCase;
+
+/**
+ * {@link Engagement} without reflection. The legacy twins (region / engagement_region, name / project_name and
+ * type / engagement_type) are read through the engagement's setters, which keep both halves in step.
+ */
+public class EngagementCodec implements JsonbSerializer<Engagement>, JsonbDeserializer<Engagement> {
+
+    private static final Type ARTIFACTS = new ArrayList<Artifact>() {}.getClass().getGenericSuperclass();
+    private static final Type BILLING_CODES = new ArrayList<BillingCodes>() {}.getClass().getGenericSuperclass();
+    private static final Type CATEGORIES = new ArrayList<Category>() {}.getClass().getGenericSuperclass();
+    private static final Type CATEGORY_NAMES = new ArrayList<String>() {}.getClass().getGenericSuperclass();
+    private static final Type COMMITS = new ArrayList<Commit>() {}.getClass().getGenericSuperclass();
+    private static final Type HOSTING = new ArrayList<HostingEnvironment>() {}.getClass().getGenericSuperclass();
+    private static final Type PARTICIPANTS = new HashSet<EngagementUser>() {}.getClass().getGenericSuperclass();
+    private static final Type SCORES = new ArrayList<Score>() {}.getClass().getGenericSuperclass();
+    private static final Type USE_CASES = new ArrayList<UseCase>() {}.getClass().getGenericSuperclass();
+
+    static final ModelCodec<Engagement> CODEC = ModelCodec.of(Engagement::new)
+            .string("additional_details", Engagement::getAdditionalDetails, Engagement::setAdditionalDetails)
+            .string("archive_date", Engagement::getArchiveDate, Engagement::setArchiveDate)
+            .primitiveInt("artifact_count", Engagement::getArtifactCount, Engagement::setArtifactCount)
+            .object("artifacts", ARTIFACTS, Engagement::getArtifacts, Engagement::setArtifacts)
+            .object("billing_codes", BILLING_CODES, Engagement::getBillingCodes, Engagement::setBillingCodes)
+            .object("categories", CATEGORY_NAMES, Engagement::getCategoriesV2, Engagement::setCategoriesV2)
+            .string("commit_message", Engagement::getCommitMessage, Engagement::setCommitMessage)
+            .object("commits", COMMITS, Engagement::getCommits, Engagement::setCommits)
+            .object("creation_details", CreationDetails.class, Engagement::getCreationDetails, Engagement::setCreationDetails)
+            .string("customer_contact_email", Engagement::getCustomerContactEmail, Engagement::setCustomerContactEmail)
+            .string("customer_contact_name", Engagement::getCustomerContactName, Engagement::setCustomerContactName)
+            .string("customer_name", Engagement::getCustomerName, Engagement::setCustomerName)
+            .string("description", Engagement::getDescription, Engagement::setDescription)
+            .string("end_date", Engagement::getEndDate, Engagement::setEndDate)
+            .object("engagement_categories", CATEGORIES, Engagement::getCategories, Engagement::setCategories)
+            .string("engagement_lead_email", Engagement::getEngagementLeadEmail, Engagement::setEngagementLeadEmail)
+            .string("engagement_lead_name", Engagement::getEngagementLeadName, Engagement::setEngagementLeadName)
+            .string("engagement_region", Engagement::getEngagementRegion, Engagement::setEngagementRegion)
+            .string("engagement_type", Engagement::getEngagementType, Engagement::setEngagementType)
+            .object("engagement_users", PARTICIPANTS, Engagement::getEngagementUsers, Engagement::setEngagementUsers)
+            .object("hosting_environments", HOSTING, Engagement::getHostingEnvironments, Engagement::setHostingEnvironments)
+            .string("last_update", Engagement::getLastUpdate, Engagement::setLastUpdate)
+            .string("last_update_by_email", Engagement::getLastUpdateByEmail, Engagement::setLastUpdateByEmail)
+            .string("last_update_by_name", Engagement::getLastUpdateByName, Engagement::setLastUpdateByName)
+            .object("launch", Launch.class, Engagement::getLaunch, Engagement::setLaunch)
+            .string("location", Engagement::getLocation, Engagement::setLocation)
+            .string("name", Engagement::getName, Engagement::setName)
+            .primitiveInt("participant_count", Engagement::getParticipantCount, Engagement::setParticipantCount)
+            .string("pretty_type", Engagement::getPrettyType, Engagement::setPrettyType)
+            .integer("project_id", Engagement::getProjectId, Engagement::setProjectId)
+            .string("project_name", Engagement::getProjectName, Engagement::setProjectName)
+            .bool("public_reference", Engagement::getPublicReference, Engagement::setPublicReference)
+            .string("region", Engagement::getRegion, Engagement::setRegion)
+            .object("scores", SCORES, Engagement::getScores, Engagement::setScores)
+            .string("start_date", Engagement::getStartDate, Engagement::setStartDate)
+            .object("status", Status.class, Engagement::getStatus, Engagement::setStatus)
+            .string("technical_lead_email", Engagement::getTechnicalLeadEmail, Engagement::setTechnicalLeadEmail)
+            .string("technical_lead_name", Engagement::getTechnicalLeadName, Engagement::setTechnicalLeadName)
+            .string("timezone", Engagement::getTimezone, Engagement::setTimezone)
+            .string("type", Engagement::getType, Engagement::setType)
+            .object("use_cases", USE_CASES, Engagement::getUseCases, Engagement::setUseCases)
+            .string("uuid", Engagement::getUuid, Engagement::setUuid)
+            .bool("writeable", Engagement::getWriteable, Engagement::setWriteable)
+            .build();
+
+    @Override
+    public void serialize(Engagement engagement, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(engagement, generator, ctx);
+    }
+
+    @Override
+    public Engagement deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
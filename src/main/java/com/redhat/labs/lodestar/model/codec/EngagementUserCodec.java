@@ -0,0 +1,38 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.EngagementUser;
+
+/**
+ * {@link EngagementUser} without reflection. Engagements carry a set of them.
+ */
+public class EngagementUserCodec implements JsonbSerializer<EngagementUser>, JsonbDeserializer<EngagementUser> {
+
+    static final ModelCodec<EngagementUser> CODEC = ModelCodec.of(EngagementUser::new)
+            .string("email", EngagementUser::getEmail, EngagementUser::setEmail)
+            .string("engagement_uuid", EngagementUser::getEngagementUuid, EngagementUser::setEngagementUuid)
+            .string("first_name", EngagementUser::getFirstName, EngagementUser::setFirstName)
+            .string("last_name", EngagementUser::getLastName, EngagementUser::setLastName)
+            .primitiveBool("reset", EngagementUser::isReset, EngagementUser::setReset)
+            .string("role", EngagementUser::getRole, EngagementUser::setRole)
+            .string("uuid", EngagementUser::getUuid, EngagementUser::setUuid)
+            .build();
+
+    @Override
+    public void serialize(EngagementUser value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public EngagementUser deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
@@ -0,0 +1,35 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.model.GitlabProject;
+import com.redhat.labs.lodestar.model.Hook;
+
+/**
+ * Reads a gitlab {@link Hook} without reflection. Hooks are only ever read, so there is no serializer. Everything
+ * in the payload besides these properties is dropped.
+ */
+public class HookCodec implements JsonbDeserializer<Hook> {
+
+    private static final Type COMMITS = new ArrayList<Commit>() {}.getClass().getGenericSuperclass();
+
+    static final ModelCodec<Hook> CODEC = ModelCodec.of(Hook::new)
+            .object("commits", COMMITS, Hook::getCommits, Hook::setCommits)
+            .string("event_name", Hook::getEventName, Hook::setEventName)
+            .string("group_id", Hook::getGroupId, Hook::setGroupId)
+            .string("object_kind", Hook::getObjectKind, Hook::setObjectKind)
+            .object("project", GitlabProject.class, Hook::getProject, Hook::setProject)
+            .integer("project_id", Hook::getProjectId, Hook::setProjectId)
+            .build();
+
+    @Override
+    public Hook deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
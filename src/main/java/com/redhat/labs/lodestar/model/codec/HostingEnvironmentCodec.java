@@ -0,0 +1,43 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.HostingEnvironment;
+
+/**
+ * {@link HostingEnvironment} without reflection. Engagements carry a list of them.
+ */
+public class HostingEnvironmentCodec implements JsonbSerializer<HostingEnvironment>, JsonbDeserializer<HostingEnvironment> {
+
+    static final ModelCodec<HostingEnvironment> CODEC = EngagementAttributeCodecs.of(HostingEnvironment::new)
+            .string("additional_details", HostingEnvironment::getAdditionalDetails, HostingEnvironment::setAdditionalDetails)
+            .string("environment_name", HostingEnvironment::getEnvironmentName, HostingEnvironment::setEnvironmentName)
+            .string("ocp_cloud_provider_availability_zone", HostingEnvironment::getOcpCloudProviderAvailabilityZone,
+                    HostingEnvironment::setOcpCloudProviderAvailabilityZone)
+            .string("ocp_cloud_provider_name", HostingEnvironment::getOcpCloudProviderName, HostingEnvironment::setOcpCloudProviderName)
+            .string("ocp_cloud_provider_region", HostingEnvironment::getOcpCloudProviderRegion,
+                    HostingEnvironment::setOcpCloudProviderRegion)
+            .string("ocp_cluster_size", HostingEnvironment::getOcpClusterSize, HostingEnvironment::setOcpClusterSize)
+            .string("ocp_persistent_storage_size", HostingEnvironment::getOcpPersistentStorageSize,
+                    HostingEnvironment::setOcpPersistentStorageSize)
+            .string("ocp_sub_domain", HostingEnvironment::getOcpSubDomain, HostingEnvironment::setOcpSubDomain)
+            .string("ocp_version", HostingEnvironment::getOcpVersion, HostingEnvironment::setOcpVersion)
+            .build();
+
+    @Override
+    public void serialize(HostingEnvironment value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public HostingEnvironment deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
@@ -0,0 +1,248 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import javax.json.bind.JsonbException;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Reads and writes one model class through a fixed table of its JSON properties and accessors, so JSON-B does
+ * not have to introspect the class or call its accessors reflectively. Properties are written in name order,
+ * as JSON-B does, and null values are left out. Properties holding other model classes are handed back to
+ * JSON-B. Unknown properties are read and dropped.
+ * <p>
+ * A property added to the class has to be added to its codec as well. The codec tests fail the build on one that
+ * was missed: they compare every codec's {@link #names()} with the properties reflective JSON-B finds, and its
+ * output with the reflective output of a fully populated instance.
+ *
+ * @param <T> the model class
+ */
+public final class ModelCodec<T> {
+
+    private final Supplier<T> factory;
+    private final Map<String, Property<T>> properties;
+
+    private ModelCodec(Supplier<T> factory, Map<String, Property<T>> properties) {
+        this.factory = factory;
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    public static <T> Builder<T> of(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    /**
+     * @return the JSON names of the properties, in the order they are written
+     */
+    public Iterable<String> names() {
+        return properties.keySet();
+    }
+
+    public void serialize(T value, JsonGenerator generator, SerializationContext ctx) {
+        generator.writeStartObject();
+        for(Map.Entry<String, Property<T>> property : properties.entrySet()) {
+            property.getValue().write(property.getKey(), value, generator, ctx);
+        }
+        generator.writeEnd();
+    }
+
+    public T deserialize(JsonParser parser, DeserializationContext ctx) {
+        T value = factory.get();
+
+        while(parser.hasNext()) {
+            Event event = parser.next();
+
+            if(event == Event.END_OBJECT) {
+                break;
+            }
+
+            if(event != Event.KEY_NAME) {
+                continue;
+            }
+
+            Property<T> property = properties.get(parser.getString());
+            Event valueEvent = parser.next();
+
+            if(property != null) {
+                property.read(value, parser, valueEvent, ctx);
+            } else if(valueEvent == Event.START_OBJECT || valueEvent == Event.START_ARRAY) {
+                ctx.deserialize(Object.class, parser);
+            }
+        }
+
+        return value;
+    }
+
+    private interface Property<T> {
+        void write(String name, T value, JsonGenerator generator, SerializationContext ctx);
+
+        void read(T value, JsonParser parser, Event event, DeserializationContext ctx);
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final Map<String, Property<T>> properties = new TreeMap<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public Builder<T> string(String name, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    String property = getter.apply(value);
+                    if(property != null) {
+                        generator.write(name, property);
+                    }
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    setter.accept(value, event == Event.VALUE_NULL ? null : text(name, parser, event));
+                }
+            });
+        }
+
+        public Builder<T> integer(String name, Function<T, Integer> getter, BiConsumer<T, Integer> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    Integer property = getter.apply(value);
+                    if(property != null) {
+                        generator.write(name, property);
+                    }
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    setter.accept(value, event == Event.VALUE_NULL ? null : Integer.valueOf(text(name, parser, event)));
+                }
+            });
+        }
+
+        public Builder<T> primitiveInt(String name, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    generator.write(name, getter.applyAsInt(value));
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    if(event != Event.VALUE_NULL) {
+                        setter.accept(value, Integer.parseInt(text(name, parser, event)));
+                    }
+                }
+            });
+        }
+
+        public Builder<T> bool(String name, Function<T, Boolean> getter, BiConsumer<T, Boolean> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    Boolean property = getter.apply(value);
+                    if(property != null) {
+                        generator.write(name, property);
+                    }
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    setter.accept(value, event == Event.VALUE_NULL ? null : Boolean.valueOf(text(name, parser, event)));
+                }
+            });
+        }
+
+        public Builder<T> primitiveBool(String name, Predicate<T> getter, BiConsumer<T, Boolean> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    generator.write(name, getter.test(value));
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    if(event != Event.VALUE_NULL) {
+                        setter.accept(value, Boolean.valueOf(text(name, parser, event)));
+                    }
+                }
+            });
+        }
+
+        public Builder<T> decimal(String name, Function<T, Double> getter, BiConsumer<T, Double> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    Double property = getter.apply(value);
+                    if(property != null) {
+                        generator.write(name, property);
+                    }
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    setter.accept(value, event == Event.VALUE_NULL ? null : Double.valueOf(text(name, parser, event)));
+                }
+            });
+        }
+
+        /**
+         * A property holding another model class or a collection of them. JSON-B reads and writes the value.
+         */
+        public <V> Builder<T> object(String name, Type type, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return add(name, new Property<T>() {
+                @Override
+                public void write(String name, T value, JsonGenerator generator, SerializationContext ctx) {
+                    V property = getter.apply(value);
+                    if(property != null) {
+                        ctx.serialize(name, property, generator);
+                    }
+                }
+
+                @Override
+                public void read(T value, JsonParser parser, Event event, DeserializationContext ctx) {
+                    setter.accept(value, event == Event.VALUE_NULL ? null : ctx.deserialize(type, parser));
+                }
+            });
+        }
+
+        public ModelCodec<T> build() {
+            return new ModelCodec<>(factory, properties);
+        }
+
+        private Builder<T> add(String name, Property<T> property) {
+            if(properties.put(name, property) != null) {
+                throw new IllegalArgumentException("property " + name + " added twice");
+            }
+            return this;
+        }
+
+        private static String text(String name, JsonParser parser, Event event) {
+            switch (event) {
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                return parser.getString();
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            default:
+                throw new JsonbException("unexpected " + event + " for " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.Score;
+
+/**
+ * {@link Score} without reflection. Engagements carry a list of them.
+ */
+public class ScoreCodec implements JsonbSerializer<Score>, JsonbDeserializer<Score> {
+
+    static final ModelCodec<Score> CODEC = EngagementAttributeCodecs.of(Score::new)
+            .string("name", Score::getName, Score::setName)
+            .decimal("value", Score::getValue, Score::setValue)
+            .build();
+
+    @Override
+    public void serialize(Score value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public Score deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
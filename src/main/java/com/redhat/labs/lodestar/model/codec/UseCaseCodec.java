@@ -0,0 +1,34 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import java.lang.reflect.Type;
+
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import com.redhat.labs.lodestar.model.UseCase;
+
+/**
+ * {@link UseCase} without reflection. Engagements carry a list of them.
+ */
+public class UseCaseCodec implements JsonbSerializer<UseCase>, JsonbDeserializer<UseCase> {
+
+    static final ModelCodec<UseCase> CODEC = EngagementAttributeCodecs.of(UseCase::new)
+            .string("description", UseCase::getDescription, UseCase::setDescription)
+            .integer("order", UseCase::getOrder, UseCase::setOrder)
+            .string("title", UseCase::getTitle, UseCase::setTitle)
+            .build();
+
+    @Override
+    public void serialize(UseCase value, JsonGenerator generator, SerializationContext ctx) {
+        CODEC.serialize(value, generator, ctx);
+    }
+
+    @Override
+    public UseCase deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
+        return CODEC.deserialize(parser, ctx);
+    }
+}
@@ -0,0 +1,39 @@
+package com.redhat.labs.lodestar.model.event;
+
+import com.redhat.labs.lodestar.model.Author;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the outbox log. Either a section write waiting to be sent downstream or, with done set, the marker
+ * that the write with the same id no longer needs sending.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEntry {
+
+    private long id;
+
+    private boolean done;
+
+    private EngagementSection section;
+
+    private Author author;
+
+    private Engagement engagement;
+
+    /**
+     * @return the engagement section this write replaces. A later write for the same key supersedes this one
+     */
+    public String key() {
+        return engagement.getUuid() + "/" + section;
+    }
+
+}
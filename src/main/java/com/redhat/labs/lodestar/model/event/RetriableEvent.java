@@ -21,6 +21,9 @@ public class RetriableEvent {
 
     private Engagement engagement;
 
+    //set instead of the engagement when retrying a gitlab hook, which only knows its project
+    private Integer projectId;
+
     public void incrementCurrentRetryCount() {
         currentRetryCount = currentRetryCount + 1;
     }
@@ -35,4 +38,15 @@ public class RetriableEvent {
 
     }
 
+    /**
+     * @return what is being retried, for logging
+     */
+    public String subject() {
+        if (engagement == null && projectId != null) {
+            return "project " + projectId;
+        }
+
+        return "engagement " + (engagement == null ? null : engagement.getUuid());
+    }
+
 }
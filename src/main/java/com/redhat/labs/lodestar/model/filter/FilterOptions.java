@@ -8,6 +8,7 @@ import javax.ws.rs.QueryParam;
 
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 
+import com.redhat.labs.lodestar.model.EngagementSection;
 import com.redhat.labs.lodestar.util.ClassFieldUtils;
 
 import lombok.AllArgsConstructor;
@@ -61,6 +62,15 @@ public class FilterOptions {
         return createSet(exclude);
     }
 
+    /**
+     * Returns the {@link EngagementSection}s needed to satisfy the include and exclude lists.
+     * 
+     * @return
+     */
+    public Set<EngagementSection> getSections() {
+        return EngagementSection.fromFields(getIncludeList(), getExcludeList());
+    }
+
     /**
      * Returns an {@link Optional} of a {@link Set} of {@link String} after parsing
      * the given value.
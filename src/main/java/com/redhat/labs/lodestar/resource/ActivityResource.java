@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.redhat.labs.lodestar.rest.client.ActivityApiClient;
+import com.redhat.labs.lodestar.util.Passthrough;
 
 import io.vertx.mutiny.core.eventbus.EventBus;
 
@@ -54,7 +55,7 @@ public class ActivityResource {
             return Response.status(Status.BAD_REQUEST).entity("{ \"error\": \"Invalid pagination\"}").build();
         }
         
-        return activityClient.getPaginatedActivity(page, pageSize);
+        return Passthrough.relay(activityClient.getPaginatedActivity(page, pageSize));
     }
     
     @GET
@@ -74,7 +75,7 @@ public class ActivityResource {
             return Response.status(Status.BAD_REQUEST).entity("{ \"error\": \"Invalid pagination\"}").build();
         } 
             
-        return activityClient.getPaginatedActivityForUuid(uuid, page, pageSize);
+        return Passthrough.relay(activityClient.getPaginatedActivityForUuid(uuid, page, pageSize));
     }
 
 }
@@ -1,6 +1,7 @@
 package com.redhat.labs.lodestar.resource;
 
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -26,6 +27,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.service.ArtifactService;
+import com.redhat.labs.lodestar.util.Passthrough;
 
 @RequestScoped
 @Path("/engagements")
@@ -44,7 +46,7 @@ public class ArtifactResource {
     @APIResponses(value = { @APIResponse(responseCode = "401", description = "Missing or Invalid JWT"),
             @APIResponse(responseCode = "200", description = "Artifacts have been returned.") })
     @Operation(summary = "Returns artifact list")
-    public Response getArtifacts(@Context UriInfo uriInfo,
+    public CompletionStage<Response> getArtifacts(@Context UriInfo uriInfo,
             @QueryParam(value = "engagementUuid") String engagementUuid, @QueryParam(value = "type") String type,
             @Parameter(description = "Dashboard View. Includes Customer and Engagement Name") @QueryParam("dash") boolean dashboardView,
             @Parameter(description = "v2 only. use search otherwise") @QueryParam("region") List<String> region,
@@ -69,7 +71,7 @@ public class ArtifactResource {
             }
         }
 
-        return artifactService.getArtifacts(filterOptions, engagementUuid, type, region);
+        return artifactService.getArtifactsAsync(filterOptions, engagementUuid, type, region).subscribeAsCompletionStage();
      }
 
     @GET
@@ -90,6 +92,6 @@ public class ArtifactResource {
     @Path("/artifacts/types/counts")
     @SecurityRequirement(name = "jwt")
     public Response getArtifactTypesCount(@QueryParam("regions") List<String> regions) {
-        return artifactService.getTypesCount(regions);
+        return Passthrough.relay(artifactService.getTypesCount(regions));
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.resource;
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.service.CategoryService;
 import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.util.Passthrough;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
@@ -41,7 +42,7 @@ public class EngagementCategoryResource {
     public Response getAllCategories(@Context UriInfo uriInfo, @BeanParam ListFilterOptions filterOptions) {
 
         Set<String> regions = filterOptions.getV2Regions();
-        return engagementService.getCategories(new ArrayList<>(regions), filterOptions);
+        return Passthrough.relay(engagementService.getCategories(new ArrayList<>(regions), filterOptions));
     }
 
     //TODO page or limit?
@@ -2,22 +2,30 @@ package com.redhat.labs.lodestar.resource;
 
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotBlank;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.PATCH;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -40,6 +48,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import com.redhat.labs.lodestar.model.Engagement;
 import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+import com.redhat.labs.lodestar.model.EngagementSection;
 import com.redhat.labs.lodestar.model.filter.FilterOptions;
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.model.pagination.PagedEngagementResults;
@@ -60,6 +69,8 @@ public class EngagementResource {
 
     public static final String ACCESS_CONTROL_EXPOSE_HEADER = "Access-Control-Expose-Headers";
     public static final String LAST_UPDATE_HEADER = "last-update";
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    private static final String LAST_UPDATE_PROPERTY = "last_update";
 
     @Inject
     JsonWebToken jwt;
@@ -76,6 +87,9 @@ public class EngagementResource {
     @Inject
     ParticipantService participantService;
 
+    @Inject
+    Validator validator;
+
     /*
      * GET LIST
      */
@@ -99,7 +113,7 @@ public class EngagementResource {
     @Operation(summary = "Gets a map of engagement counts by status")
     public Map<EngagementState, Integer> countByStatus(@QueryParam(value = "localTime") String localTime, @QueryParam("region") Set<String> regions) {
         
-        Instant currentTime = localTime == null ? Instant.now() : Instant.parse(localTime);
+        Instant currentTime = localTime == null ? null : Instant.parse(localTime);
 
         return engagementService.getEngagementCountByStatus(currentTime, regions);
     }
@@ -149,7 +163,7 @@ public class EngagementResource {
 
         Engagement engagement = engagementService.getByCustomerAndProjectName(customerName, projectName);
         
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), engagement.getType());
         engagement.setWriteable(writer);
         
         return Response.ok(engagement).header(LAST_UPDATE_HEADER, engagement.getLastUpdate())
@@ -164,20 +178,37 @@ public class EngagementResource {
             @APIResponse(responseCode = "404", description = "Engagement resource with id does not exist"),
             @APIResponse(responseCode = "200", description = "Engagement resource found and returned") })
     @Operation(summary = "Returns the engagement resource for the given id.")
-    public Response get(@PathParam("id") String uuid, @BeanParam FilterOptions filterOptions) {
+    public CompletionStage<Response> get(@PathParam("id") String uuid, @BeanParam FilterOptions filterOptions) {
+
+        Set<String> groups = jwt.getGroups();
+
+        return engagementService.getEngagementAsync(uuid, filterOptions.getSections()).map(engagement -> {
+            boolean writer = configService.isAllowedToWrite(groups, engagement.getType());
+            engagement.setWriteable(writer);
+
+            return Response.ok(engagement).header(LAST_UPDATE_HEADER, engagement.getLastUpdate())
+                    .header(ACCESS_CONTROL_EXPOSE_HEADER, LAST_UPDATE_HEADER).build();
+        }).subscribeAsCompletionStage();
 
-        Engagement engagement = engagementService.getEngagement(uuid);//.getByUuid(uuid, filterOptions);
+    }
+
+    @POST
+    @Path("/batch")
+    @SecurityRequirement(name = "jwt")
+    @APIResponses(value = { @APIResponse(responseCode = "401", description = "Missing or Invalid JWT"),
+            @APIResponse(responseCode = "400", description = "Too many engagements requested"),
+            @APIResponse(responseCode = "200", description = "Engagements found are returned. Unknown uuids are left out") })
+    @Operation(summary = "Returns the engagement resources for the given list of ids. Include and exclude work as for a single engagement.")
+    public Response getBatch(List<String> uuids, @BeanParam FilterOptions filterOptions) {
 
-        String exclude = filterOptions.getExclude() == null ? "" : filterOptions.getExclude();
-        if(exclude.contains("commits")) {
-            engagement.setCommits(null);
+        List<Engagement> engagements = engagementService.getEngagements(uuids, filterOptions.getSections());
+        Set<String> groups = jwt.getGroups();
+
+        for(Engagement engagement : engagements) {
+            engagement.setWriteable(configService.isAllowedToWrite(groups, engagement.getType()));
         }
 
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
-        engagement.setWriteable(writer);
-        
-        return Response.ok(engagement).header(LAST_UPDATE_HEADER, engagement.getLastUpdate())
-                .header(ACCESS_CONTROL_EXPOSE_HEADER, LAST_UPDATE_HEADER).build();
+        return Response.ok(engagements).build();
 
     }
 
@@ -282,7 +313,7 @@ public class EngagementResource {
     @Operation(summary = "Creates the engagement resource in the database.")
     public Response post(@Valid Engagement engagement, @Context UriInfo uriInfo) {
         
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), engagement.getType());
         if(!writer) {
             return forbiddenResponse(engagement.getType());
         }
@@ -312,7 +343,7 @@ public class EngagementResource {
     @Operation(summary = "Updates the engagement resource in the database.")
     public Response put(@PathParam("id") String uuid, @Valid Engagement engagement) {
 
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), engagement.getType());
         if(!writer) {
             return forbiddenResponse(engagement.getType());
         }
@@ -325,6 +356,51 @@ public class EngagementResource {
 
     }
 
+    @PATCH
+    @SecurityRequirement(name = "jwt")
+    @Path("/{id}")
+    @Consumes(MERGE_PATCH_JSON)
+    @APIResponses(value = { @APIResponse(responseCode = "401", description = "Missing or Invalid JWT"),
+            @APIResponse(responseCode = "403", description = "Not authorized for engagement type"),
+            @APIResponse(responseCode = "404", description = "Engagement resource not found to update"),
+            @APIResponse(responseCode = "400", description = "Patch is missing last_update or the patched engagement is invalid"),
+            @APIResponse(responseCode = "409", description = "Engagement has been updated since last_update"),
+            @APIResponse(responseCode = "200", description = "Engagement updated in the database") })
+    @Operation(summary = "Applies a JSON merge patch (RFC 7386) to the engagement. Only the services owning the patched sections are called.")
+    public Response patch(@PathParam("id") String uuid, JsonObject patch) {
+
+        if(!(patch.get(LAST_UPDATE_PROPERTY) instanceof JsonString)) {
+            throw new WebApplicationException(LAST_UPDATE_PROPERTY + " is required", 400);
+        }
+
+        Engagement persisted = engagementService.getByUuid(uuid);
+        Engagement engagement = engagementService.merge(persisted, patch);
+
+        for(String type : new HashSet<>(Arrays.asList(persisted.getType(), engagement.getType()))) {
+            if(!configService.isAllowedToWrite(jwt.getGroups(), type)) {
+                return forbiddenResponse(type);
+            }
+        }
+
+        Set<ConstraintViolation<Engagement>> violations = validator.validate(engagement);
+        if(!violations.isEmpty()) {
+            String message = violations.stream().map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .collect(Collectors.joining(", "));
+            throw new WebApplicationException(message, 400);
+        }
+
+        // pull user info from token
+        engagement.setLastUpdateByName(jwtUtils.getUsernameFromToken(jwt));
+        engagement.setLastUpdateByEmail(jwtUtils.getUserEmailFromToken(jwt));
+
+        Set<String> patched = new HashSet<>(patch.keySet());
+        patched.remove(LAST_UPDATE_PROPERTY);
+
+        return Response.ok(engagementService.update(engagement, persisted, EngagementSection.fromJsonProperties(patched)))
+                .build();
+
+    }
+
     //TODO this method should be /launch/{uuid} with no body. fix after v2 rollout
     @PUT
     @Path("/launch")
@@ -337,7 +413,7 @@ public class EngagementResource {
 
         Engagement launch = engagementService.getEngagement(engagement.getUuid());
         
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(launch.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), launch.getType());
         if(!writer) {
             return forbiddenResponse(launch.getType());
         }
@@ -368,7 +444,7 @@ public class EngagementResource {
     public Response delete(@PathParam("id") String uuid) {
 
         Engagement engagement = engagementService.getByUuid(uuid);
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), engagement.getType());
         if(!writer) {
             return forbiddenResponse(engagement.getType());
         }
@@ -399,7 +475,7 @@ public class EngagementResource {
         LOGGER.debug("re-pushing {} to gitlab", uuid);
 
         Engagement engagement = engagementService.getByUuid(uuid);
-        boolean writer = jwtUtils.isAllowedToWriteEngagement(jwt, configService.getPermission(engagement.getType()));
+        boolean writer = configService.isAllowedToWrite(jwt.getGroups(), engagement.getType());
         if(!writer) {
             return forbiddenResponse(engagement.getType());
         }
@@ -11,6 +11,7 @@ import javax.ws.rs.core.UriInfo;
 
 import com.redhat.labs.lodestar.model.HostingEnvironment;
 import com.redhat.labs.lodestar.model.filter.PagingFilter;
+import com.redhat.labs.lodestar.service.EngagementCache;
 import com.redhat.labs.lodestar.service.HostingService;
 import com.redhat.labs.lodestar.util.JWTUtils;
 import org.eclipse.microprofile.jwt.JsonWebToken;
@@ -24,6 +25,7 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.model.pagination.PagedHostingEnvironmentResults;
 import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.util.Passthrough;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.util.*;
@@ -39,6 +41,9 @@ public class HostingResource {
     @Inject
     HostingService hostingService;
 
+    @Inject
+    EngagementCache engagementCache;
+
     @Inject
     JsonWebToken jwt;
 
@@ -52,7 +57,7 @@ public class HostingResource {
     @Operation(summary = "Returns engagement hosting environments")
     public Response getHostingEnvironments(@QueryParam("engagementUuids") Set<String> engagementUuids, @BeanParam PagingFilter pagingFilter) {
 
-        return hostingService.getHostingEnvironments(engagementUuids, pagingFilter.getPage(), pagingFilter.getPageSize());
+        return Passthrough.relay(hostingService.getHostingEnvironments(engagementUuids, pagingFilter.getPage(), pagingFilter.getPageSize()));
     }
 
     @GET
@@ -71,7 +76,12 @@ public class HostingResource {
             @APIResponse(responseCode = "200", description = "hosting environments updated.") })
     @Operation(summary = "Returns updated engagement hosting environments")
     public Response updateHostingEnvForEngagement(@PathParam("engagementUuid") String engagementUuid, List<HostingEnvironment> hostingEnvironments) {
-        return Response.ok(hostingService.updateAndReload(engagementUuid, hostingEnvironments, jwtUtils.getAuthorFromToken(jwt))).build();
+        try {
+            return Response.ok(hostingService.updateAndReload(engagementUuid, hostingEnvironments, jwtUtils.getAuthorFromToken(jwt))).build();
+        } finally {
+            // hosting writes leave the engagement last update alone. drop the composed copy
+            engagementCache.invalidate(engagementUuid);
+        }
     }
 
 }
\ No newline at end of file
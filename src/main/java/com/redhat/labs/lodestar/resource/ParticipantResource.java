@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.resource;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -28,8 +29,10 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.service.EngagementCache;
 import com.redhat.labs.lodestar.service.ParticipantService;
 import com.redhat.labs.lodestar.util.JWTUtils;
+import com.redhat.labs.lodestar.util.Passthrough;
 
 @RequestScoped
 @Path("/engagements/participants")
@@ -44,6 +47,9 @@ public class ParticipantResource {
     @Inject
     ParticipantService participantService;
 
+    @Inject
+    EngagementCache engagementCache;
+
     @Inject
     JsonWebToken jwt;
 
@@ -67,7 +73,7 @@ public class ParticipantResource {
             response = participantService.getParticipants(engagementUuids, page, pageSize);
         }
         
-        return response;
+        return Passthrough.relay(response);
     }
 
     @GET
@@ -76,9 +82,9 @@ public class ParticipantResource {
     @APIResponses(value = { @APIResponse(responseCode = "401", description = "Missing or Invalid JWT"),
             @APIResponse(responseCode = "200", description = "Participants have been returned for uuid.") })
     @Operation(summary = "Returns participant list for an engagement")
-    public Response getParticipantsForEngagementUuid(@PathParam(value = "eUuid") String engagementUuid) {
-        List<EngagementUser> participants = participantService.getParticipantsForEngagement(engagementUuid);
-        return Response.ok(participants).build();
+    public CompletionStage<Response> getParticipantsForEngagementUuid(@PathParam(value = "eUuid") String engagementUuid) {
+        return participantService.getParticipantsForEngagementAsync(engagementUuid)
+                .map(participants -> Response.ok(participants).build()).subscribeAsCompletionStage();
     }
 
     @PUT
@@ -93,8 +99,13 @@ public class ParticipantResource {
         String email = jwtUtils.getUserEmailFromToken(jwt);
         String name = jwtUtils.getUsernameFromToken(jwt);
 
-        participantService.updateParticipants(engagementUuid, name, email, participants);
-        
+        try {
+            participantService.updateParticipants(engagementUuid, name, email, participants);
+        } finally {
+            // the engagement's last update does not move so a cached copy would still pass revalidation
+            engagementCache.invalidate(engagementUuid);
+        }
+
         List<EngagementUser> updatedParticipants = participantService.getParticipantsForEngagement(engagementUuid);
         return Response.ok().entity(updatedParticipants).build();
     }
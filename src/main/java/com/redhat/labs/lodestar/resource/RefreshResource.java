@@ -51,7 +51,8 @@ public class RefreshResource {
             @Parameter(description = "Refresh activity") @QueryParam("activity") boolean refreshActivity,
             @Parameter(description = "Refresh engagement status") @QueryParam("status") boolean refreshStatus,
             @Parameter(description = "Refresh hosting environments") @QueryParam("hosting") boolean refreshHosting,
-            @Parameter(description = "Refresh engagements") @QueryParam("engagements") boolean refreshEngagements) {
+            @Parameter(description = "Refresh engagements") @QueryParam("engagements") boolean refreshEngagements,
+            @Parameter(description = "Reload the engagement cache") @QueryParam("cache") boolean refreshCache) {
 
         List<String> refreshed = new ArrayList<>();
 
@@ -87,6 +88,10 @@ public class RefreshResource {
             refreshed.add("status");
         }
 
+        if (refreshCache && engagementService.flushCache()) {
+            refreshed.add("cache");
+        }
+
         if (refreshed.isEmpty()) {
             return Response.status(400).entity("{ \"message\" : \"No refresh source was selected\" }").build();
         }
@@ -31,6 +31,8 @@ import com.redhat.labs.lodestar.model.Hook;
 import com.redhat.labs.lodestar.rest.client.ActivityApiClient;
 import com.redhat.labs.lodestar.rest.client.StatusApiClient;
 import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.service.HookQueue;
+import com.redhat.labs.lodestar.util.Passthrough;
 
 @RequestScoped
 @Path("/status")
@@ -60,6 +62,9 @@ public class StatusResource {
     @Inject
     EngagementService engagementService;
 
+    @Inject
+    HookQueue hookQueue;
+
     @PostConstruct
     void trimToken() {
         LOGGER.debug("Status match before trim {}", statusToken.trim().equals(statusToken));
@@ -75,7 +80,8 @@ public class StatusResource {
     @Tags({@Tag(ref="Status"), @Tag(ref="Activity")})
     @APIResponses(value = { 
             @APIResponse(responseCode = "401", description = "Invalid Gitlab Token"),
-            @APIResponse(responseCode = "200", description = "Returns the hook given.") })
+            @APIResponse(responseCode = "202", description = "Hook queued. Returns the hook given."),
+            @APIResponse(responseCode = "503", description = "Too many hooks waiting. Send again later") })
     @Operation(summary = "Entry point for update notifications")
     public Response statusUpdate(@HeaderParam(value = "x-gitlab-token") String gitLabToken, Hook hook) {
         
@@ -85,9 +91,12 @@ public class StatusResource {
         }
             
         LOGGER.debug("Hook for {}", hook.getProject().getPathWithNamespace());
-        engagementService.updateStatusAndCommits(hook);
 
-        return Response.ok(hook).build();
+        if(!hookQueue.submit(hook)) {
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
+        }
+
+        return Response.accepted(hook).build();
     }
     
     @POST
@@ -122,7 +131,7 @@ public class StatusResource {
             @APIResponse(responseCode = "200", description = "Component Status has been returned.") })
     @Operation(summary = "Returns status of all configured components.")
     public Response getComponentStatus() {
-        return statusClient.getComponentStatus();
+        return Passthrough.relay(statusClient.getComponentStatus());
     }
 
 }
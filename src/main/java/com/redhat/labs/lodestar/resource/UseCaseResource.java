@@ -21,6 +21,7 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.util.Passthrough;
 
 @RequestScoped
 @Path("/engagements")
@@ -40,7 +41,7 @@ public class UseCaseResource {
     @Operation(summary = "Returns engagement use cases")
     public Response getScores(@Context UriInfo uriInfo, @BeanParam ListFilterOptions filterOptions) {
 
-        return engagementService.getUseCases(filterOptions);
+        return Passthrough.relay(engagementService.getUseCases(filterOptions));
 
     }
 
@@ -11,10 +11,13 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.jboss.resteasy.annotations.jaxrs.PathParam;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.activity.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
@@ -31,6 +34,10 @@ public interface ActivityApiClient {
     @Path("/uuid/{engagementUuid}")
     List<Commit> getActivityForUuid(@PathParam("engagementUuid") String engagementUuid);
 
+    @GET
+    @Path("/uuid/{engagementUuid}")
+    CompletionStage<List<Commit>> getActivityForUuidAsync(@PathParam("engagementUuid") String engagementUuid);
+
     @HEAD
     @Path("{engagementUuid}")
     Response getLastActivity(@PathParam("engagementUuid") String engagementUuid);
@@ -50,4 +57,8 @@ public interface ActivityApiClient {
     @Path("/refresh")
     Response refresh();
 
+    @PUT
+    @Path("/refresh")
+    CompletionStage<Response> refreshAsync();
+
 }
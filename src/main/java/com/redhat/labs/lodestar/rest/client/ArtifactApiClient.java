@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.rest.client;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.BeanParam;
@@ -21,8 +22,10 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.Artifact;
 import com.redhat.labs.lodestar.model.filter.ArtifactOptions;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.artifacts.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
@@ -39,6 +42,12 @@ public interface ArtifactApiClient {
     @GET
     Response getArtifacts(@BeanParam ArtifactOptions options);
 
+    @GET
+    CompletionStage<List<Artifact>> getArtifactsAsync(@BeanParam ArtifactOptions options);
+
+    @GET
+    CompletionStage<Response> getArtifactPageAsync(@BeanParam ArtifactOptions options);
+
     @GET
     @Path("/count")
     Response getArtifactCount(@BeanParam ArtifactOptions options);
@@ -54,4 +63,8 @@ public interface ArtifactApiClient {
     @PUT
     @Path("/refresh")
     Response refreshArtifacts();
+
+    @PUT
+    @Path("/refresh")
+    CompletionStage<Response> refreshArtifactsAsync();
 }
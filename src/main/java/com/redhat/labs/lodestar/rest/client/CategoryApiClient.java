@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.rest.client;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -10,8 +11,10 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.engagements.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Path("/api/v2/categories")
@@ -20,6 +23,9 @@ public interface CategoryApiClient {
     @GET
     List<Category> getCategories(@QueryParam("engagementUuid") String engagementUuidOption);//, @BeanParam PageFilter pageFilter
 
+    @GET
+    CompletionStage<List<Category>> getCategoriesAsync(@QueryParam("engagementUuid") String engagementUuidOption);
+
     @GET
     @Path("suggest")
     Set<String> getCategorySuggestions(@QueryParam("partial") String partial);
@@ -14,8 +14,10 @@ import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.config.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Path("/api/v1/configs/runtime")
@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.rest.client;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -9,8 +10,10 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.engagements.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Path("/api/v2/engagements")
@@ -39,6 +42,14 @@ public interface EngagementApiClient {
     @Path("{uuid}")
     Response getEngagementHead(@PathParam("uuid") String uuid);
 
+    @GET
+    @Path("{uuid}")
+    CompletionStage<Engagement> getEngagementAsync(@PathParam("uuid") String uuid);
+
+    @HEAD
+    @Path("{uuid}")
+    CompletionStage<Response> getEngagementHeadAsync(@PathParam("uuid") String uuid);
+
     @GET
     @Path("project/{id}")
     Engagement getEngagementByProject(@PathParam("id") int projectId);
@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.rest.client;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.Status;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
@@ -9,8 +10,10 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.engagement.status.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
@@ -23,6 +26,10 @@ public interface EngagementStatusApiClient {
     @Path("{engagementUuid}")
     Status getEngagementStatus(@PathParam("engagementUuid") String engagementUuid);
 
+    @GET
+    @Path("{engagementUuid}")
+    CompletionStage<Status> getEngagementStatusAsync(@PathParam("engagementUuid") String engagementUuid);
+
     @PUT
     @Path("{engagementUuid}")
     Response updateEngagementStatus(@PathParam("engagementUuid") String engagementUuid);
@@ -30,4 +37,8 @@ public interface EngagementStatusApiClient {
     @PUT
     @Path("refresh")
     Response refresh();
+
+    @PUT
+    @Path("refresh")
+    CompletionStage<Response> refreshAsync();
 }
@@ -1,6 +1,7 @@
 package com.redhat.labs.lodestar.rest.client;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -10,6 +11,7 @@ import javax.ws.rs.core.Response;
 import java.util.List;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.git.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
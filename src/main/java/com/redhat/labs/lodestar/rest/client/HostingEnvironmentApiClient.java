@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.rest.client;
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.HostingEnvironment;
 import com.redhat.labs.lodestar.model.HostingRollup;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
@@ -12,8 +13,10 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.hosting.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
@@ -30,6 +33,10 @@ public interface HostingEnvironmentApiClient {
     @Path("/engagements/{engagementUuid}")
     List<HostingEnvironment> getHostingEnvironmentsByEngagementUuid(@PathParam("engagementUuid") String engagementUuid);
 
+    @GET
+    @Path("/engagements/{engagementUuid}")
+    CompletionStage<List<HostingEnvironment>> getHostingEnvironmentsByEngagementUuidAsync(@PathParam("engagementUuid") String engagementUuid);
+
     @PUT
     @Path("/engagements/{engagementUuid}")
     List<HostingEnvironment> updateHostingEnvironments(@PathParam("engagementUuid") String uuid, List<HostingEnvironment> hostingEnvironments,
@@ -47,4 +54,8 @@ public interface HostingEnvironmentApiClient {
     @PUT
     @Path("/refresh")
     Response refresh();
+
+    @PUT
+    @Path("/refresh")
+    CompletionStage<Response> refreshAsync();
 }
@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.rest.client;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.Consumes;
@@ -20,8 +21,10 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.participants.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Produces("application/json")
@@ -38,6 +41,10 @@ public interface ParticipantApiClient {
     @Path("/engagements/uuid/{engagementUuid}")
     List<EngagementUser> getParticipantsForEngagement(@PathParam("engagementUuid") String uuid);
 
+    @GET
+    @Path("/engagements/uuid/{engagementUuid}")
+    CompletionStage<List<EngagementUser>> getParticipantsForEngagementAsync(@PathParam("engagementUuid") String uuid);
+
     @PUT
     @Path("/engagements/uuid/{engagementUuid}/{region}")
     Response updateParticipants(@PathParam(value = "engagementUuid") String engagementUuid, @PathParam(value = "region") String region,
@@ -55,4 +62,8 @@ public interface ParticipantApiClient {
     @PUT
     @Path("/refresh")
     Response refreshParticipants();
+
+    @PUT
+    @Path("/refresh")
+    CompletionStage<Response> refreshParticipantsAsync();
 }
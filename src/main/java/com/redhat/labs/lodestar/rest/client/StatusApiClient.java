@@ -9,8 +9,10 @@ import javax.ws.rs.core.Response;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import com.redhat.labs.lodestar.model.status.VersionManifest;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.status.api")
 public interface StatusApiClient {
 
@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.rest.client;
 
 import com.redhat.labs.lodestar.exception.mapper.ServiceResponseMapper;
 import com.redhat.labs.lodestar.model.UseCase;
+import com.redhat.labs.lodestar.rest.client.metrics.DownstreamMetered;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -11,6 +12,7 @@ import javax.ws.rs.core.*;
 import java.util.Set;
 
 @ApplicationScoped
+@DownstreamMetered
 @RegisterRestClient(configKey = "lodestar.engagements.api")
 @RegisterProvider(value = ServiceResponseMapper.class, priority = 50)
 @Path("/api/v2/usecases")
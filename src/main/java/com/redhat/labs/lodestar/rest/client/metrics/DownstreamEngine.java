@@ -0,0 +1,80 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import javax.ws.rs.client.InvocationCallback;
+
+import org.apache.http.client.HttpClient;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient43Engine;
+import org.jboss.resteasy.client.jaxrs.engines.AsyncClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+
+/**
+ * The engine of a {@link DownstreamMetered} rest client. Blocking calls go through the client's pooled HttpClient
+ * as before. Calls to methods returning a CompletionStage are submitted to a non-blocking engine instead, so no
+ * thread waits for the answer. RESTEasy only does that for an engine that is an {@link AsyncClientHttpEngine}; for
+ * any other it runs the blocking call on an executor. The non-blocking engine, with its own connection pool and I/O
+ * threads, is only created when a client makes its first such call. The entity of an answer read in full is
+ * buffered before RESTEasy extracts the result, since for a method returning a CompletionStage of Response it
+ * releases the connection and closes the response before the caller gets to read the entity.
+ * <p>
+ * This extends the blocking engine rather than wrapping it since RESTEasy casts the client's engine to its own
+ * class when it sets up a request.
+ */
+class DownstreamEngine extends ApacheHttpClient43Engine implements AsyncClientHttpEngine {
+
+    private final Supplier<AsyncClientHttpEngine> nonBlockingFactory;
+    private volatile AsyncClientHttpEngine nonBlocking;
+
+    DownstreamEngine(HttpClient httpClient, Supplier<AsyncClientHttpEngine> nonBlockingFactory) {
+        super(httpClient, true);
+        this.nonBlockingFactory = nonBlockingFactory;
+    }
+
+    @Override
+    public <T> Future<T> submit(ClientInvocation request, boolean buffered, InvocationCallback<T> callback,
+            ResultExtractor<T> extractor) {
+        return nonBlocking().submit(request, buffered, callback, buffered ? buffering(extractor) : extractor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(ClientInvocation request, boolean buffered, ResultExtractor<T> extractor,
+            ExecutorService executorService) {
+        return nonBlocking().submit(request, buffered, buffered ? buffering(extractor) : extractor, executorService);
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        if(nonBlocking != null) {
+            nonBlocking.close();
+        }
+    }
+
+    private static <T> ResultExtractor<T> buffering(ResultExtractor<T> extractor) {
+        return response -> {
+            response.bufferEntity();
+            return extractor.extractResult(response);
+        };
+    }
+
+    private AsyncClientHttpEngine nonBlocking() {
+        AsyncClientHttpEngine engine = nonBlocking;
+        if(engine != null) {
+            return engine;
+        }
+
+        synchronized (this) {
+            if(isClosed()) {
+                throw new IllegalStateException("Engine is closed");
+            }
+            if(nonBlocking == null) {
+                nonBlocking = nonBlockingFactory.get();
+            }
+            return nonBlocking;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.interceptor.InterceptorBinding;
+
+/**
+ * Rest clients with this binding report their calls in flight, their connection pool size and how long
+ * their calls take. See {@link DownstreamMetricsInterceptor}.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface DownstreamMetered {
+}
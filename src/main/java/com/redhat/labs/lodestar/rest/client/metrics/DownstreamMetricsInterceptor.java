@@ -0,0 +1,85 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pool metrics for each rest client, tagged with the client and the downstream (config key) it calls. Every
+ * client has its own connection pool even when several share a downstream. The pool counts are read from the
+ * client's {@link DownstreamPool}.
+ * <ul>
+ * <li>lodestar.downstream.pool.size - the most connections the client will open</li>
+ * <li>lodestar.downstream.leased - connections in use. One stays leased until its response entity is read or
+ * closed, which for a relayed response is when the stream to the caller is done</li>
+ * <li>lodestar.downstream.available - idle connections kept for reuse</li>
+ * <li>lodestar.downstream.pending - calls waiting for a connection</li>
+ * <li>lodestar.downstream.in.flight - leased plus pending</li>
+ * <li>lodestar.downstream.lease.wait - time spent waiting for a connection</li>
+ * <li>lodestar.downstream.calls - call time including any wait for a connection, by outcome. A call returning a
+ * Response stops the timer when it returns, before its entity is read. A call returning a CompletionStage stops it
+ * when the stage completes</li>
+ * </ul>
+ * A call whose time grows while lease.wait stays flat is slow downstream, not starved of connections.
+ */
+@DownstreamMetered
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class DownstreamMetricsInterceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownstreamMetricsInterceptor.class);
+
+    static final String METRIC_NAME = "lodestar.downstream";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Class<?>, Tags> downstreams = new ConcurrentHashMap<>();
+
+    @AroundInvoke
+    Object meter(InvocationContext context) throws Exception {
+        Tags tags = downstreams.computeIfAbsent(context.getMethod().getDeclaringClass(), this::register);
+
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+
+        try {
+            result = context.proceed();
+        } catch (Exception e) {
+            stop(sample, tags, "error");
+            throw e;
+        }
+
+        if(result instanceof CompletionStage) {
+            return ((CompletionStage<?>) result).whenComplete((r, e) -> stop(sample, tags, e == null ? "success" : "error"));
+        }
+
+        stop(sample, tags, "success");
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, Tags tags, String outcome) {
+        sample.stop(Timer.builder(METRIC_NAME + ".calls").tags(tags).tag("outcome", outcome).register(registry));
+    }
+
+    private Tags register(Class<?> client) {
+        Tags tags = Tags.of("client", client.getSimpleName(), "downstream", DownstreamPoolListener.configKey(client));
+
+        DownstreamPool.of(client).ifPresentOrElse(pool -> pool.bind(registry, METRIC_NAME, tags),
+                () -> LOGGER.debug("No pool registered for {}. Only its call times are reported", client.getSimpleName()));
+
+        return tags;
+    }
+}
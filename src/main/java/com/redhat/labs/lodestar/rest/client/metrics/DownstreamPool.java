@@ -0,0 +1,142 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The connection pool of one rest client. Wraps the pool the client's engine leases from so the time spent waiting
+ * for a connection can be measured, and reports the pool's own counts. A connection is leased until the response
+ * entity is read or closed, so a response relayed as a stream holds its connection until the stream is closed.
+ * Once the client makes a non-blocking call, the counts include the pool of its non-blocking engine. Waits for a
+ * connection in that pool are not timed.
+ */
+public class DownstreamPool implements HttpClientConnectionManager {
+
+    private static final Map<Class<?>, DownstreamPool> POOLS = new ConcurrentHashMap<>();
+
+    private final PoolingHttpClientConnectionManager pool;
+    private volatile Timer leaseWait;
+    private volatile Supplier<PoolStats> nonBlocking;
+
+    DownstreamPool(PoolingHttpClientConnectionManager pool) {
+        this.pool = pool;
+    }
+
+    static void register(Class<?> client, DownstreamPool pool) {
+        POOLS.put(client, pool);
+    }
+
+    static Optional<DownstreamPool> of(Class<?> client) {
+        return Optional.ofNullable(POOLS.get(client));
+    }
+
+    /**
+     * Registers the pool's meters. Leases before this are not timed.
+     */
+    void bind(MeterRegistry registry, String metricName, Tags tags) {
+        Gauge.builder(metricName + ".pool.size", this, p -> p.stats().getMax()).tags(tags).register(registry);
+        Gauge.builder(metricName + ".leased", this, p -> p.stats().getLeased()).tags(tags).register(registry);
+        Gauge.builder(metricName + ".available", this, p -> p.stats().getAvailable()).tags(tags).register(registry);
+        Gauge.builder(metricName + ".pending", this, p -> p.stats().getPending()).tags(tags).register(registry);
+        Gauge.builder(metricName + ".in.flight", this, p -> p.stats().getLeased() + p.stats().getPending()).tags(tags)
+                .register(registry);
+        leaseWait = Timer.builder(metricName + ".lease.wait").tags(tags).register(registry);
+    }
+
+    void nonBlocking(Supplier<PoolStats> stats) {
+        nonBlocking = stats;
+    }
+
+    PoolStats stats() {
+        PoolStats stats = pool.getTotalStats();
+        Supplier<PoolStats> other = nonBlocking;
+        if(other == null) {
+            return stats;
+        }
+
+        PoolStats more = other.get();
+        return new PoolStats(stats.getLeased() + more.getLeased(), stats.getPending() + more.getPending(),
+                stats.getAvailable() + more.getAvailable(), stats.getMax() + more.getMax());
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = pool.requestConnection(route, state);
+        long requested = System.nanoTime();
+
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                try {
+                    return request.get(timeout, timeUnit);
+                } finally {
+                    Timer timer = leaseWait;
+                    if(timer != null) {
+                        timer.record(System.nanoTime() - requested, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection conn, Object newState, long validDuration, TimeUnit timeUnit) {
+        pool.releaseConnection(conn, newState, validDuration, timeUnit);
+    }
+
+    @Override
+    public void connect(HttpClientConnection conn, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+        pool.connect(conn, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection conn, HttpRoute route, HttpContext context) throws IOException {
+        pool.upgrade(conn, route, context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection conn, HttpRoute route, HttpContext context) throws IOException {
+        pool.routeComplete(conn, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+        pool.closeIdleConnections(idletime, timeUnit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        pool.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,251 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.ssl.SSLContexts;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.eclipse.microprofile.rest.client.spi.RestClientListener;
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpAsyncClient4Engine;
+import org.jboss.resteasy.client.jaxrs.engines.AsyncClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.engines.ClientHttpEngineBuilder43;
+import org.jboss.resteasy.client.jaxrs.internal.ResteasyClientBuilderImpl;
+
+import io.quarkus.restclient.config.RestClientConfig;
+import io.quarkus.restclient.config.RestClientsConfig;
+
+/**
+ * Gives each {@link DownstreamMetered} rest client an engine whose connection pool is a {@link DownstreamPool}, so
+ * its use can be reported. The MicroProfile builder does not expose the pool of the engine it builds. The engine
+ * replaces the one RESTEasy would build, so it is given the settings Quarkus reads for the client: pool size,
+ * connection ttl, timeouts, trust store, key store, hostname verifier and proxy address. The http.proxyHost and
+ * https.proxyHost system properties are not applied to these clients. The engine is a {@link DownstreamEngine}, so
+ * the client's CompletionStage methods are non-blocking, with the same settings and a second pool of the same size.
+ * Registered in META-INF/services.
+ */
+public class DownstreamPoolListener implements RestClientListener {
+
+    /**
+     * RESTEasy's pool size when none is configured.
+     */
+    static final int DEFAULT_POOL_SIZE = 50;
+
+    private static final String CLASSPATH = "classpath:";
+    private static final String FILE = "file:";
+
+    @Override
+    public void onNewClient(Class<?> client, RestClientBuilder builder) {
+        if(client.getAnnotation(DownstreamMetered.class) == null) {
+            return;
+        }
+
+        ResteasyClientBuilder settings = settings(client, RestClientsConfig.getInstance());
+        ClientHttpEngine engine = new MeteredEngineBuilder(client, settings).resteasyClientBuilder(settings).build();
+        // set on the resteasy builder underneath by name
+        builder.property("resteasy.httpEngine", engine);
+    }
+
+    /**
+     * Config by client class name wins over config by config key, as it does in Quarkus.
+     */
+    static ResteasyClientBuilder settings(Class<?> client, RestClientsConfig clients) {
+        RestClientConfig byName = clients.getClientConfig(client);
+        RestClientConfig byKey = clients.getClientConfig(configKey(client));
+
+        int poolSize = oneOf(byName.connectionPoolSize, byKey.connectionPoolSize).orElse(DEFAULT_POOL_SIZE);
+        ResteasyClientBuilder settings = new ResteasyClientBuilderImpl().connectionPoolSize(poolSize)
+                .maxPooledPerRoute(poolSize);
+        oneOf(byName.connectionTTL, byKey.connectionTTL)
+                .ifPresent(ttl -> settings.connectionTTL(ttl, TimeUnit.MILLISECONDS));
+        oneOf(byName.connectTimeout, byKey.connectTimeout).or(() -> Optional.ofNullable(clients.connectTimeout))
+                .ifPresent(timeout -> settings.connectTimeout(timeout, TimeUnit.MILLISECONDS));
+        oneOf(byName.readTimeout, byKey.readTimeout).or(() -> Optional.ofNullable(clients.readTimeout))
+                .ifPresent(timeout -> settings.readTimeout(timeout, TimeUnit.MILLISECONDS));
+
+        oneOf(byName.trustStore, byKey.trustStore).ifPresent(location -> settings.trustStore(
+                load(location, oneOf(byName.trustStoreType, byKey.trustStoreType),
+                        oneOf(byName.trustStorePassword, byKey.trustStorePassword))));
+        oneOf(byName.keyStore, byKey.keyStore).ifPresent(location -> {
+            Optional<String> password = oneOf(byName.keyStorePassword, byKey.keyStorePassword);
+            settings.keyStore(load(location, oneOf(byName.keyStoreType, byKey.keyStoreType), password),
+                    password.orElse(""));
+        });
+        oneOf(byName.hostnameVerifier, byKey.hostnameVerifier)
+                .ifPresent(verifier -> settings.hostnameVerifier(hostnameVerifier(verifier)));
+        oneOf(byName.proxyAddress, byKey.proxyAddress).ifPresent(address -> proxy(settings, address));
+
+        return settings;
+    }
+
+    static String configKey(Class<?> client) {
+        RegisterRestClient registration = client.getAnnotation(RegisterRestClient.class);
+        return registration == null || registration.configKey().isEmpty() ? client.getName() : registration.configKey();
+    }
+
+    private static <T> Optional<T> oneOf(Optional<T> first, Optional<T> second) {
+        return first.isPresent() ? first : second;
+    }
+
+    private static KeyStore load(String location, Optional<String> type, Optional<String> password) {
+        try (InputStream input = open(location)) {
+            KeyStore store = KeyStore.getInstance(type.orElse("JKS"));
+            store.load(input, password.map(String::toCharArray).orElse(null));
+            return store;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalArgumentException("Failed to load key store " + location, e);
+        }
+    }
+
+    private static InputStream open(String location) throws IOException {
+        if(location.startsWith(CLASSPATH)) {
+            String resource = location.substring(CLASSPATH.length()).replaceFirst("^/", "");
+            InputStream input = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+            if(input == null) {
+                throw new FileNotFoundException(location);
+            }
+            return input;
+        }
+
+        return Files.newInputStream(Path.of(location.startsWith(FILE) ? location.substring(FILE.length()) : location));
+    }
+
+    private static HostnameVerifier hostnameVerifier(String className) {
+        try {
+            return (HostnameVerifier) Thread.currentThread().getContextClassLoader().loadClass(className)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Failed to create hostname verifier " + className, e);
+        }
+    }
+
+    private static void proxy(ResteasyClientBuilder settings, String address) {
+        int colon = address.lastIndexOf(':');
+        if(colon < 1 || colon == address.length() - 1) {
+            throw new IllegalArgumentException("Proxy address " + address + " is not host:port");
+        }
+
+        try {
+            settings.defaultProxy(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Proxy address " + address + " is not host:port", e);
+        }
+    }
+
+    private static final class MeteredEngineBuilder extends ClientHttpEngineBuilder43 {
+        private final Class<?> client;
+        private final ResteasyClientBuilder settings;
+        private final int poolSize;
+        private final long connectionTTL;
+
+        MeteredEngineBuilder(Class<?> client, ResteasyClientBuilder settings) {
+            this.client = client;
+            this.settings = settings;
+            this.poolSize = settings.getConnectionPoolSize();
+            this.connectionTTL = settings.getConnectionTTL(TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected ClientHttpEngine createEngine(HttpClientConnectionManager cm, RequestConfig.Builder rcBuilder,
+                HttpHost defaultProxy, int responseBufferSize, HostnameVerifier verifier, SSLContext theContext) {
+            DownstreamPool pool = null;
+            if(cm instanceof PoolingHttpClientConnectionManager) {
+                pool = new DownstreamPool((PoolingHttpClientConnectionManager) cm);
+                DownstreamPool.register(client, pool);
+                cm = pool;
+            }
+
+            // as the engine RESTEasy builds, which is a fresh HttpClient that closes itself once unreachable
+            RequestConfig requestConfig = rcBuilder.setProxy(defaultProxy).build();
+            HttpClientBuilder httpClient = HttpClientBuilder.create().setConnectionManager(cm)
+                    .setDefaultRequestConfig(requestConfig).disableContentCompression();
+            if(!settings.isCookieManagementEnabled()) {
+                httpClient.disableCookieManagement();
+            }
+            if(settings.isDisableAutomaticRetries()) {
+                httpClient.disableAutomaticRetries();
+            }
+
+            DownstreamPool metered = pool;
+            DownstreamEngine engine = new DownstreamEngine(httpClient.build(),
+                    () -> nonBlocking(requestConfig, defaultProxy, verifier, theContext, metered));
+            engine.setResponseBufferSize(responseBufferSize);
+            engine.setHostnameVerifier(verifier);
+            engine.setSslContext(theContext);
+            engine.setFollowRedirects(settings.isFollowRedirects());
+            return engine;
+        }
+
+        private AsyncClientHttpEngine nonBlocking(RequestConfig requestConfig, HttpHost proxy, HostnameVerifier verifier,
+                SSLContext sslContext, DownstreamPool metered) {
+            ThreadFactory threads = new IoThreadFactory(client);
+            SSLIOSessionStrategy tls = new SSLIOSessionStrategy(sslContext == null ? SSLContexts.createDefault() : sslContext,
+                    verifier == null ? SSLIOSessionStrategy.getDefaultHostnameVerifier() : verifier);
+
+            PoolingNHttpClientConnectionManager pool;
+            try {
+                pool = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT, threads),
+                        null, RegistryBuilder.<SchemeIOSessionStrategy>create().register("http", NoopIOSessionStrategy.INSTANCE)
+                                .register("https", tls).build(), null, null, connectionTTL, TimeUnit.MILLISECONDS);
+            } catch (IOReactorException e) {
+                throw new IllegalStateException("Failed to start the non-blocking engine of " + client.getSimpleName(), e);
+            }
+            pool.setMaxTotal(poolSize);
+            pool.setDefaultMaxPerRoute(poolSize);
+
+            if(metered != null) {
+                metered.nonBlocking(pool::getTotalStats);
+            }
+
+            return new ApacheHttpAsyncClient4Engine(HttpAsyncClients.custom().setConnectionManager(pool)
+                    .setDefaultRequestConfig(requestConfig).setProxy(proxy).setThreadFactory(threads).build(), true);
+        }
+    }
+
+    /**
+     * Daemon threads, so a client that is never closed does not keep the JVM up.
+     */
+    private static final class IoThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        IoThreadFactory(Class<?> client) {
+            this.prefix = "downstream-io-" + client.getSimpleName() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.redhat.labs.lodestar.rest.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.annotation.Priority;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Lets the http server compress JSON and text bodies larger than the threshold. With quarkus.http.enable-compression
+ * every response starts out marked Content-Encoding: identity, which keeps the server from compressing it. The
+ * first threshold bytes are held back and, if more follow, the mark is taken off before anything is sent so the
+ * server gzips or deflates the body for clients that accept it. Smaller bodies go out as they are.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionThresholdInterceptor implements WriterInterceptor {
+
+    @ConfigProperty(name = "response.compression.threshold", defaultValue = "1024")
+    Instance<Integer> threshold;
+
+    @Inject
+    CurrentVertxRequest currentRequest;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        RoutingContext request = currentRequest.getCurrent();
+
+        if(request == null || !isCompressible(context.getMediaType())
+                || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+
+        context.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ThresholdOutputStream output = new ThresholdOutputStream(context.getOutputStream(), threshold.get(),
+                () -> request.response().headers().remove(HttpHeaders.CONTENT_ENCODING));
+        context.setOutputStream(output);
+        try {
+            context.proceed();
+        } finally {
+            output.finish();
+        }
+    }
+
+    static boolean isCompressible(MediaType type) {
+        return type != null && (MediaType.APPLICATION_JSON_TYPE.isCompatible(type) || "text".equals(type.getType()));
+    }
+
+    /**
+     * Buffers up to threshold bytes. Past that the callback runs and everything is passed straight through. If the
+     * body never gets that big it is written out when the response is finished.
+     */
+    static class ThresholdOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private final int threshold;
+        private final Runnable overThreshold;
+        private ByteArrayOutputStream buffer;
+        private boolean finished;
+
+        ThresholdOutputStream(OutputStream delegate, int threshold, Runnable overThreshold) {
+            this.delegate = delegate;
+            this.threshold = threshold;
+            this.overThreshold = overThreshold;
+            this.buffer = new ByteArrayOutputStream(Math.max(0, Math.min(threshold, 8192)));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if(buffer == null) {
+                delegate.write(b, off, len);
+                return;
+            }
+
+            buffer.write(b, off, len);
+            if(buffer.size() > threshold) {
+                overThreshold.run();
+                buffer.writeTo(delegate);
+                buffer = null;
+            }
+        }
+
+        /**
+         * Flushes only once past the threshold. Flushing the buffered head would send the headers before we know
+         * whether the body may be compressed.
+         */
+        @Override
+        public void flush() throws IOException {
+            if(buffer == null) {
+                delegate.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if(finished) {
+                return;
+            }
+            finished = true;
+
+            if(buffer != null) {
+                buffer.writeTo(delegate);
+                buffer = null;
+            }
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            delegate.close();
+        }
+    }
+}
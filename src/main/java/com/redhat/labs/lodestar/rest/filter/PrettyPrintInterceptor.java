@@ -0,0 +1,85 @@
+package com.redhat.labs.lodestar.rest.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import javax.annotation.Priority;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonReader;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.stream.JsonGenerator;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Pretty prints a JSON response when the request asks for it with ?pretty=true. The compact body is
+ * buffered and reformatted so this is meant for people reading the api, not for clients.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER + 100)
+public class PrettyPrintInterceptor implements WriterInterceptor {
+
+    static final String PRETTY = "pretty";
+
+    private static final JsonWriterFactory WRITERS = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true));
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if(!isRequested() || !MediaType.APPLICATION_JSON_TYPE.isCompatible(context.getMediaType())) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream output = context.getOutputStream();
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        context.setOutputStream(compact);
+        context.proceed();
+
+        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(compact.toByteArray()));
+                JsonWriter writer = WRITERS.createWriter(new NonClosingOutputStream(output))) {
+            writer.write(reader.read());
+        } catch (JsonException e) {
+            // not a json document after all
+            output.write(compact.toByteArray());
+        }
+        context.setOutputStream(output);
+    }
+
+    private boolean isRequested() {
+        return uriInfo != null && Boolean.parseBoolean(uriInfo.getQueryParameters().getFirst(PRETTY));
+    }
+
+    /**
+     * Closing the writer closes the stream under it. The response stream belongs to the container, so only flush it.
+     */
+    static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
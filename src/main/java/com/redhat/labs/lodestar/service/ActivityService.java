@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.service;
 
 import com.redhat.labs.lodestar.model.*;
 import com.redhat.labs.lodestar.rest.client.*;
+import io.smallrye.mutiny.Uni;
 import org.eclipse.microprofile.config.inject.*;
 import org.eclipse.microprofile.rest.client.inject.*;
 
@@ -29,6 +30,10 @@ public class ActivityService {
         return activityApiClient.getActivityForUuid(engagementUuid);
     }
 
+    public Uni<List<Commit>> getActivityForUuidAsync(String engagementUuid) {
+        return Uni.createFrom().completionStage(() -> activityApiClient.getActivityForUuidAsync(engagementUuid));
+    }
+
     public Response getActivityHead(String engagementUuid) {
         return activityApiClient.getLastActivity(engagementUuid);
     }
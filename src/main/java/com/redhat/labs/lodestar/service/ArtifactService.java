@@ -1,26 +1,33 @@
 package com.redhat.labs.lodestar.service;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 
+import com.redhat.labs.lodestar.config.ExecutorConfig;
 import com.redhat.labs.lodestar.model.Artifact;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.redhat.labs.lodestar.model.Engagement;
 import com.redhat.labs.lodestar.model.EngagementArtifact;
+import com.redhat.labs.lodestar.model.EngagementSummary;
 import com.redhat.labs.lodestar.model.event.EventType;
 import com.redhat.labs.lodestar.model.filter.ArtifactOptions;
 import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.rest.client.ArtifactApiClient;
 
 import io.quarkus.vertx.ConsumeEvent;
+import io.smallrye.mutiny.Uni;
 
 @ApplicationScoped
 public class ArtifactService {
@@ -31,12 +38,28 @@ public class ArtifactService {
     ArtifactApiClient artifactRestClient;
     
     @Inject
-    EngagementService engagementService;
+    EngagementSummaryIndex summaryIndex;
 
     @Inject
     ConfigService configService;
 
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor downstreamExecutor;
+
+    @ConfigProperty(name = "downstream.nonblocking.enabled", defaultValue = "false")
+    boolean nonBlocking;
+
     public List<Artifact> getArtifacts(String engagementUuid) {
+        return getArtifacts(engagementUuid, () -> {});
+    }
+
+    /**
+     * @param engagementUuid the engagement uuid
+     * @param onServerError run when the artifact service fails with a 5xx and an empty list is returned instead
+     * @return the artifacts of the engagement
+     */
+    public List<Artifact> getArtifacts(String engagementUuid, Runnable onServerError) {
         ArtifactOptions options = ArtifactOptions.builder().page(0).pageSize(1000)
                 .engagementUuid(engagementUuid).build();
 
@@ -45,36 +68,83 @@ public class ArtifactService {
         } catch (WebApplicationException wex) {
             if(wex.getResponse().getStatus() >= 500) {
                 LOGGER.error("Artifact Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
+                onServerError.run();
                 return Collections.emptyList();
             }
             throw wex;
         }
     }
+
+    /**
+     * {@link #getArtifacts(String, Runnable)} without holding a thread while the artifact service answers.
+     */
+    public Uni<List<Artifact>> getArtifactsAsync(String engagementUuid, Runnable onServerError) {
+        ArtifactOptions options = ArtifactOptions.builder().page(0).pageSize(1000)
+                .engagementUuid(engagementUuid).build();
+
+        return Uni.createFrom().completionStage(() -> artifactRestClient.getArtifactsAsync(options))
+                .onFailure(WebApplicationException.class).recoverWithUni(e -> {
+                    WebApplicationException wex = (WebApplicationException) e;
+                    if(wex.getResponse().getStatus() >= 500) {
+                        LOGGER.error("Artifact Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
+                        onServerError.run();
+                        return Uni.createFrom().item(Collections.emptyList());
+                    }
+                    return Uni.createFrom().failure(wex);
+                });
+    }
     
     public Response getArtifacts(ListFilterOptions filterOptions, String engagementUuid, String type, List<String> region) {
+        ArtifactOptions options = pageOptions(filterOptions, engagementUuid, type, region);
+        return page(artifactRestClient.getArtifacts(options), options);
+    }
+
+    /**
+     * {@link #getArtifacts(ListFilterOptions, String, String, List)} as a Uni. When downstream.nonblocking.enabled
+     * is set no thread waits on the artifact service and the page is decorated on the downstream executor.
+     * Otherwise the page is read as before, on the thread that subscribes.
+     */
+    public Uni<Response> getArtifactsAsync(ListFilterOptions filterOptions, String engagementUuid, String type, List<String> region) {
+        if(!nonBlocking) {
+            return Uni.createFrom().item(() -> getArtifacts(filterOptions, engagementUuid, type, region));
+        }
+
+        ArtifactOptions options = pageOptions(filterOptions, engagementUuid, type, region);
+        return Uni.createFrom().completionStage(() -> artifactRestClient.getArtifactPageAsync(options))
+                .emitOn(downstreamExecutor).map(response -> page(response, options));
+    }
+
+    private static ArtifactOptions pageOptions(ListFilterOptions filterOptions, String engagementUuid, String type, List<String> region) {
         Optional<Integer> pageO = filterOptions.getPage();
         Optional<Integer> pageSizeO = filterOptions.getPerPage();
         int page = pageO.orElse(1);
         page--;
         int pageSize = pageSizeO.orElse(100);
         
-        ArtifactOptions options = ArtifactOptions.builder().page(page).pageSize(pageSize)
+        return ArtifactOptions.builder().page(page).pageSize(pageSize)
                 .engagementUuid(engagementUuid).type(type).region(region).build(); //1 based vs 0 based. Should stabilize around 0 based
+    }
+
+    private Response page(Response response, ArtifactOptions options) {
+        int page = options.getPage();
+        int pageSize = options.getPageSize();
 
-        Response response = artifactRestClient.getArtifacts(options);
-        
         int currentPage = page+1; // 0 based vs 1 based. Need to rectify at some point
         int totalArtifacts = Integer.parseInt(response.getHeaderString("x-total-artifacts"));
         int totalPages = totalArtifacts / pageSize + 1;
         List<EngagementArtifact> artifacts = response.readEntity(new GenericType<>(){});
 
         Map<String, String> artifactOptions = configService.getArtifactOptions();
+        Map<String, EngagementSummary> summaries = summaryIndex.getAll(artifacts.stream()
+                .map(EngagementArtifact::getEngagementUuid).filter(Objects::nonNull).collect(Collectors.toSet()));
 
         for(EngagementArtifact artifact : artifacts) {
-            Engagement e = engagementService.getByUuid(artifact.getEngagementUuid());
-            artifact.setCustomerName(e.getCustomerName());
-            artifact.setProjectName(e.getProjectName());
-            artifact.setRegion(e.getRegion());
+            EngagementSummary e = summaries.get(artifact.getEngagementUuid());
+            if(e != null) {
+                artifact.setCustomerName(e.getCustomerName());
+                artifact.setProjectName(e.getProjectName());
+                artifact.setRegion(e.getRegion());
+            }
 
             artifact.setPrettyType(artifactOptions.get(artifact.getType()));
 
@@ -97,7 +167,7 @@ public class ArtifactService {
     public void update(Engagement engagement, String author, String authorEmail) {
         String uuid = engagement.getUuid();
         try {
-            artifactRestClient.updateArtifacts(uuid, engagement.getRegion(), engagement.getArtifacts(), authorEmail, author);
+            write(engagement, author, authorEmail);
         } catch (WebApplicationException wae) {
             LOGGER.error("Failed to update artifacts for engagement {} {}", wae.getResponse().getStatus(), uuid);
         } catch (RuntimeException wae) {
@@ -105,15 +175,28 @@ public class ArtifactService {
         }
     }
     
+    /**
+     * Same as update but a failed write is thrown to the caller rather than logged.
+     */
+    public void write(Engagement engagement, String author, String authorEmail) {
+        artifactRestClient.updateArtifacts(engagement.getUuid(), engagement.getRegion(), engagement.getArtifacts(),
+                authorEmail, author);
+    }
+
+    /**
+     * With downstream.nonblocking.enabled the worker thread is given back as soon as the refresh is sent.
+     */
     @ConsumeEvent(value = EventType.RELOAD_ARTIFACTS_EVENT_ADDRESS, blocking = true)
-    public void refresh(String message) {
-        try {
-            LOGGER.debug("refresh {}", message);
-            artifactRestClient.refreshArtifacts();
-            LOGGER.debug("refresh {} completed", message);
-        } catch (WebApplicationException wae) { //without catching this it will fail silently
-            LOGGER.error("Failed to refresh artifacts {}", wae.getResponse(), wae);
-        }
+    public Uni<Void> refresh(String message) {
+        LOGGER.debug("refresh {}", message);
+        Uni<Response> refresh = nonBlocking ? Uni.createFrom().completionStage(artifactRestClient::refreshArtifactsAsync)
+                : Uni.createFrom().item(artifactRestClient::refreshArtifacts);
+
+        return refresh.invoke(response -> LOGGER.debug("refresh {} completed", message))
+                .onFailure(WebApplicationException.class).recoverWithItem(wae -> { //without catching this it will fail silently
+                    LOGGER.error("Failed to refresh artifacts {}", ((WebApplicationException) wae).getResponse(), wae);
+                    return null;
+                }).replaceWithVoid();
     }
 
 }
@@ -1,50 +1,157 @@
 package com.redhat.labs.lodestar.service;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.redhat.labs.lodestar.model.ConfigSnapshot;
 import com.redhat.labs.lodestar.rest.client.ConfigApiClient;
+import com.redhat.labs.lodestar.util.RbacIndex;
 
-import io.quarkus.cache.CacheInvalidateAll;
-import io.quarkus.cache.CacheResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
 
+/**
+ * Serves rbac and the option lists from a {@link ConfigSnapshot} that is loaded at startup and reloaded in the
+ * background. Readers never wait on the config service once the first snapshot is in. A new snapshot is swapped
+ * in whole so no reader sees options from one load and rbac from another. A reload that fails is logged and
+ * counted (lodestar.config.snapshot.refresh.failed) and the current snapshot stays in use. With
+ * config.snapshot.enabled=false every read goes to the config service.
+ */
 @ApplicationScoped
 public class ConfigService {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ConfigService.class);
+	static final String METRIC_NAME = "lodestar.config.snapshot";
+
+	@ConfigProperty(name = "config.snapshot.enabled", defaultValue = "true")
+	boolean snapshotEnabled;
 
 	@Inject
 	@RestClient 
 	ConfigApiClient configApiClient;
+
+	@Inject
+	MeterRegistry registry;
+
+	private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+
+	void onStart(@Observes StartupEvent event) {
+		if(snapshotEnabled) {
+			try {
+				refresh();
+			} catch (RuntimeException e) {
+				LOGGER.warn("Config snapshot not loaded at startup. It will be loaded on first use. {}", e.getMessage());
+			}
+		}
+	}
+
+	@Scheduled(every = "{config.snapshot.refresh.interval}", delayed = "{config.snapshot.refresh.interval}",
+			concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+	void scheduledRefresh() {
+		if(snapshotEnabled) {
+			tryRefresh();
+		}
+	}
+
+	private void tryRefresh() {
+		try {
+			refresh();
+		} catch (RuntimeException e) {
+			registry.counter(METRIC_NAME + ".refresh.failed").increment();
+			ConfigSnapshot current = snapshot.get();
+			LOGGER.warn("Config snapshot refresh failed. Keeping the one loaded at {}. {}",
+					current == null ? null : current.getLoaded(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Loads a new snapshot and swaps it in. Readers keep the old one until the load is complete. Loads run one at a
+	 * time so a slow scheduled load cannot finish after a reload asked for since and put back older config.
+	 * 
+	 * @return the new snapshot
+	 */
+	synchronized ConfigSnapshot refresh() {
+		Map<String, String> engagementOptions = configApiClient.getEngagementOptions();
+
+		Map<String, Map<String, String>> participantOptionsByType = new HashMap<>();
+		engagementOptions.keySet().forEach(type -> participantOptionsByType.put(type, configApiClient.getParticipantOptions(type)));
+
+		Map<String, List<String>> rbac = Map.copyOf(configApiClient.getPermission());
+
+		ConfigSnapshot loaded = ConfigSnapshot.builder().rbac(rbac).rbacIndex(new RbacIndex(rbac))
+				.artifactOptions(Map.copyOf(configApiClient.getArtifactOptions()))
+				.engagementOptions(Map.copyOf(engagementOptions))
+				.regionOptions(Map.copyOf(configApiClient.getRegionOptions()))
+				.participantOptions(Map.copyOf(configApiClient.getParticipantOptions()))
+				.participantOptionsByType(Map.copyOf(participantOptionsByType)).loaded(Instant.now()).build();
+
+		snapshot.set(loaded);
+		LOGGER.debug("Config snapshot loaded at {}", loaded.getLoaded());
+		return loaded;
+	}
+
+	private ConfigSnapshot snapshot() {
+		ConfigSnapshot current = snapshot.get();
+		return current == null ? firstSnapshot() : current;
+	}
+
+	private synchronized ConfigSnapshot firstSnapshot() {
+		ConfigSnapshot current = snapshot.get();
+		return current == null ? refresh() : current;
+	}
 	
-	@CacheResult(cacheName = "rbac-cache")
 	public List<String> getPermission(String engagementType) {
 		LOGGER.debug("type {}", engagementType);
 		
-		Map<String, List<String>> allPermissions = configApiClient.getPermission();
+		Map<String, List<String>> allPermissions = snapshotEnabled ? snapshot().getRbac() : configApiClient.getPermission();
 		
-		if(allPermissions.containsKey(engagementType)) {
+		if(engagementType != null && allPermissions.containsKey(engagementType)) {
 			return allPermissions.get(engagementType);
 		}
 		
 		return Collections.emptyList();
 	}
 	
-	@CacheInvalidateAll(cacheName = "rbac-cache")
-	@CacheInvalidateAll(cacheName = "artifact-options")
-	@CacheInvalidateAll(cacheName = "engagement-options")
-	@CacheInvalidateAll(cacheName = "region-options")
+	/**
+	 * @param groups the groups in the caller's token
+	 * @param engagementType the engagement type
+	 * @return true if any of the groups may write engagements of the type
+	 */
+	public boolean isAllowedToWrite(Set<String> groups, String engagementType) {
+		if(snapshotEnabled) {
+			return snapshot().getRbacIndex().isAllowed(groups, engagementType);
+		}
+
+		List<String> allowed = getPermission(engagementType);
+		return groups.stream().anyMatch(allowed::contains);
+	}
+
+	/**
+	 * Reloads everything from the config service. Readers switch to the new config all at once. If the config
+	 * service cannot be reached the current config is kept.
+	 */
 	public void invalidateCache() {
 		LOGGER.debug("Invalidating config cache");
+
+		if(snapshotEnabled) {
+			tryRefresh();
+		}
 	}
 	
 	public Response getRuntimeConfig(Optional<String> type) {
@@ -52,32 +159,49 @@ public class ConfigService {
 		return configApiClient.getRuntimeConfig(type.isPresent() ? type.get() : null);
 	}
 
-	@CacheResult(cacheName = "participant-options")
+	/**
+	 * The options for every type in the engagement options are in the snapshot. Any other type is fetched once and
+	 * added to it.
+	 */
 	public Map<String, String> getParticipantOptions(String type) {
-		LOGGER.debug("cache miss for participant options ({})", type);
-		return configApiClient.getParticipantOptions(type);
+		if(!snapshotEnabled) {
+			return configApiClient.getParticipantOptions(type);
+		}
+
+		Map<String, String> options = snapshot().getParticipantOptionsByType().get(type);
+		return options == null ? addParticipantOptions(type) : options;
 	}
-	@CacheResult(cacheName = "participant-options-base")
+
+	/**
+	 * Holds the same lock as refresh so that options fetched before a reload are not added to the snapshot it
+	 * loaded, and a reload cannot replace the snapshot between the check and the add.
+	 */
+	private synchronized Map<String, String> addParticipantOptions(String type) {
+		ConfigSnapshot current = snapshot();
+		Map<String, String> options = current.getParticipantOptionsByType().get(type);
+
+		if(options == null) {
+			LOGGER.debug("participant options for {} not in the snapshot", type);
+			options = Map.copyOf(configApiClient.getParticipantOptions(type));
+			snapshot.set(current.withParticipantOptions(type, options));
+		}
+
+		return options;
+	}
+
 	public Map<String, String> getParticipantOptions() {
-		LOGGER.debug("cache miss for participant options (base)");
-		return configApiClient.getParticipantOptions();
+		return snapshotEnabled ? snapshot().getParticipantOptions() : configApiClient.getParticipantOptions();
 	}
 
-	@CacheResult(cacheName = "artifact-options")
 	public Map<String, String> getArtifactOptions() {
-		LOGGER.debug("cache miss for artifact options");
-		return configApiClient.getArtifactOptions();
+		return snapshotEnabled ? snapshot().getArtifactOptions() : configApiClient.getArtifactOptions();
 	}
 
-	@CacheResult(cacheName = "engagement-options")
 	public Map<String, String> getEngagementOptions() {
-		LOGGER.debug("cache miss for engagement options");
-		return configApiClient.getEngagementOptions();
+		return snapshotEnabled ? snapshot().getEngagementOptions() : configApiClient.getEngagementOptions();
 	}
 
-	@CacheResult(cacheName = "region-options")
 	public Map<String, String> getRegionOptions() {
-		LOGGER.debug("cache miss for region options");
-		return configApiClient.getRegionOptions();
+		return snapshotEnabled ? snapshot().getRegionOptions() : configApiClient.getRegionOptions();
 	}
 }
@@ -0,0 +1,219 @@
+package com.redhat.labs.lodestar.service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redhat.labs.lodestar.model.Engagement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * In-process cache of fully composed {@link Engagement}s keyed by uuid. An entry is only served after
+ * a cheap revalidation of its last update against the engagement service, so a hit never returns data
+ * older than the engagement service knows about. This will only be consistent in a single pod setup.
+ */
+@ApplicationScoped
+public class EngagementCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngagementCache.class);
+
+    static final String METRIC_NAME = "lodestar.engagement.cache";
+
+    @ConfigProperty(name = "engagement.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "engagement.cache.max.weight", defaultValue = "250000")
+    long maxWeight;
+
+    @Inject
+    MeterRegistry registry;
+
+    Cache<String, Engagement> cache;
+
+    Counter hits;
+    Counter misses;
+    Counter stale;
+    Counter revalidations;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder().maximumWeight(maxWeight).weigher(EngagementCache::weigh).build();
+
+        hits = Counter.builder(METRIC_NAME).tag("result", "hit").register(registry);
+        misses = Counter.builder(METRIC_NAME).tag("result", "miss").register(registry);
+        stale = Counter.builder(METRIC_NAME).tag("result", "stale").register(registry);
+        revalidations = Counter.builder(METRIC_NAME + ".revalidations").register(registry);
+        registry.gauge(METRIC_NAME + ".size", cache, Cache::estimatedSize);
+    }
+
+    /**
+     * Returns a copy of the cached engagement if its last update still matches the one reported by
+     * lastUpdateLookup. Otherwise the engagement is (re)composed with the loader and cached.
+     *
+     * @param uuid the engagement uuid
+     * @param lastUpdateLookup returns the current last update of the engagement from the source of truth
+     * @param loader composes the engagement on a miss
+     * @return the composed engagement
+     */
+    public Engagement get(String uuid, Function<String, String> lastUpdateLookup, Function<String, Engagement> loader) {
+        if(!enabled) {
+            return loader.apply(uuid);
+        }
+
+        return getIfFresh(uuid, lastUpdateLookup).orElseGet(() -> load(uuid, loader));
+    }
+
+    /**
+     * {@link #get(String, Function, Function)} with a lookup and a loader that do not block.
+     */
+    public Uni<Engagement> getAsync(String uuid, Function<String, Uni<String>> lastUpdateLookup,
+            Function<String, Uni<Engagement>> loader) {
+        if(!enabled) {
+            return loader.apply(uuid);
+        }
+
+        return getIfFreshAsync(uuid, lastUpdateLookup).chain(fresh -> fresh.map(e -> Uni.createFrom().item(e))
+                .orElseGet(() -> loader.apply(uuid).map(this::store)));
+    }
+
+    /**
+     * Returns a copy of the cached engagement if its last update still matches the one reported by
+     * lastUpdateLookup. Nothing is looked up when there is no cached entry.
+     *
+     * @param uuid the engagement uuid
+     * @param lastUpdateLookup returns the current last update of the engagement from the source of truth
+     * @return the cached engagement or empty if not cached or stale
+     */
+    public Optional<Engagement> getIfFresh(String uuid, Function<String, String> lastUpdateLookup) {
+        if(!enabled) {
+            return Optional.empty();
+        }
+
+        Engagement cached = cache.getIfPresent(uuid);
+
+        if(cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        revalidations.increment();
+        String current = null;
+        try {
+            current = lastUpdateLookup.apply(uuid);
+        } catch (WebApplicationException wae) {
+            LOGGER.debug("Revalidation failed for {} ({})", uuid, wae.getResponse().getStatus());
+        }
+
+        return revalidated(uuid, cached, current);
+    }
+
+    /**
+     * {@link #getIfFresh(String, Function)} with a lookup that does not block.
+     */
+    public Uni<Optional<Engagement>> getIfFreshAsync(String uuid, Function<String, Uni<String>> lastUpdateLookup) {
+        if(!enabled) {
+            return Uni.createFrom().item(Optional.empty());
+        }
+
+        Engagement cached = cache.getIfPresent(uuid);
+
+        if(cached == null) {
+            misses.increment();
+            return Uni.createFrom().item(Optional.empty());
+        }
+
+        revalidations.increment();
+        return lastUpdateLookup.apply(uuid).onFailure(WebApplicationException.class).recoverWithItem(e -> {
+            LOGGER.debug("Revalidation failed for {} ({})", uuid, ((WebApplicationException) e).getResponse().getStatus());
+            return null;
+        }).map(current -> revalidated(uuid, cached, current));
+    }
+
+    private Optional<Engagement> revalidated(String uuid, Engagement cached, String current) {
+        if(current != null && current.equals(cached.getLastUpdate())) {
+            hits.increment();
+            return Optional.of(copy(cached));
+        }
+
+        LOGGER.debug("Cached engagement {} is stale. cached {} current {}", uuid, cached.getLastUpdate(), current);
+        stale.increment();
+        cache.invalidate(uuid);
+        return Optional.empty();
+    }
+
+    public Optional<Engagement> getIfPresent(String uuid) {
+        return Optional.ofNullable(cache.getIfPresent(uuid)).map(EngagementCache::copy);
+    }
+
+    /**
+     * Caches a copy of the engagement. A degraded engagement is not cached since nothing would replace it until
+     * its last update moves.
+     */
+    public void put(Engagement engagement) {
+        if(!enabled) {
+            return;
+        }
+
+        if(engagement.isDegraded()) {
+            LOGGER.debug("Not caching engagement {}. A section fell back after a downstream failure", engagement.getUuid());
+            cache.invalidate(engagement.getUuid());
+            return;
+        }
+
+        cache.put(engagement.getUuid(), copy(engagement));
+    }
+
+    public void invalidate(String uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private Engagement load(String uuid, Function<String, Engagement> loader) {
+        return store(loader.apply(uuid));
+    }
+
+    private Engagement store(Engagement engagement) {
+        put(engagement);
+        return copy(engagement);
+    }
+
+    /**
+     * Callers decorate the engagement they are given (writeable, excluded fields) so they never get the
+     * cached instance itself.
+     */
+    static Engagement copy(Engagement engagement) {
+        return engagement.toBuilder().build();
+    }
+
+    /**
+     * Weight is roughly the number of objects held by the composed engagement.
+     */
+    static int weigh(String uuid, Engagement engagement) {
+        int weight = 1;
+        weight += engagement.getArtifacts() == null ? 0 : engagement.getArtifacts().size();
+        weight += engagement.getEngagementUsers() == null ? 0 : engagement.getEngagementUsers().size();
+        weight += engagement.getHostingEnvironments() == null ? 0 : engagement.getHostingEnvironments().size();
+        weight += engagement.getCategories() == null ? 0 : engagement.getCategories().size();
+        weight += engagement.getCommits() == null ? 0 : engagement.getCommits().size();
+        return weight;
+    }
+}
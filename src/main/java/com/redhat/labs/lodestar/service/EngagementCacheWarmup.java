@@ -0,0 +1,298 @@
+package com.redhat.labs.lodestar.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.config.ExecutorConfig;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+
+/**
+ * Loads every engagement into the {@link EngagementCache} so users do not pay the cold path after a
+ * restart. Engagements are paged from the engagement service and composed with a bounded number in
+ * flight and a cap on how many are started per second to avoid flooding the downstream services. Each batch is
+ * a Vert.x timer task, as in {@link RetryScheduler}, so the warm-up does not hold a thread while it waits.
+ */
+@ApplicationScoped
+public class EngagementCacheWarmup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngagementCacheWarmup.class);
+
+    private static final String METRIC_NAME = EngagementCache.METRIC_NAME + ".warmup";
+    private static final String TOTAL_HEADER = "x-total-engagements";
+
+    @ConfigProperty(name = "engagement.cache.warmup.on.startup", defaultValue = "true")
+    boolean onStartup;
+
+    @ConfigProperty(name = "engagement.cache.warmup.concurrency", defaultValue = "4")
+    int concurrency;
+
+    @ConfigProperty(name = "engagement.cache.warmup.rate", defaultValue = "20")
+    int ratePerSecond;
+
+    @ConfigProperty(name = "engagement.cache.warmup.page.size", defaultValue = "100")
+    int pageSize;
+
+    @ConfigProperty(name = "engagement.cache.warmup.ready.percent", defaultValue = "90")
+    int readyPercent;
+
+    @Inject
+    @RestClient
+    EngagementApiClient engagementApiClient;
+
+    @Inject
+    EngagementService engagementService;
+
+    @Inject
+    EngagementCache engagementCache;
+
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor executor;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Vertx vertx;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean waiting = new AtomicBoolean();
+    private final Deque<String> queued = new ArrayDeque<>();
+    private int page;
+    private boolean lastPage;
+    private Timer.Sample started;
+    private volatile int total;
+    private volatile boolean finished;
+    /**
+     * Set once the first warm-up is ready and never reset. Readiness only waits for that one
+     */
+    private volatile boolean warmedOnce;
+
+    Counter warmedCounter;
+    Counter failedCounter;
+    Timer duration;
+
+    @PostConstruct
+    void init() {
+        warmedCounter = Counter.builder(METRIC_NAME).tag("result", "warmed").register(registry);
+        failedCounter = Counter.builder(METRIC_NAME).tag("result", "failed").register(registry);
+        duration = Timer.builder(METRIC_NAME + ".duration").register(registry);
+        registry.gauge(METRIC_NAME + ".progress", this, EngagementCacheWarmup::getProgress);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if(onStartup && engagementCache.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Starts a warm-up in the background unless one is already running.
+     *
+     * @return true if a warm-up was started
+     */
+    public boolean warmUp() {
+        if(!engagementCache.isEnabled() || !running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        synchronized (this) {
+            warmed.set(0);
+            failed.set(0);
+            total = 0;
+            finished = false;
+            page = 0;
+            lastPage = false;
+            queued.clear();
+            started = Timer.start(registry);
+        }
+
+        LOGGER.info("Engagement cache warm-up started. concurrency {} rate {}/s", concurrency, ratePerSecond);
+        next(0);
+        return true;
+    }
+
+    /**
+     * Starts the next batch: as many queued engagements as there are free slots, loading the next page when the
+     * queue is empty. The batch after it is a timer task due once the batch's share of ratePerSecond has passed.
+     * With no free slot nothing is scheduled and the next composition to finish runs the step again. No thread
+     * is held between batches.
+     */
+    synchronized void step() {
+        if(finished) {
+            return;
+        }
+
+        try {
+            if(queued.isEmpty() && !lastPage) {
+                List<Engagement> engagements = getPage(page++);
+                lastPage = engagements.size() < pageSize;
+                engagements.forEach(e -> queued.add(e.getUuid()));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Engagement cache warm-up could not load page {}", page - 1, e);
+            lastPage = true;
+        }
+
+        int batch = Math.min(concurrency - inFlight.get(), queued.size());
+
+        if(batch <= 0) {
+            waiting.set(true);
+            // a composition may have finished before waiting was set
+            if(inFlight.get() < (queued.isEmpty() ? 1 : concurrency)) {
+                wake();
+            }
+            return;
+        }
+
+        for(int i = 0; i < batch; i++) {
+            compose(queued.poll());
+        }
+
+        next(Math.max(1, TimeUnit.SECONDS.toMillis(batch) / Math.max(ratePerSecond, 1)));
+    }
+
+    private void compose(String uuid) {
+        inFlight.incrementAndGet();
+        engagementService.composeEngagement(uuid, EngagementSection.all(), null).subscribe().with(composed -> {
+            engagementCache.put(composed);
+            warmed.incrementAndGet();
+            warmedCounter.increment();
+            composed();
+        }, ex -> {
+            LOGGER.error("Unable to warm engagement {}", uuid, ex);
+            failed.incrementAndGet();
+            failedCounter.increment();
+            composed();
+        });
+    }
+
+    private void composed() {
+        inFlight.decrementAndGet();
+        wake();
+    }
+
+    private void wake() {
+        if(waiting.compareAndSet(true, false)) {
+            next(0);
+        }
+    }
+
+    private void next(long delayMillis) {
+        try {
+            if(delayMillis <= 0) {
+                executor.execute(this::tick);
+            } else {
+                vertx.setTimer(delayMillis, id -> executor.execute(this::tick));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Engagement cache warm-up stopped", e);
+            finish();
+        }
+    }
+
+    private synchronized void tick() {
+        if(queued.isEmpty() && lastPage && inFlight.get() == 0) {
+            finish();
+        } else {
+            step();
+        }
+    }
+
+    private synchronized void finish() {
+        if(finished) {
+            return;
+        }
+
+        finished = true;
+        warmedOnce = true;
+        started.stop(duration);
+        running.set(false);
+        LOGGER.info("Engagement cache warm-up completed. warmed {} failed {} of {}", warmed.get(), failed.get(), total);
+    }
+
+    private List<Engagement> getPage(int page) {
+        Response response = engagementApiClient.getEngagements(page, pageSize, Collections.emptySet(),
+                Collections.emptySet(), Collections.emptySet(), null, null, null);
+
+        String totalHeader = response.getHeaderString(TOTAL_HEADER);
+        if(totalHeader != null) {
+            total = Integer.parseInt(totalHeader);
+        }
+
+        List<Engagement> engagements = response.readEntity(new GenericType<>(){});
+        if(totalHeader == null) {
+            total += engagements.size();
+        }
+        return engagements;
+    }
+
+    /**
+     * @return the fraction (0 - 1) of engagements processed by the current or last warm-up
+     */
+    public double getProgress() {
+        if(finished) {
+            return 1;
+        }
+        return total == 0 ? 0 : (double) (warmed.get() + failed.get()) / total;
+    }
+
+    /**
+     * A warm-up that has finished, successfully or not, counts as ready so a downstream outage at startup
+     * cannot keep the pod out of rotation forever. Only the first warm-up counts. One started on demand later
+     * leaves the pod serving from the cache as it is.
+     *
+     * @return true if the cache is warm enough to serve traffic
+     */
+    public boolean isReady() {
+        if(!warmedOnce && (finished || getProgress() * 100 >= readyPercent)) {
+            warmedOnce = true;
+        }
+        return !engagementCache.isEnabled() || !onStartup || warmedOnce;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public int getWarmed() {
+        return warmed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
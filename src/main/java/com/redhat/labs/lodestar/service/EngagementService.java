@@ -1,5 +1,6 @@
 package com.redhat.labs.lodestar.service;
 
+import com.redhat.labs.lodestar.config.ExecutorConfig;
 import com.redhat.labs.lodestar.model.*;
 import com.redhat.labs.lodestar.model.Engagement.EngagementState;
 import com.redhat.labs.lodestar.model.filter.EngagementFilterOptions;
@@ -9,7 +10,13 @@ import com.redhat.labs.lodestar.rest.client.CategoryApiClient;
 import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
 import com.redhat.labs.lodestar.rest.client.EngagementStatusApiClient;
 import com.redhat.labs.lodestar.rest.client.UseCaseApiClient;
+import com.redhat.labs.lodestar.util.CollectionDiff;
+import com.redhat.labs.lodestar.util.EngagementListStreamingOutput;
+import io.quarkus.cache.CacheResult;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.tuples.Tuple5;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.javers.core.Javers;
 import org.javers.core.JaversBuilder;
@@ -20,12 +27,22 @@ import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.bind.Jsonb;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
+import java.io.StringReader;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -33,6 +50,8 @@ public class EngagementService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EngagementService.class);
 
+    private static final String LAST_UPDATE_HEADER = "last-update";
+
     @ConfigProperty(name = "status.file")
     List<String> statusFile;
 
@@ -42,6 +61,15 @@ public class EngagementService {
     @ConfigProperty(name = "commit.msg.filter.list", defaultValue = "not.set")
     List<String> commitFilteredMessages;
 
+    @ConfigProperty(name = "engagement.batch.max.size", defaultValue = "100")
+    int batchMaxSize;
+
+    @ConfigProperty(name = "engagement.list.streaming.enabled", defaultValue = "false")
+    boolean streamList;
+
+    @ConfigProperty(name = "downstream.nonblocking.enabled", defaultValue = "false")
+    boolean nonBlocking;
+
     @Inject
     ParticipantService participantService;
 
@@ -73,53 +101,315 @@ public class EngagementService {
     @Inject
     ActivityService activityService;
 
+    @Inject
+    EngagementCache engagementCache;
+
+    @Inject
+    EngagementSummaryIndex summaryIndex;
+
+    @Inject
+    Jsonb jsonb;
+
+    @Inject
+    EngagementCacheWarmup engagementCacheWarmup;
+
+    @Inject
+    Outbox outbox;
+
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor downstreamExecutor;
+
+    private static final Map<String, String> LEGACY_TWINS = Map.of("name", "project_name", "project_name", "name",
+            "region", "engagement_region", "engagement_region", "region", "type", "engagement_type", "engagement_type", "type");
+
+    private static final CollectionDiff<HostingEnvironment> HOSTING_DIFF = CollectionDiff.of(HostingEnvironment.class, HostingEnvironment::getUuid);
+    private static final CollectionDiff<Artifact> ARTIFACT_DIFF = CollectionDiff.of(Artifact.class, Artifact::getUuid);
+    private static final CollectionDiff<EngagementUser> PARTICIPANT_DIFF = CollectionDiff.of(EngagementUser.class, EngagementUser::getEmail);
+    private static final CollectionDiff<Category> CATEGORY_DIFF = CollectionDiff.of(Category.class, Category::getName);
+
     Javers javers = JaversBuilder.javers().withListCompareAlgorithm(ListCompareAlgorithm.LEVENSHTEIN_DISTANCE).build();
 
 
-    public void flushCache() { //TODO
-        //List<Engagement>  allEngagements = engagementApiClient.getEngagements(0,5000);
-        //allEngagements.forEach(e -> getEngagement(e.getUuid()));
+    /**
+     * Loads every engagement into the cache in the background.
+     *
+     * @return true if a warm-up was started. false if one is running or caching is disabled
+     */
+    public boolean flushCache() {
+        return engagementCacheWarmup.warmUp();
     }
 
-    //TODO cache this - btw - this caching will probably only work in a single pod sitch.
-    // could continue to leverage the db or use distribute cache (back to Alpha!)
+    /**
+     * Returns the composed {@link Engagement}. A cached copy is served when its last update still matches
+     * the engagement service, otherwise it is composed again from the downstream services.
+     *
+     * @param uuid the engagement uuid
+     * @return the composed engagement
+     */
     public Engagement getEngagement(String uuid) {
-        LOGGER.debug("getting uuid {}", uuid);
-        Engagement engagement = engagementApiClient.getEngagement(uuid);
-        List<HostingEnvironment> hes = hostingEnvironmentService.getHostingEnvironments(uuid);
-        List<Artifact> artifacts = artifactService.getArtifacts(uuid);
-        List<EngagementUser> participants = participantService.getParticipantsForEngagement(uuid);
-        //As v2 gets rolling in FE - categories will switch to a string list and this call won't be necessary
-        List<Category> categories = categoryApiClient.getCategories(uuid);
-        List<Commit> activity = activityService.getActivityForUuid(uuid);
-
-        engagement.setHostingEnvironments(hes);
-        engagement.setArtifacts(artifacts);
-        engagement.setEngagementUsers(new HashSet<>(participants));
-        engagement.setCategories(categories);
-        engagement.setCommits(activity);
-
-        EngagementState state = engagement.getEngagementCurrentState(Instant.now());
-        if(state.equals(EngagementState.ACTIVE) || state.equals(EngagementState.TERMINATING)) {
-            engagement.setStatus(getStatus(uuid));
+        return engagementCache.get(uuid, this::getLastUpdate, this::composeEngagement);
+    }
+
+    /**
+     * Returns the {@link Engagement} with only the requested sections populated. The full engagement is
+     * served from the cache when a fresh copy is available. Otherwise only the services owning the requested
+     * sections are called and the partial result is not cached.
+     *
+     * @param uuid the engagement uuid
+     * @param sections the sections to populate
+     * @return the engagement
+     */
+    public Engagement getEngagement(String uuid, Set<EngagementSection> sections) {
+        if(sections.containsAll(EngagementSection.all())) {
+            return getEngagement(uuid);
         }
 
-        LOGGER.trace("got uuid {} with last update {}", uuid, engagement.getLastUpdate());
+        Engagement engagement = engagementCache.getIfFresh(uuid, this::getLastUpdate)
+                .orElseGet(() -> composeEngagement(uuid, sections, null).await().indefinitely());
+
+        EnumSet.complementOf(EnumSet.copyOf(sections)).forEach(section -> section.clear(engagement));
         return engagement;
     }
 
-    private Status getStatus(String uuid) {
+    /**
+     * {@link #getEngagement(String, Set)} as a Uni. When downstream.nonblocking.enabled is set no thread waits on the
+     * downstream services, including the revalidation of a cached copy, and the engagement is handed back on the
+     * downstream executor rather than on the rest clients' I/O threads. Otherwise the engagement is composed as
+     * before, on the thread that subscribes.
+     *
+     * @param uuid the engagement uuid
+     * @param sections the sections to populate
+     * @return the engagement
+     */
+    public Uni<Engagement> getEngagementAsync(String uuid, Set<EngagementSection> sections) {
+        if(!nonBlocking) {
+            return Uni.createFrom().item(() -> getEngagement(uuid, sections));
+        }
+
+        Uni<Engagement> engagement;
+        if(sections.containsAll(EngagementSection.all())) {
+            engagement = engagementCache.getAsync(uuid, this::getLastUpdateAsync,
+                    id -> composeEngagement(id, EngagementSection.all(), null));
+        } else {
+            engagement = engagementCache.getIfFreshAsync(uuid, this::getLastUpdateAsync).chain(cached -> cached
+                    .map(e -> Uni.createFrom().item(e)).orElseGet(() -> composeEngagement(uuid, sections, null)))
+                    .invoke(e -> EnumSet.complementOf(EnumSet.copyOf(sections)).forEach(section -> section.clear(e)));
+        }
+
+        return engagement.emitOn(downstreamExecutor);
+    }
+
+    /**
+     * Returns the {@link Engagement}s for the given uuids with the requested sections populated. Hosting
+     * environments and participants are fetched for every engagement with a single bulk query each and grouped
+     * by engagement in memory. Services without a bulk query are called per engagement, concurrently. Engagements
+     * that do not exist are left out.
+     *
+     * @param uuids the engagement uuids
+     * @param sections the sections to populate
+     * @return the engagements in the order requested
+     */
+    public List<Engagement> getEngagements(Collection<String> uuids, Set<EngagementSection> sections) {
+        Set<String> distinct = new LinkedHashSet<>(uuids);
+
+        if(distinct.size() > batchMaxSize) {
+            throw new WebApplicationException(String.format("A batch is limited to %d engagements", batchMaxSize), 400);
+        }
+
+        if(distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<EngagementSection> perEngagement = EnumSet.copyOf(sections);
+        perEngagement.removeAll(EnumSet.of(EngagementSection.HOSTING, EngagementSection.PARTICIPANTS));
+
+        Uni<Map<String, List<HostingEnvironment>>> hostingUni = section(sections, EngagementSection.HOSTING,
+                () -> hostingEnvironmentService.getHostingEnvironmentsByEngagement(distinct));
+        Uni<Map<String, List<EngagementUser>>> participantsUni = section(sections, EngagementSection.PARTICIPANTS,
+                () -> participantService.getParticipantsByEngagement(distinct));
+
+        List<Uni<Engagement>> composed = distinct.stream().map(uuid -> composeEngagement(uuid, perEngagement, null)
+                .onFailure(EngagementService::isNotFound).recoverWithNull()).collect(Collectors.toList());
+        Uni<List<Engagement>> engagementsUni = Uni.combine().all().unis(composed).combinedWith(results -> results.stream()
+                .filter(Objects::nonNull).map(Engagement.class::cast).collect(Collectors.toList()));
+
+        boolean complete = sections.containsAll(EngagementSection.all());
+
+        return Uni.combine().all().unis(engagementsUni, hostingUni, participantsUni)
+                .combinedWith((engagements, hosting, participants) -> {
+                    for(Engagement e : engagements) {
+                        if(sections.contains(EngagementSection.HOSTING)) {
+                            e.setHostingEnvironments(hosting.getOrDefault(e.getUuid(), new ArrayList<>()));
+                        }
+                        if(sections.contains(EngagementSection.PARTICIPANTS)) {
+                            e.setEngagementUsers(new HashSet<>(participants.getOrDefault(e.getUuid(), Collections.emptyList())));
+                        }
+                        if(complete) {
+                            engagementCache.put(e);
+                        }
+                    }
+                    return engagements;
+                }).await().indefinitely();
+    }
+
+    private static boolean isNotFound(Throwable t) {
+        return t instanceof WebApplicationException && ((WebApplicationException) t).getResponse().getStatus() == 404;
+    }
+
+    /**
+     * Composes the full {@link Engagement} from each of the downstream services.
+     *
+     * @param uuid the engagement uuid
+     * @return the composed engagement
+     */
+    Engagement composeEngagement(String uuid) {
+        return composeEngagement(uuid, EngagementSection.all(), null).await().indefinitely();
+    }
+
+    /**
+     * Composes an {@link Engagement} from the downstream services. The calls are issued concurrently so
+     * the latency is that of the slowest service rather than the sum of all of them. Status depends on the
+     * engagement state and so is chained after the engagement call. The engagement itself is always
+     * fetched. Sections not requested are copied from base when it is given. The result is marked degraded
+     * when a section fell back after its service failed. With downstream.nonblocking.enabled the calls are made
+     * without a thread waiting on each of them.
+     *
+     * @param uuid the engagement uuid
+     * @param sections the sections to fetch from the downstream services
+     * @param base a previously composed engagement to take the other sections from. Can be null
+     * @return the composed engagement
+     */
+    Uni<Engagement> composeEngagement(String uuid, Set<EngagementSection> sections, Engagement base) {
+        LOGGER.debug("getting uuid {} sections {}", uuid, sections);
+        return composeEngagement(uuid, call(() -> engagementApiClient.getEngagement(uuid),
+                () -> Uni.createFrom().completionStage(() -> engagementApiClient.getEngagementAsync(uuid))), sections, base);
+    }
+
+    private Uni<Engagement> composeEngagement(String uuid, Uni<Engagement> engagement, Set<EngagementSection> sections,
+            Engagement base) {
+        AtomicBoolean degraded = new AtomicBoolean(base != null && base.isDegraded());
+        Runnable fellBack = () -> degraded.set(true);
+
+        Uni<Engagement> engagementUni = engagement.chain(e -> {
+            EngagementState state = e.getEngagementCurrentState(Instant.now());
+            if(sections.contains(EngagementSection.STATUS) &&
+                    (state.equals(EngagementState.ACTIVE) || state.equals(EngagementState.TERMINATING))) {
+                return call(() -> getStatus(uuid, fellBack), () -> getStatusAsync(uuid, fellBack)).map(status -> {
+                    e.setStatus(status);
+                    return e;
+                });
+            }
+            return Uni.createFrom().item(e);
+        });
+        Uni<List<HostingEnvironment>> hostingUni = section(sections, EngagementSection.HOSTING,
+                () -> hostingEnvironmentService.getHostingEnvironments(uuid, fellBack),
+                () -> hostingEnvironmentService.getHostingEnvironmentsAsync(uuid, fellBack));
+        Uni<List<Artifact>> artifactsUni = section(sections, EngagementSection.ARTIFACTS,
+                () -> artifactService.getArtifacts(uuid, fellBack),
+                () -> artifactService.getArtifactsAsync(uuid, fellBack));
+        Uni<List<EngagementUser>> participantsUni = section(sections, EngagementSection.PARTICIPANTS,
+                () -> participantService.getParticipantsForEngagement(uuid, fellBack),
+                () -> participantService.getParticipantsForEngagementAsync(uuid, fellBack));
+        //As v2 gets rolling in FE - categories will switch to a string list and this call won't be necessary
+        Uni<List<Category>> categoriesUni = section(sections, EngagementSection.CATEGORIES,
+                () -> categoryApiClient.getCategories(uuid),
+                () -> Uni.createFrom().completionStage(() -> categoryApiClient.getCategoriesAsync(uuid)));
+        Uni<List<Commit>> activityUni = section(sections, EngagementSection.ACTIVITY,
+                () -> activityService.getActivityForUuid(uuid),
+                () -> activityService.getActivityForUuidAsync(uuid));
+
+        Engagement fallback = base == null ? new Engagement() : base;
+
+        return Uni.combine().all()
+                .unis(engagementUni, hostingUni, artifactsUni, participantsUni, categoriesUni, activityUni)
+                .combinedWith((e, hes, artifacts, participants, categories, activity) -> {
+                    e.setHostingEnvironments(sections.contains(EngagementSection.HOSTING) ? hes : fallback.getHostingEnvironments());
+                    e.setArtifacts(sections.contains(EngagementSection.ARTIFACTS) ? artifacts : fallback.getArtifacts());
+                    e.setEngagementUsers(sections.contains(EngagementSection.PARTICIPANTS) ? new HashSet<>(participants) : fallback.getEngagementUsers());
+                    e.setCategories(sections.contains(EngagementSection.CATEGORIES) ? categories : fallback.getCategories());
+                    e.setCommits(sections.contains(EngagementSection.ACTIVITY) ? activity : fallback.getCommits());
+                    if(!sections.contains(EngagementSection.STATUS)) {
+                        e.setStatus(fallback.getStatus());
+                    }
+                    e.setDegraded(degraded.get());
+
+                    LOGGER.trace("got uuid {} with last update {}", uuid, e.getLastUpdate());
+                    return e;
+                });
+    }
+
+    /**
+     * Refreshes the given sections of an engagement in the background and caches the result. The cached
+     * entry is dropped straight away so readers compose fresh data until the refresh lands. The other
+     * sections are reused from the cached entry. If nothing is cached the whole engagement is loaded.
+     *
+     * @param uuid the engagement uuid
+     * @param sections the sections that changed
+     */
+    void refreshSections(String uuid, Set<EngagementSection> sections) {
+        Engagement base = engagementCache.getIfPresent(uuid).orElse(null);
+        engagementCache.invalidate(uuid);
+
+        Set<EngagementSection> toLoad = base == null ? EngagementSection.all() : sections;
+        LOGGER.debug("refreshing {} for engagement {}", toLoad, uuid);
+
+        composeEngagement(uuid, toLoad, base).subscribe().with(engagementCache::put,
+                e -> LOGGER.error("Failed to refresh {} for engagement {}", toLoad, uuid, e));
+    }
+
+    private <T> Uni<T> section(Set<EngagementSection> sections, EngagementSection section, Supplier<T> call) {
+        return sections.contains(section) ? async(call) : Uni.createFrom().nullItem();
+    }
+
+    private <T> Uni<T> section(Set<EngagementSection> sections, EngagementSection section, Supplier<T> blocking,
+            Supplier<Uni<T>> nonBlockingCall) {
+        return sections.contains(section) ? call(blocking, nonBlockingCall) : Uni.createFrom().nullItem();
+    }
+
+    /**
+     * The non-blocking form of a downstream call when downstream.nonblocking.enabled is set, otherwise the blocking
+     * form on the downstream executor.
+     */
+    private <T> Uni<T> call(Supplier<T> blocking, Supplier<Uni<T>> nonBlockingCall) {
+        return nonBlocking ? nonBlockingCall.get() : async(blocking);
+    }
+
+    /**
+     * Runs the blocking downstream call on the downstream executor when subscribed. The call is handed to the
+     * executor itself rather than wrapped by Mutiny, which would carry the caller's RESTEasy context along. A
+     * request's context must not be shared between threads, and off a request it is an unmodifiable empty map
+     * that the rest clients fail on.
+     */
+    private <T> Uni<T> async(Supplier<T> call) {
+        return Uni.createFrom().completionStage(() -> downstreamExecutor.supplyAsync(call));
+    }
+
+    private Status getStatus(String uuid, Runnable onFailure) {
         try {
             LOGGER.debug("Getting status for {}", uuid);
             return engagementStatusApiClient.getEngagementStatus(uuid);
-        } catch (WebApplicationException wex) {
-            if(wex.getResponse().getStatus() == 404) {
-                LOGGER.debug("No status for active/terminating engagement {}", uuid);
-            } else {
-                LOGGER.error("Exception occurred retrieving status for engagement {}", uuid);
-            }
-        } catch (ProcessingException pe) {
-            LOGGER.error("Cannot connect to lodestar-engagement-status for engagement {}", uuid,  pe);
+        } catch (WebApplicationException | ProcessingException e) {
+            return noStatus(uuid, e, onFailure);
+        }
+    }
+
+    private Uni<Status> getStatusAsync(String uuid, Runnable onFailure) {
+        LOGGER.debug("Getting status for {}", uuid);
+        return Uni.createFrom().completionStage(() -> engagementStatusApiClient.getEngagementStatusAsync(uuid))
+                .onFailure(e -> e instanceof WebApplicationException || e instanceof ProcessingException)
+                .recoverWithItem(e -> noStatus(uuid, e, onFailure));
+    }
+
+    private Status noStatus(String uuid, Throwable failure, Runnable onFailure) {
+        if(failure instanceof ProcessingException) {
+            LOGGER.error("Cannot connect to lodestar-engagement-status for engagement {}", uuid,  failure);
+            onFailure.run();
+        } else if(((WebApplicationException) failure).getResponse().getStatus() == 404) {
+            LOGGER.debug("No status for active/terminating engagement {}", uuid);
+        } else {
+            LOGGER.error("Exception occurred retrieving status for engagement {}", uuid);
+            onFailure.run();
         }
 
         return null;
@@ -129,6 +419,15 @@ public class EngagementService {
         return engagementApiClient.getEngagementHead(uuid);
     }
 
+    private String getLastUpdate(String uuid) {
+        return getEngagementHead(uuid).getHeaderString(LAST_UPDATE_HEADER);
+    }
+
+    private Uni<String> getLastUpdateAsync(String uuid) {
+        return Uni.createFrom().completionStage(() -> engagementApiClient.getEngagementHeadAsync(uuid))
+                .map(head -> head.getHeaderString(LAST_UPDATE_HEADER));
+    }
+
     public Engagement getByUuid(String engagementUuid) {
         return engagementApiClient.getEngagement(engagementUuid);
     }
@@ -141,7 +440,9 @@ public class EngagementService {
      */
     public Engagement create(Engagement engagement) {
         LOGGER.debug("sending create request {}", engagement);
-        return engagementApiClient.createEngagement(engagement);
+        Engagement created = engagementApiClient.createEngagement(engagement);
+        summaryIndex.put(created);
+        return created;
     }
 
     /**
@@ -153,86 +454,259 @@ public class EngagementService {
      * @return
      */
     public Engagement update(Engagement engagement) {
-        boolean somethingChanged = false;
+        //Will return a 404 with a message saying the uuid is not valid
+        Engagement persisted = engagementApiClient.getEngagement(engagement.getUuid());
+        return update(engagement, persisted, EngagementSection.all());
+    }
+
+    /**
+     * Applies a JSON merge patch (RFC 7386) to the persisted engagement. Arrays in the patch replace the
+     * section they name as a whole.
+     *
+     * @param persisted the engagement as stored by the engagement service
+     * @param patch the merge patch
+     * @return the patched engagement. The uuid cannot be patched
+     */
+    public Engagement merge(Engagement persisted, JsonObject patch) {
+        JsonObject target = Json.createReader(new StringReader(jsonb.toJson(persisted))).readObject();
+        Engagement patched = jsonb.fromJson(Json.createMergePatch(withLegacyTwins(patch)).apply(target).toString(),
+                Engagement.class);
+        patched.setUuid(persisted.getUuid());
+        return patched;
+    }
+
+    /**
+     * The patch with each patched legacy property copied onto its twin. The target holds both halves of a pair and
+     * the engagement's setters keep them in step, so a stale twin applied after the patched half would undo it.
+     */
+    static JsonObject withLegacyTwins(JsonObject patch) {
+        JsonObjectBuilder withTwins = Json.createObjectBuilder(patch);
+
+        LEGACY_TWINS.forEach((property, twin) -> {
+            if(patch.containsKey(property) && !patch.containsKey(twin)) {
+                withTwins.add(twin, patch.get(property));
+            }
+        });
 
+        return withTwins.build();
+    }
+
+    /**
+     * Writes the given sections of the engagement. Sections outside of the given set are neither diffed
+     * nor written.
+     *
+     * Once the last update is validated the current sections are read concurrently and each section is diffed
+     * concurrently against the request. Only changed sections are written. The engagement itself is written
+     * first since the other services may read it (participants look up the region) and the remaining section
+     * writes are then issued in parallel. The response is built from the data already held plus a single read
+     * of the engagement for its new last update rather than composing the engagement again. Only the services
+     * owning the given sections are called. The other sections are taken from the cache when it holds the
+     * engagement at the persisted last update and are otherwise left empty. With the {@link Outbox} enabled the
+     * changed sections other than the engagement are recorded there and sent in the background. The response then
+     * holds the requested sections rather than reloaded ones.
+     *
+     * @param engagement the engagement holding the desired state
+     * @param persisted the engagement as stored by the engagement service
+     * @param sections the sections to write
+     * @return the updated engagement
+     */
+    public Engagement update(Engagement engagement, Engagement persisted, Set<EngagementSection> sections) {
         String author = engagement.getLastUpdateByName();
         String authorEmail = engagement.getLastUpdateByEmail();
-        String engagementUuid = engagement.getUuid();
-
-        //Will return a 404 with a message saying the uuid is not valid
-        Engagement current = engagementApiClient.getEngagement(engagement.getUuid());
+        String engagementUuid = persisted.getUuid();
 
         // Validate activity is sync'd to prevent overwrites
         // This is legacy behavior. We should support last update per service
-        validateLastUpdateIsLatest(engagement.getLastUpdate(), current.getLastUpdate(), engagementUuid);
+        validateLastUpdateIsLatest(engagement.getLastUpdate(), persisted.getLastUpdate(), engagementUuid);
+
+        Engagement base = engagementCache.getIfPresent(engagementUuid)
+                .filter(cached -> persisted.getLastUpdate().equals(cached.getLastUpdate())).orElse(null);
+        boolean complete = base != null || sections.containsAll(EngagementSection.all());
+
+        Engagement current = composeEngagement(engagementUuid, Uni.createFrom().item(persisted), sections, base)
+                .await().indefinitely();
+
+        Tuple5<Boolean, Boolean, Boolean, Boolean, Boolean> changes = Uni.combine().all().unis(
+                changed(sections, EngagementSection.ENGAGEMENT, () -> javers.compare(withoutSections(current),
+                        withoutSections(engagement)), Diff::hasChanges),
+                changed(sections, EngagementSection.HOSTING, () -> HOSTING_DIFF.compare(current.getHostingEnvironments(),
+                        engagement.getHostingEnvironments()), CollectionDiff.Changes::hasChanges),
+                changed(sections, EngagementSection.ARTIFACTS, () -> ARTIFACT_DIFF.compare(current.getArtifacts(),
+                        engagement.getArtifacts()), CollectionDiff.Changes::hasChanges),
+                changed(sections, EngagementSection.PARTICIPANTS, () -> PARTICIPANT_DIFF.compare(current.getEngagementUsers(),
+                        engagement.getEngagementUsers()), CollectionDiff.Changes::hasChanges),
+                changed(sections, EngagementSection.CATEGORIES, () -> CATEGORY_DIFF.compare(current.getCategories(),
+                        engagement.getCategories()), CollectionDiff.Changes::hasChanges))
+                .asTuple().await().indefinitely();
+
+        boolean engagementChanged = changes.getItem1();
+        boolean hostingChanged = changes.getItem2();
+        boolean artifactsChanged = changes.getItem3();
+        boolean participantsChanged = changes.getItem4();
+        boolean categoriesChanged = changes.getItem5();
+        boolean somethingChanged = hostingChanged || artifactsChanged || participantsChanged || categoriesChanged;
+
+        //Validate before writing anything so an invalid request does not leave a partial update behind
+        if(participantsChanged) {
+            validateParticipantRoles(engagement);
+        }
 
-        Diff diff = javers.compare(current, engagement);
-        if(diff.hasChanges()) {
-            LOGGER.debug("Engagement changes {}", diff);
+        if(engagementChanged) {
             engagementApiClient.updateEngagement(engagement);
             //somethingChanged not needed as it will occur during engagement update
         }
 
         nullToEmpty(engagement);
 
-        List<HostingEnvironment> hes = hostingEnvironmentService.getHostingEnvironments(engagement.getUuid());
-        diff = javers.compareCollections(hes, engagement.getHostingEnvironments(), HostingEnvironment.class);
-        if(diff.hasChanges()) {
-            LOGGER.debug("Hosting Environment changes {}", diff);
-            hostingEnvironmentService.updateAndReload(engagementUuid, engagement.getHostingEnvironments(),
-                    Author.builder().email(authorEmail).name(author).build());
-            somethingChanged = true;
-        }
+        Author commitAuthor = Author.builder().email(authorEmail).name(author).build();
+        AtomicBoolean reloadFellBack = new AtomicBoolean();
+        Runnable fellBack = () -> reloadFellBack.set(true);
 
-        List<Artifact> artifacts = artifactService.getArtifacts(engagement.getUuid());
-        diff = javers.compareCollections(artifacts, engagement.getArtifacts(), Artifact.class);
-        if(diff.hasChanges()) {
-            LOGGER.debug("Artifacts has changes {}", diff);
+        Uni<List<HostingEnvironment>> hostingUni = write(hostingChanged, current.getHostingEnvironments(),
+                EngagementSection.HOSTING, engagement, commitAuthor, Engagement::getHostingEnvironments,
+                () -> hostingEnvironmentService.updateAndReload(engagementUuid, engagement.getHostingEnvironments(), commitAuthor));
+        Uni<List<Artifact>> artifactsUni = write(artifactsChanged, current.getArtifacts(), EngagementSection.ARTIFACTS,
+                engagement, commitAuthor, Engagement::getArtifacts, () -> {
             artifactService.update(engagement, author, authorEmail);
-            somethingChanged = true;
+            return artifactService.getArtifacts(engagementUuid, fellBack);
+        });
+        Uni<Set<EngagementUser>> participantsUni = write(participantsChanged, current.getEngagementUsers(),
+                EngagementSection.PARTICIPANTS, engagement, commitAuthor, Engagement::getEngagementUsers,
+                () -> new HashSet<>(participantService.updateParticipantsAndReload(engagementUuid, author, authorEmail,
+                        engagement.getEngagementUsers(), fellBack)));
+        Uni<List<Category>> categoriesUni = write(categoriesChanged, current.getCategories(), EngagementSection.CATEGORIES,
+                engagement, commitAuthor, Engagement::getCategories, () -> {
+            updateCategories(engagement, commitAuthor);
+            return categoryApiClient.getCategories(engagementUuid);
+        });
+
+        Engagement written = Uni.combine().all().unis(hostingUni, artifactsUni, participantsUni, categoriesUni)
+                .combinedWith((hes, artifacts, participants, categories) -> Engagement.builder().hostingEnvironments(hes)
+                        .artifacts(artifacts).engagementUsers(participants).categories(categories).build())
+                .await().indefinitely();
+
+        if(somethingChanged) {
+            engagementApiClient.registerUpdate(engagementUuid);
+        } else {
+            LOGGER.debug("Nothing changed for {}", engagementUuid);
         }
 
-        List<EngagementUser> participants = participantService.getParticipantsForEngagement(engagement.getUuid());
-        diff = javers.compareCollections(new HashSet<>(participants), engagement.getEngagementUsers(), EngagementUser.class);
-        if(diff.hasChanges()) {
-            LOGGER.debug("Participants changed {}", diff);
-
-            //Validate participant options
-            Set<String> allowed = configService.getParticipantOptions(engagement.getType()).keySet();
-            StringBuilder errors = new StringBuilder();
-            for(EngagementUser p : engagement.getEngagementUsers()) {
-                if(!allowed.contains(p.getRole())) {
-                    errors.append(String.format("Participant %s has invalid role %s. ", p.getEmail(), p.getRole()));
-                    LOGGER.error("Participant {} has invalid role {} for engagement type {} - {}", p.getEmail(), p.getRole(), engagement.getType(), engagement.getUuid());
-                }
-            }
+        Engagement updated = engagementChanged || somethingChanged ? engagementApiClient.getEngagement(engagementUuid) : current;
+        updated.setHostingEnvironments(written.getHostingEnvironments());
+        updated.setArtifacts(written.getArtifacts());
+        updated.setEngagementUsers(written.getEngagementUsers());
+        updated.setCategories(written.getCategories());
+        updated.setCommits(current.getCommits());
+        updated.setStatus(current.getStatus());
+        updated.setDegraded(current.isDegraded() || reloadFellBack.get());
+
+        if(complete) {
+            engagementCache.put(updated);
+        } else {
+            engagementCache.invalidate(engagementUuid);
+        }
+        summaryIndex.put(updated);
+        return updated;
+    }
 
-            if(!errors.toString().isEmpty()) {
-                throw new WebApplicationException(Response.status(400).entity(Map.of("lodestarMessage", errors.toString().trim())).build());
+    /**
+     * Runs the diff on the downstream executor and logs any changes. Sections not being written are unchanged.
+     */
+    private <D> Uni<Boolean> changed(Set<EngagementSection> sections, EngagementSection section, Supplier<D> compare,
+            Predicate<D> hasChanges) {
+        if(!sections.contains(section)) {
+            return Uni.createFrom().item(false);
+        }
+
+        return async(compare).map(diff -> {
+            boolean changed = hasChanges.test(diff);
+            if(changed) {
+                LOGGER.debug("{} changes {}", section, diff);
             }
-            participants = participantService.updateParticipantsAndReload(engagementUuid, author, authorEmail,
+            return changed;
+        });
+    }
+
+    /**
+     * Writes a changed section returning its reloaded value or returns the current value unchanged. With the
+     * outbox enabled a changed section is recorded there instead and the requested value returned.
+     */
+    private <T> Uni<T> write(boolean changed, T current, EngagementSection section, Engagement engagement,
+            Author author, Function<Engagement, T> requested, Supplier<T> update) {
+        if(changed && outbox.isEnabled()) {
+            return async(() -> {
+                outbox.record(section, engagement, author);
+                return requested.apply(engagement);
+            });
+        }
+
+        return changed ? async(update) : Uni.createFrom().item(current);
+    }
+
+    /**
+     * Sends a section of the engagement to the service owning it. Used by the {@link Outbox} dispatcher, so a
+     * failed write is thrown rather than logged.
+     *
+     * @param section the section to write
+     * @param engagement the engagement holding the section's desired state
+     * @param author the author of the change
+     */
+    void writeSection(EngagementSection section, Engagement engagement, Author author) {
+        switch (section) {
+        case HOSTING:
+            hostingEnvironmentService.updateAndReload(engagement.getUuid(), engagement.getHostingEnvironments(), author);
+            break;
+        case ARTIFACTS:
+            artifactService.write(engagement, author.getName(), author.getEmail());
+            break;
+        case PARTICIPANTS:
+            participantService.updateParticipants(engagement.getUuid(), author.getName(), author.getEmail(),
                     engagement.getEngagementUsers());
-            LOGGER.debug("Updated {}", participants);
-            somethingChanged = true;
+            break;
+        case CATEGORIES:
+            updateCategories(engagement, author);
+            break;
+        default:
+            throw new IllegalArgumentException("section " + section + " is not written through the outbox");
         }
+    }
+
+    private void updateCategories(Engagement engagement, Author author) {
+        Set<String> catString = new TreeSet<>();
+        engagement.getCategories().forEach(c -> catString.add(c.getName()));
+        categoryApiClient.updateCategories(engagement.getUuid(), author.getName(), author.getEmail(), catString);
+    }
+
+    /**
+     * A copy of the engagement without the sections owned by other services so that only the engagement's
+     * own fields are compared.
+     */
+    private static Engagement withoutSections(Engagement engagement) {
+        Engagement copy = engagement.toBuilder().build();
+        EnumSet.complementOf(EnumSet.of(EngagementSection.ENGAGEMENT)).forEach(section -> section.clear(copy));
+        return copy;
+    }
 
-        List<Category> categories = categoryApiClient.getCategories(engagement.getUuid());
-        diff = javers.compareCollections(categories, engagement.getCategories(), Category.class);
-        if(diff.hasChanges()) {
-            LOGGER.debug("Categories changed {}", diff);
-            Set<String> catString = new TreeSet<>();
-            engagement.getCategories().forEach(c -> catString.add(c.getName()));
-            categoryApiClient.updateCategories(engagementUuid, author, authorEmail, catString);
-            somethingChanged = true;
+    /**
+     * Will throw a 400 error if any participant has a role not allowed for the engagement type
+     */
+    private void validateParticipantRoles(Engagement engagement) {
+        Set<String> allowed = configService.getParticipantOptions(engagement.getType()).keySet();
+        StringBuilder errors = new StringBuilder();
+        if(engagement.getEngagementUsers() == null) {
+            return;
         }
 
-        //TODO update cache
-        if(somethingChanged) {
-            engagementApiClient.registerUpdate(engagementUuid);
-        } else {
-            LOGGER.debug("Nothing changed for {}", engagementUuid);
+        for(EngagementUser p : engagement.getEngagementUsers()) {
+            if(!allowed.contains(p.getRole())) {
+                errors.append(String.format("Participant %s has invalid role %s. ", p.getEmail(), p.getRole()));
+                LOGGER.error("Participant {} has invalid role {} for engagement type {} - {}", p.getEmail(), p.getRole(), engagement.getType(), engagement.getUuid());
+            }
+        }
+
+        if(!errors.toString().isEmpty()) {
+            throw new WebApplicationException(Response.status(400).entity(Map.of("lodestarMessage", errors.toString().trim())).build());
         }
-        return getEngagement(engagementUuid);
     }
 
     /**
@@ -284,6 +758,9 @@ public class EngagementService {
      *
      * TODO If the engagement is not found in the engagement service we should make an effort to
      * load it since we are receiving a message from gitlab
+     *
+     * Each changed watched file is mapped to the {@link EngagementSection} it affects and only those
+     * sections are reloaded into the cache in the background.
      * 
      * @param hook gitlab webhook info
      */
@@ -291,33 +768,53 @@ public class EngagementService {
         LOGGER.debug("Hook for {} {}", hook.getCustomerName(), hook.getEngagementName());
 
         Engagement engagement = engagementApiClient.getEngagementByProject(hook.getProjectId());
+        summaryIndex.put(engagement);
+        Set<EngagementSection> changed = EnumSet.noneOf(EngagementSection.class);
 
         // send update status event
-        if (hook.didFileChange(statusFile)) {
+        if (changesStatus(hook)) {
             LOGGER.debug("Status update {}", hook.getProjectId());
             engagementStatusApiClient.updateEngagementStatus(engagement.getUuid());
-            //Status status = engagementStatusApiClient.getEngagementStatus(engagement.getUuid());
-            //engagementService.setStatus(engagement.getUuid(), status);
-            //TODO put this status in the magical cache
+            changed.add(EngagementSection.STATUS);
         }
 
 
-        if(hook.didFileChange(engagementFiles)) {
+        if(changesEngagement(hook)) {
             LOGGER.debug("Engagement update {}", engagement);
             activityService.postHook(hook);
             //TODO should return the uuid from the post as header
-            //TODO invalidate cache + load new into cache
+            Set<String> changedFiles = hook.changedFiles();
+            changedFiles.retainAll(engagementFiles);
+            changed.addAll(EngagementSection.fromFiles(changedFiles));
+            changed.add(EngagementSection.ACTIVITY);
         }
 
         // refresh entire engagement if requested
         if (hook.containsAnyMessage(commitFilteredMessages)) {
             //TODO Need to call a single refresh of engagement in every service
             LOGGER.debug("hook triggered refresh of engagement for project {}", hook.getProjectId());
+            changed = EngagementSection.all();
         }
 
-        getEngagement(engagement.getUuid());
+        if(!changed.isEmpty()) {
+            refreshSections(engagement.getUuid(), changed);
+        }
+    }
+
+
+    /**
+     * @return true if the hook will refresh the engagement status
+     */
+    boolean changesStatus(Hook hook) {
+        return hook.didFileChange(statusFile);
     }
 
+    /**
+     * @return true if the hook will post activity and refresh the changed sections
+     */
+    boolean changesEngagement(Hook hook) {
+        return hook.didFileChange(engagementFiles);
+    }
 
     /**
      *
@@ -333,8 +830,19 @@ public class EngagementService {
         return  engagementApiClient.getEngagementByProject(projectId);
     }
 
+    /**
+     * Counted from the summary index once it holds every engagement. The engagement service counts until then.
+     *
+     * @param currentTime the time to count at. null for now
+     * @param regions the regions to count. All if empty
+     * @return the number of engagements in each state
+     */
     public Map<EngagementState, Integer> getEngagementCountByStatus(Instant currentTime, Set<String> regions) {
-        return engagementApiClient.getEngagementCounts(regions);
+        if(!summaryIndex.isComplete()) {
+            return engagementApiClient.getEngagementCounts(regions);
+        }
+
+        return currentTime == null ? summaryIndex.countByState(regions) : summaryIndex.countByState(currentTime, regions);
     }
 
     /**
@@ -352,20 +860,25 @@ public class EngagementService {
         int pageSize = filter.getPerPage();
 
         if(pageSize == 5 && sort.equals("last_update")) {
-            List<String> activity = activityService.getLatestActivity(0,5, filter.getV2Regions());
-            List<Engagement> engagements = activity.stream().map(this::getEngagement).collect(Collectors.toList());
-            return Response.ok(engagements).build();
+            Set<String> regions = filter.getV2Regions() == null ? Collections.emptySet() : filter.getV2Regions();
+            return Response.ok(getRecentlyUpdated(regions)).build();
         }
 
         int page = filter.getPage() - 1;
         pageSize = filter.getPerPage();
 
         Response response = engagementApiClient.getEngagements(page, pageSize, filter.getRegions(), filter.getTypes(), filter.getStates(), filter.getQ(), filter.getCategory(), sort);
-        List<Engagement> engagements = response.readEntity(new GenericType<>(){});
         String total = response.getHeaderString("x-total-engagements");
 
         Map<String, String> engagementOptions = configService.getEngagementOptions();
 
+        if(streamList) {
+            return Response.ok(new EngagementListStreamingOutput(response, engagementOptions))
+                    .header("x-total-engagements", total).build();
+        }
+
+        List<Engagement> engagements = response.readEntity(new GenericType<>(){});
+
         //TODO this loop is to allow frontend to change after v2 deployment.
         // FE should use participant, artifact count field, and categories (string version)
         for(Engagement e : engagements) {
@@ -374,6 +887,24 @@ public class EngagementService {
         return Response.ok(engagements).header("x-total-engagements", total).build();
     }
 
+    /**
+     * Returns the 5 most recently active engagements for the regions. Every home page load asks for these so
+     * they are hydrated in bulk and the result is held briefly per region set. Each caller gets its own copies
+     * of the cached engagements.
+     *
+     * @param regions the regions. Empty for all
+     * @return the engagements, most recently active first
+     */
+    public List<Engagement> getRecentlyUpdated(Set<String> regions) {
+        return recentlyUpdated(regions).stream().map(EngagementCache::copy).collect(Collectors.toList());
+    }
+
+    @CacheResult(cacheName = "recent-engagements")
+    List<Engagement> recentlyUpdated(Set<String> regions) {
+        List<String> activity = activityService.getLatestActivity(0, 5, regions);
+        return Collections.unmodifiableList(getEngagements(activity, EngagementSection.all()));
+    }
+
     /**
      * Returns a {@link List} of all customer names in the data store that match the
      * input
@@ -395,6 +926,8 @@ public class EngagementService {
      */
     public void deleteEngagement(String uuid) {
         engagementApiClient.deleteEngagement(uuid);
+        engagementCache.invalidate(uuid);
+        summaryIndex.remove(uuid);
     }
 
     /**
@@ -430,11 +963,14 @@ public class EngagementService {
     public Engagement launch(String uuid, String author, String authorEmail) {
 
         engagementApiClient.launch(uuid, author, authorEmail);
-        return getEngagement(uuid);
+        Engagement launched = getEngagement(uuid);
+        summaryIndex.put(launched);
+        return launched;
     }
 
     public void refresh(Set<String> uuids) {
         engagementApiClient.refresh(uuids);
+        summaryIndex.rebuildAsync();
     }
 
     public Response refreshState() {
@@ -0,0 +1,134 @@
+package com.redhat.labs.lodestar.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+import com.redhat.labs.lodestar.model.EngagementSummary;
+
+/**
+ * Engagement counts by region and state, kept up to date as summaries are indexed instead of counted per
+ * request. Time moves engagements too (ACTIVE to TERMINATING or PAST after the end date, TERMINATING to PAST at
+ * the archive date) so every engagement is also filed under the instant of its next change. Reads first move
+ * the engagements whose instant has passed, which keeps the counts exact for the cost of the changes due.
+ */
+class EngagementStateCounts {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngagementStateCounts.class);
+
+    private final Clock clock;
+
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    private final Map<String, Map<EngagementState, Integer>> byRegion = new HashMap<>();
+    private final NavigableMap<Instant, Set<String>> changes = new TreeMap<>();
+
+    EngagementStateCounts(Clock clock) {
+        this.clock = clock;
+    }
+
+    synchronized void put(String uuid, EngagementSummary summary) {
+        remove(uuid);
+
+        try {
+            track(uuid, summary, clock.instant());
+        } catch (DateTimeParseException e) {
+            LOGGER.warn("Engagement {} is not counted. Its dates cannot be read. {}", uuid, e.getMessage());
+        }
+    }
+
+    synchronized void remove(String uuid) {
+        Tracked previous = tracked.remove(uuid);
+
+        if(previous != null) {
+            add(previous.summary.getRegion(), previous.state, -1);
+            unschedule(uuid, previous.nextChange);
+        }
+    }
+
+    /**
+     * @param regions the regions to count. All if empty
+     * @return the count for each state. ANY is the total
+     */
+    synchronized Map<EngagementState, Integer> count(Set<String> regions) {
+        advance(clock.instant());
+
+        Map<EngagementState, Integer> counts = empty();
+        byRegion.forEach((region, states) -> {
+            if(regions == null || regions.isEmpty() || regions.contains(region)) {
+                states.forEach((state, count) -> counts.merge(state, count, Integer::sum));
+            }
+        });
+        return total(counts);
+    }
+
+    static Map<EngagementState, Integer> empty() {
+        Map<EngagementState, Integer> counts = new EnumMap<>(EngagementState.class);
+        Arrays.stream(EngagementState.values()).forEach(state -> counts.put(state, 0));
+        return counts;
+    }
+
+    static Map<EngagementState, Integer> total(Map<EngagementState, Integer> counts) {
+        counts.put(EngagementState.ANY, 0);
+        counts.put(EngagementState.ANY, counts.values().stream().mapToInt(Integer::intValue).sum());
+        return counts;
+    }
+
+    private void advance(Instant now) {
+        while(!changes.isEmpty() && !changes.firstKey().isAfter(now)) {
+            for(String uuid : changes.pollFirstEntry().getValue()) {
+                Tracked due = tracked.remove(uuid);
+                add(due.summary.getRegion(), due.state, -1);
+                track(uuid, due.summary, now);
+            }
+        }
+    }
+
+    private void track(String uuid, EngagementSummary summary, Instant now) {
+        Tracked current = new Tracked(summary, summary.getEngagementCurrentState(now), summary.getNextStateChange(now));
+
+        tracked.put(uuid, current);
+        add(summary.getRegion(), current.state, 1);
+
+        if(current.nextChange != null) {
+            changes.computeIfAbsent(current.nextChange, i -> new HashSet<>()).add(uuid);
+        }
+    }
+
+    private void unschedule(String uuid, Instant nextChange) {
+        if(nextChange == null) {
+            return;
+        }
+
+        Set<String> due = changes.get(nextChange);
+        if(due != null && due.remove(uuid) && due.isEmpty()) {
+            changes.remove(nextChange);
+        }
+    }
+
+    private void add(String region, EngagementState state, int delta) {
+        byRegion.computeIfAbsent(region, r -> new EnumMap<>(EngagementState.class)).merge(state, delta, Integer::sum);
+    }
+
+    private static final class Tracked {
+        final EngagementSummary summary;
+        final EngagementState state;
+        final Instant nextChange;
+
+        Tracked(EngagementSummary summary, EngagementState state, Instant nextChange) {
+            this.summary = summary;
+            this.state = state;
+            this.nextChange = nextChange;
+        }
+    }
+}
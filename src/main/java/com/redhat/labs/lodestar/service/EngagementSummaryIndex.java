@@ -0,0 +1,349 @@
+package com.redhat.labs.lodestar.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.config.ExecutorConfig;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+import com.redhat.labs.lodestar.model.EngagementSummary;
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Every engagement's {@link EngagementSummary} keyed by uuid. Built from the engagement list api at startup
+ * and kept current by the engagement writes and gitlab webhooks that pass through this service. A uuid that
+ * is not indexed yet is loaded from the engagement service on first lookup. Engagement counts by state are
+ * kept alongside and can be trusted once the first rebuild is complete. Changes made elsewhere, such as an
+ * engagement deleted straight from gitlab, are picked up by a rebuild every reconcile interval.
+ */
+@ApplicationScoped
+public class EngagementSummaryIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngagementSummaryIndex.class);
+
+    static final String METRIC_NAME = "lodestar.engagement.summary.index";
+    static final String SORT = "uuid";
+    static final String TOTAL_HEADER = "x-total-engagements";
+
+    @ConfigProperty(name = "engagement.summary.index.on.startup", defaultValue = "true")
+    boolean onStartup;
+
+    @ConfigProperty(name = "engagement.summary.index.page.size", defaultValue = "500")
+    int pageSize;
+
+    @ConfigProperty(name = "engagement.summary.index.budget.bytes", defaultValue = "8388608")
+    long budgetBytes;
+
+    @ConfigProperty(name = "engagement.summary.index.reconcile.enabled", defaultValue = "true")
+    boolean reconcileEnabled;
+
+    @Inject
+    @RestClient
+    EngagementApiClient engagementApiClient;
+
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor executor;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, EngagementSummary> index = new ConcurrentHashMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final AtomicBoolean overBudget = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final EngagementStateCounts counts = new EngagementStateCounts(Clock.systemUTC());
+    private volatile boolean complete;
+
+    /**
+     * Uuids put or removed while a rebuild is running. null otherwise
+     */
+    private volatile Set<String> changedDuringRebuild;
+
+    @PostConstruct
+    void init() {
+        registry.gauge(METRIC_NAME + ".size", index, Map::size);
+        registry.gauge(METRIC_NAME + ".bytes", estimatedBytes, AtomicLong::get);
+        registry.gauge(METRIC_NAME + ".budget.bytes", this, i -> i.budgetBytes);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if(onStartup) {
+            rebuildAsync();
+        }
+    }
+
+    @Scheduled(every = "{engagement.summary.index.reconcile.interval}",
+            delayed = "{engagement.summary.index.reconcile.interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReconcile() {
+        if(!reconcileEnabled) {
+            return;
+        }
+
+        try {
+            rebuildAsync();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Engagement summary index reconcile could not be started. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads every engagement from the engagement service in the background unless a rebuild is running.
+     *
+     * @return true if a rebuild was started
+     */
+    public boolean rebuildAsync() {
+        if(!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+
+        executor.runAsync(this::rebuild).whenComplete((v, e) -> {
+            if(e != null) {
+                LOGGER.error("Engagement summary index rebuild failed", e);
+            }
+            rebuilding.set(false);
+        });
+        return true;
+    }
+
+    /**
+     * Loads every engagement page by page, sorted by uuid so the pages do not shift between requests, and drops
+     * what is no longer there. An engagement put or removed while the rebuild runs is newer than the page it shows
+     * up in unless the page has a later last update. A delete elsewhere between two pages still moves the later
+     * rows up a page, so nothing is dropped unless the engagement service's total did not change while paging and
+     * every engagement it counted was seen.
+     */
+    void rebuild() {
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        boolean sawAll;
+
+        try {
+            Set<String> seen = new HashSet<>();
+            Set<Integer> totals = new HashSet<>();
+            int page = 0;
+            List<Engagement> engagements;
+
+            do {
+                Response response = engagementApiClient.getEngagements(page++, pageSize, Collections.emptySet(),
+                        Collections.emptySet(), Collections.emptySet(), null, null, SORT);
+                totals.add(total(response));
+                engagements = response.readEntity(new GenericType<>(){});
+                engagements.stream().filter(e -> e.getUuid() != null).forEach(e -> {
+                    reload(changed, e);
+                    seen.add(e.getUuid());
+                });
+            } while(engagements.size() == pageSize);
+
+            sawAll = totals.size() == 1 && totals.contains(seen.size());
+
+            if(sawAll) {
+                new HashSet<>(index.keySet()).stream().filter(uuid -> !seen.contains(uuid) && !changed.contains(uuid))
+                        .forEach(this::evict);
+            } else {
+                LOGGER.warn("Engagement summary index rebuild saw {} engagements of {}. Nothing dropped", seen.size(),
+                        totals);
+            }
+        } finally {
+            changedDuringRebuild = null;
+        }
+
+        if(sawAll) {
+            complete = true;
+        }
+        LOGGER.info("Engagement summary index rebuilt. {} engagements ~{} bytes", index.size(), estimatedBytes.get());
+    }
+
+    /**
+     * @return the x-total-engagements header. -1 if it is missing or not a number
+     */
+    private static int total(Response response) {
+        try {
+            String total = response.getHeaderString(TOTAL_HEADER);
+            return total == null ? -1 : Integer.parseInt(total);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void reload(Set<String> changed, Engagement engagement) {
+        EngagementSummary summary = EngagementSummary.from(engagement);
+
+        index.compute(engagement.getUuid(), (uuid, current) -> {
+            if(changed.contains(uuid) && (current == null || !isNewer(summary, current))) {
+                return current;
+            }
+
+            counts.put(uuid, summary);
+            track(summary.estimateSize() - (current == null ? 0 : current.estimateSize()));
+            return summary;
+        });
+    }
+
+    /**
+     * @return true if candidate was updated after current. false if either last update can not be compared
+     */
+    static boolean isNewer(EngagementSummary candidate, EngagementSummary current) {
+        if(candidate.getLastUpdate() == null || current.getLastUpdate() == null) {
+            return false;
+        }
+
+        try {
+            return Instant.parse(candidate.getLastUpdate()).isAfter(Instant.parse(current.getLastUpdate()));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param uuid the engagement uuid
+     * @return the summary or empty if there is no such engagement
+     */
+    public Optional<EngagementSummary> get(String uuid) {
+        if(uuid == null) {
+            return Optional.empty();
+        }
+
+        EngagementSummary summary = index.get(uuid);
+        if(summary != null) {
+            return Optional.of(summary);
+        }
+
+        try {
+            return Optional.ofNullable(put(uuid, engagementApiClient.getEngagement(uuid)));
+        } catch (WebApplicationException wae) {
+            if(wae.getResponse().getStatus() == 404) {
+                LOGGER.debug("No engagement {} to index", uuid);
+                return Optional.empty();
+            }
+            throw wae;
+        }
+    }
+
+    /**
+     * @param uuids the engagement uuids
+     * @return the summaries of the engagements that exist keyed by uuid
+     */
+    public Map<String, EngagementSummary> getAll(Collection<String> uuids) {
+        Map<String, EngagementSummary> summaries = new HashMap<>();
+        new HashSet<>(uuids).forEach(uuid -> get(uuid).ifPresent(s -> summaries.put(uuid, s)));
+        return summaries;
+    }
+
+    /**
+     * @param engagement the engagement as just read from or written to the engagement service
+     * @return the indexed summary. null if there was nothing to index
+     */
+    public EngagementSummary put(Engagement engagement) {
+        return engagement == null ? null : put(engagement.getUuid(), engagement);
+    }
+
+    private EngagementSummary put(String uuid, Engagement engagement) {
+        if(uuid == null || engagement == null) {
+            return null;
+        }
+
+        changed(uuid);
+        EngagementSummary summary = EngagementSummary.from(engagement);
+
+        // counts move with the index entry under the same lock so a rebuild can not interleave them
+        index.compute(uuid, (k, previous) -> {
+            counts.put(uuid, summary);
+            track(summary.estimateSize() - (previous == null ? 0 : previous.estimateSize()));
+            return summary;
+        });
+        return summary;
+    }
+
+    public void remove(String uuid) {
+        changed(uuid);
+        evict(uuid);
+    }
+
+    private void evict(String uuid) {
+        index.compute(uuid, (k, previous) -> {
+            counts.remove(uuid);
+            if(previous != null) {
+                track(-previous.estimateSize());
+            }
+            return null;
+        });
+    }
+
+    private void changed(String uuid) {
+        Set<String> changed = changedDuringRebuild;
+        if(changed != null) {
+            changed.add(uuid);
+        }
+    }
+
+    /**
+     * @return true once every engagement has been loaded. Until then the index only holds what was looked up
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @param regions the regions to count. All if empty
+     * @return the number of engagements in each state now. ANY is the total
+     */
+    public Map<EngagementState, Integer> countByState(Set<String> regions) {
+        return counts.count(regions);
+    }
+
+    /**
+     * Counts as of a time other than now. Every summary is checked.
+     *
+     * @param currentTime the time to count at
+     * @param regions the regions to count. All if empty
+     * @return the number of engagements in each state at currentTime. ANY is the total
+     */
+    public Map<EngagementState, Integer> countByState(Instant currentTime, Set<String> regions) {
+        Map<EngagementState, Integer> states = EngagementStateCounts.empty();
+        index.values().stream().filter(s -> regions == null || regions.isEmpty() || regions.contains(s.getRegion()))
+                .forEach(s -> states.merge(s.getEngagementCurrentState(currentTime), 1, Integer::sum));
+        return EngagementStateCounts.total(states);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    private void track(long delta) {
+        long bytes = estimatedBytes.addAndGet(delta);
+
+        if(bytes > budgetBytes && overBudget.compareAndSet(false, true)) {
+            LOGGER.warn("Engagement summary index is ~{} bytes which is over its budget of {}", bytes, budgetBytes);
+        } else if(bytes <= budgetBytes) {
+            overBudget.set(false);
+        }
+    }
+}
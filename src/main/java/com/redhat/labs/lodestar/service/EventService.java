@@ -2,7 +2,6 @@ package com.redhat.labs.lodestar.service;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import javax.inject.Inject;
@@ -23,6 +22,7 @@ import com.redhat.labs.lodestar.model.event.RetriableEvent;
 import com.redhat.labs.lodestar.rest.client.ActivityApiClient;
 
 import io.quarkus.vertx.ConsumeEvent;
+import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.eventbus.EventBus;
 
 public class EventService {
@@ -31,12 +31,6 @@ public class EventService {
 
     private static final String LAST_PAGE_HEADER = "x-last-page";
 
-    @ConfigProperty(name = "event.retry.delay.factor", defaultValue = "2")
-    Integer eventRetryDelayFactor;
-
-    @ConfigProperty(name = "event.retry.max.delay", defaultValue = "60")
-    Integer eventRetryMaxDelay;
-
     @Inject
     @RestClient
     ActivityApiClient activityApiClient;
@@ -48,12 +42,18 @@ public class EventService {
     @Inject
     EngagementService engagementService;
 
+    @Inject
+    RetryScheduler retryScheduler;
+
     @Inject
     EventBus eventBus;
 
     @Inject
     Jsonb jsonb;
 
+    @ConfigProperty(name = "downstream.nonblocking.enabled", defaultValue = "false")
+    boolean nonBlocking;
+
 
     /**
      * Sends the given {@link Engagement} to be processed if the max retry limit has
@@ -62,7 +62,7 @@ public class EventService {
      * 
      * @param event
      */
-    @ConsumeEvent(value = EventType.RETRY_UPDATE_EVENT_ADDRESS, blocking = true)
+    @ConsumeEvent(value = EventType.RETRY_UPDATE_EVENT_ADDRESS)
     void consumeRetryUpdateEvent(RetriableEvent event) {
         retryEvent(event, () -> {
 
@@ -102,32 +102,14 @@ public class EventService {
     }
 
     /**
-     * Runs the given function if the event max retry has not been exceeded.
+     * Schedules the given function to run after the retry backoff if the event max
+     * retry has not been exceeded. No thread waits for the backoff.
      * 
      * @param event
      * @param runnable
      */
     void retryEvent(RetriableEvent event, Runnable runnable) {
-
-        if (event.shouldRetry()) {
-
-            // perform sleep to delay retry
-            int seconds = event.getCurrentRetryCount() * eventRetryDelayFactor;
-            if (seconds > eventRetryMaxDelay) {
-                seconds = eventRetryMaxDelay;
-            }
-
-            try {
-                TimeUnit.SECONDS.sleep(seconds);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            // run configured method
-            runnable.run();
-
-        }
-
+        retryScheduler.schedule(event, runnable);
     }
 
     /**
@@ -270,18 +252,24 @@ public class EventService {
 
 
     //TODO these should be moved to services that control engagement status and activity
+    /**
+     * With downstream.nonblocking.enabled the reload handlers give the worker thread back as soon as the refresh
+     * is sent.
+     */
     @ConsumeEvent(value = EventType.RELOAD_ENGAGEMENT_STATUS_EVENT_ADDRESS, blocking = true)
-    void consumeEngagementStatusReloadEvent(String name) {
+    Uni<Void> consumeEngagementStatusReloadEvent(String name) {
         LOGGER.debug("refresh {}", name);
-        engagementStatusApiClient.refresh();
-        LOGGER.debug("refresh {} completed", name);
+        Uni<Response> refresh = nonBlocking ? Uni.createFrom().completionStage(engagementStatusApiClient::refreshAsync)
+                : Uni.createFrom().item(engagementStatusApiClient::refresh);
+        return refresh.invoke(response -> LOGGER.debug("refresh {} completed", name)).replaceWithVoid();
     }
     
     @ConsumeEvent(value = EventType.RELOAD_ACTIVITY_EVENT_ADDRESS, blocking = true)
-    void consumeActivityReloadEvent(String name) {
+    Uni<Void> consumeActivityReloadEvent(String name) {
         LOGGER.debug("refresh {}", name);
-        activityApiClient.refresh();
-        LOGGER.debug("refresh {} completed", name);
+        Uni<Response> refresh = nonBlocking ? Uni.createFrom().completionStage(activityApiClient::refreshAsync)
+                : Uni.createFrom().item(activityApiClient::refresh);
+        return refresh.invoke(response -> LOGGER.debug("refresh {} completed", name)).replaceWithVoid();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,380 @@
+package com.redhat.labs.lodestar.service;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.model.Hook;
+import com.redhat.labs.lodestar.model.event.RetriableEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Gitlab hooks waiting to be applied. Hooks are split into partitions by project id and each partition is worked
+ * by a single thread, so the hooks for a project are applied in the order they arrived while different projects
+ * run in parallel. Every partition queue is bounded. A hook that does not fit is refused and gitlab will send it
+ * again.
+ * <p>
+ * With a coalescing window, the first hook for a project waits out the window and any hook for the project that
+ * arrives meanwhile is merged into it, so a burst of pushes costs one project lookup, status refresh and activity
+ * post. lodestar.webhook.calls.saved counts the downstream calls merging avoided. The window takes its slot in the
+ * partition queue when it opens, so a hook that was accepted always has room once the window closes.
+ * <p>
+ * A hook that fails to apply with a 5xx, 408, 429 or a connection error or timeout after it was acknowledged is put
+ * back on its partition by the {@link RetryScheduler}, up to webhook.max.retries times. Later hooks for the project
+ * are held, keeping their slots, until the retry succeeds or gives up, so they are still applied in order. Other
+ * failures will not go away on their own and are not retried. lodestar.webhook.dropped counts accepted hooks that
+ * were never applied.
+ */
+@ApplicationScoped
+public class HookQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HookQueue.class);
+
+    static final String METRIC_NAME = "lodestar.webhook";
+
+    @ConfigProperty(name = "webhook.queue.partitions", defaultValue = "4")
+    int partitions;
+
+    @ConfigProperty(name = "webhook.queue.capacity", defaultValue = "1000")
+    int capacity;
+
+    @ConfigProperty(name = "webhook.queue.shutdown.wait", defaultValue = "10")
+    int shutdownWaitSeconds;
+
+    @ConfigProperty(name = "webhook.coalesce.window.ms", defaultValue = "2000")
+    long coalesceWindowMs;
+
+    @ConfigProperty(name = "webhook.max.retries", defaultValue = "5")
+    int maxRetries;
+
+    @Inject
+    EngagementService engagementService;
+
+    @Inject
+    RetryScheduler retryScheduler;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final List<ThreadPoolExecutor> workers = new ArrayList<>();
+    private final List<Semaphore> slots = new ArrayList<>();
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    /**
+     * Hooks held by project behind a hook waiting for its retry. Only changed by the project's partition worker
+     * until the worker is shut down
+     */
+    private final Map<Integer, Deque<Pending>> held = new ConcurrentHashMap<>();
+    private ScheduledExecutorService windows;
+    private Timer lag;
+    private Counter rejected;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        int partitionCapacity = Math.max(1, capacity / partitions);
+
+        for(int i = 0; i < partitions; i++) {
+            String name = "webhook-partition-" + i;
+            // the slots bound the queue. a retry goes back on it without one
+            workers.add(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    r -> new Thread(r, name)));
+            slots.add(new Semaphore(partitionCapacity));
+        }
+
+        windows = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "webhook-coalesce"));
+
+        registry.gauge(METRIC_NAME + ".queue.depth", this, HookQueue::depth);
+        lag = Timer.builder(METRIC_NAME + ".queue.lag").description("Time from a hook's arrival to the start of its processing")
+                .register(registry);
+        rejected = registry.counter(METRIC_NAME + ".rejected");
+        dropped = registry.counter(METRIC_NAME + ".dropped");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        windows.shutdownNow();
+        new HashSet<>(pending.keySet()).forEach(this::flush);
+        workers.forEach(ThreadPoolExecutor::shutdown);
+
+        for(ThreadPoolExecutor worker : workers) {
+            try {
+                if(!worker.awaitTermination(shutdownWaitSeconds, TimeUnit.SECONDS)) {
+                    LOGGER.warn("{} hooks not applied at shutdown", worker.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        new HashSet<>(held.keySet()).forEach(projectId -> abandon(projectId, "The queue is shut down"));
+    }
+
+    /**
+     * @param hook a validated hook
+     * @return false if the hook's partition is full
+     */
+    public boolean submit(Hook hook) {
+        long arrived = System.nanoTime();
+
+        Semaphore slot = slots.get(partition(hook));
+
+        if(coalesceWindowMs <= 0 || hook.getProjectId() == null) {
+            return slot.tryAcquire() && enqueue(hook, arrived, 0) || refuse(hook);
+        }
+
+        boolean[] opened = { false };
+        boolean[] full = { false };
+        pending.compute(hook.getProjectId(), (projectId, waiting) -> {
+            if(waiting != null) {
+                countSaved(waiting.hook, hook);
+                return new Pending(waiting.hook.merge(hook), waiting.arrived);
+            }
+            if(!slot.tryAcquire()) {
+                full[0] = true;
+                return null;
+            }
+            opened[0] = true;
+            return new Pending(hook, arrived);
+        });
+
+        if(full[0]) {
+            return refuse(hook);
+        }
+
+        if(opened[0]) {
+            windows.schedule(() -> flush(hook.getProjectId()), coalesceWindowMs, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * @return the hooks waiting or being applied
+     */
+    public int depth() {
+        return workers.stream().mapToInt(this::depth).sum() + pending.size()
+                + held.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void flush(Integer projectId) {
+        Pending due = pending.remove(projectId);
+
+        if(due != null && !enqueue(due.hook, due.arrived, 0)) {
+            drop(due.hook, "The queue is shut down");
+        }
+    }
+
+    /**
+     * Hands the hook to its partition worker. The caller holds a slot of the partition for a new hook, which is
+     * given back when the hook is applied. A retry holds no slot.
+     *
+     * @param attempt the retries made so far
+     * @return false if the worker is shut down
+     */
+    private boolean enqueue(Hook hook, long arrived, int attempt) {
+        try {
+            workers.get(partition(hook)).execute(() -> take(hook, arrived, attempt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            if(attempt == 0) {
+                slots.get(partition(hook)).release();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Runs on the partition worker. A new hook for a project with a retry outstanding joins the hooks held behind
+     * it. Otherwise the hook is applied and, unless it is now waiting for a retry, the held hooks are applied after it.
+     */
+    private void take(Hook hook, long arrived, int attempt) {
+        Integer projectId = hook.getProjectId();
+        Deque<Pending> behind = projectId == null ? null : held.get(projectId);
+
+        if(attempt == 0 && behind != null) {
+            behind.add(new Pending(hook, arrived));
+            return;
+        }
+
+        if(attempt == 0) {
+            slots.get(partition(hook)).release();
+        }
+
+        if(!apply(hook, arrived, attempt) && projectId != null) {
+            drain(projectId);
+        }
+    }
+
+    /**
+     * Applies the hooks held for the project in arrival order until one of them is waiting for a retry itself.
+     */
+    private void drain(Integer projectId) {
+        Deque<Pending> behind = held.get(projectId);
+        if(behind == null) {
+            return;
+        }
+
+        Pending next;
+        while((next = behind.poll()) != null) {
+            slots.get(partition(next.hook)).release();
+            if(apply(next.hook, next.arrived, 0)) {
+                return;
+            }
+        }
+
+        held.remove(projectId);
+    }
+
+    /**
+     * Drops the hooks held for the project. The hook they were waiting on will not be applied.
+     */
+    private void abandon(Integer projectId, String reason) {
+        Deque<Pending> behind = held.remove(projectId);
+        if(behind == null) {
+            return;
+        }
+
+        Pending next;
+        while((next = behind.poll()) != null) {
+            slots.get(partition(next.hook)).release();
+            drop(next.hook, reason);
+        }
+    }
+
+    private boolean refuse(Hook hook) {
+        LOGGER.warn("Hook for project {} refused. The queue is full", hook.getProjectId());
+        rejected.increment();
+        return false;
+    }
+
+    private void drop(Hook hook, String reason) {
+        LOGGER.error("Hook for project {} dropped. {}", hook.getProjectId(), reason);
+        dropped.increment();
+    }
+
+    /**
+     * Each call either hook would make on its own and the merged hook makes once.
+     */
+    private void countSaved(Hook waiting, Hook later) {
+        registry.counter(METRIC_NAME + ".calls.saved", "call", "lookup").increment();
+
+        if(engagementService.changesStatus(waiting) && engagementService.changesStatus(later)) {
+            registry.counter(METRIC_NAME + ".calls.saved", "call", "status").increment();
+        }
+
+        if(engagementService.changesEngagement(waiting) && engagementService.changesEngagement(later)) {
+            registry.counter(METRIC_NAME + ".calls.saved", "call", "activity").increment();
+        }
+    }
+
+    int partition(Hook hook) {
+        return hook.getProjectId() == null ? 0 : Math.floorMod(hook.getProjectId(), partitions);
+    }
+
+    /**
+     * @return true if the hook failed and is waiting for a retry
+     */
+    private boolean apply(Hook hook, long arrived, int attempt) {
+        lag.record(System.nanoTime() - arrived, TimeUnit.NANOSECONDS);
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+
+        try {
+            engagementService.updateStatusAndCommits(hook);
+            outcome = "success";
+            return false;
+        } catch (RuntimeException e) {
+            LOGGER.error("Hook for project {} failed", hook.getProjectId(), e);
+
+            if(!isTransient(e)) {
+                drop(hook, "The failure is not retried");
+                return false;
+            }
+            return retry(hook, attempt);
+        } finally {
+            sample.stop(registry.timer(METRIC_NAME + ".processing", "outcome", outcome));
+        }
+    }
+
+    /**
+     * Puts the hook back on its partition after the retry backoff. Later hooks for its project are held until then.
+     *
+     * @return false if the hook has no retries left
+     */
+    private boolean retry(Hook hook, int attempt) {
+        Integer projectId = hook.getProjectId();
+        if(projectId != null) {
+            held.putIfAbsent(projectId, new ConcurrentLinkedDeque<>());
+        }
+
+        RetriableEvent event = RetriableEvent.builder().maxRetryCount(maxRetries).currentRetryCount(attempt)
+                .projectId(projectId).build();
+
+        // putting the hook back on its partition does not block, so it is done on the timer's thread. The
+        // downstream executor can refuse work from there when it is saturated
+        boolean scheduled = retryScheduler.schedule(event, () -> {
+            if(!enqueue(hook, System.nanoTime(), attempt + 1)) {
+                drop(hook, "The queue is shut down");
+                if(projectId != null) {
+                    abandon(projectId, "The queue is shut down");
+                }
+            }
+        }, Runnable::run);
+
+        if(!scheduled) {
+            drop(hook, "Retries exhausted");
+        }
+        return scheduled;
+    }
+
+    /**
+     * A 5xx, 408 or 429 from a downstream service or a connection failure or timeout, which the rest clients
+     * raise as a {@link ProcessingException}. Anything else will fail the same way again.
+     */
+    static boolean isTransient(RuntimeException e) {
+        if(e instanceof WebApplicationException) {
+            int status = ((WebApplicationException) e).getResponse().getStatus();
+            return status >= 500 || status == 408 || status == 429;
+        }
+
+        return e instanceof ProcessingException;
+    }
+
+    private int depth(ThreadPoolExecutor worker) {
+        return worker.getQueue().size() + worker.getActiveCount();
+    }
+
+    private static final class Pending {
+        final Hook hook;
+        final long arrived;
+
+        Pending(Hook hook, long arrived) {
+            this.hook = hook;
+            this.arrived = arrived;
+        }
+    }
+}
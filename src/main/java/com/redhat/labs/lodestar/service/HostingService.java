@@ -5,6 +5,8 @@ import com.redhat.labs.lodestar.model.HostingEnvironment;
 import com.redhat.labs.lodestar.model.event.EventType;
 import com.redhat.labs.lodestar.rest.client.HostingEnvironmentApiClient;
 import io.quarkus.vertx.ConsumeEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import io.smallrye.mutiny.Uni;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +15,13 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.*;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class HostingService {
@@ -26,22 +31,74 @@ public class HostingService {
     @RestClient
     HostingEnvironmentApiClient hostingEnvironmentApiClient;
 
+    @ConfigProperty(name = "downstream.nonblocking.enabled", defaultValue = "false")
+    boolean nonBlocking;
+
+    static final int BULK_PAGE_SIZE = 500;
+
     public Response getHostingEnvironments(Set<String> engagementUuids, int page, int pageSize) {
         return hostingEnvironmentApiClient.getHostingEnvironments(engagementUuids, page, pageSize);
     }
 
+    /**
+     * Fetches the hosting environments of many engagements in as few calls as possible.
+     *
+     * @param engagementUuids the engagements
+     * @return hosting environments grouped by engagement uuid. Engagements without any are absent
+     */
+    public Map<String, List<HostingEnvironment>> getHostingEnvironmentsByEngagement(Set<String> engagementUuids) {
+        List<HostingEnvironment> all = new ArrayList<>();
+        List<HostingEnvironment> page;
+        int pageNumber = 0;
+
+        do {
+            page = hostingEnvironmentApiClient.getHostingEnvironments(engagementUuids, pageNumber++, BULK_PAGE_SIZE)
+                    .readEntity(new GenericType<List<HostingEnvironment>>(){});
+            all.addAll(page);
+        } while(page.size() == BULK_PAGE_SIZE);
+
+        return all.stream().filter(he -> he.getEngagementUuid() != null)
+                .collect(Collectors.groupingBy(HostingEnvironment::getEngagementUuid));
+    }
+
     public List<HostingEnvironment> getHostingEnvironments(String engagementUuid) {
+        return getHostingEnvironments(engagementUuid, () -> {});
+    }
+
+    /**
+     * @param engagementUuid the engagement uuid
+     * @param onServerError run when the hosting service fails with a 5xx and an empty list is returned instead
+     * @return the hosting environments of the engagement
+     */
+    public List<HostingEnvironment> getHostingEnvironments(String engagementUuid, Runnable onServerError) {
         try {
             return hostingEnvironmentApiClient.getHostingEnvironmentsByEngagementUuid(engagementUuid);
         } catch (WebApplicationException wex) {
             if(wex.getResponse().getStatus() >= 500) {
                 LOGGER.error("Hosting Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
-                return Collections.EMPTY_LIST;
+                onServerError.run();
+                return Collections.emptyList();
             }
             throw wex;
         }
     }
 
+    /**
+     * {@link #getHostingEnvironments(String, Runnable)} without holding a thread while the hosting service answers.
+     */
+    public Uni<List<HostingEnvironment>> getHostingEnvironmentsAsync(String engagementUuid, Runnable onServerError) {
+        return Uni.createFrom().completionStage(() -> hostingEnvironmentApiClient.getHostingEnvironmentsByEngagementUuidAsync(engagementUuid))
+                .onFailure(WebApplicationException.class).recoverWithUni(e -> {
+                    WebApplicationException wex = (WebApplicationException) e;
+                    if(wex.getResponse().getStatus() >= 500) {
+                        LOGGER.error("Hosting Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
+                        onServerError.run();
+                        return Uni.createFrom().item(Collections.emptyList());
+                    }
+                    return Uni.createFrom().failure(wex);
+                });
+    }
+
     public List<HostingEnvironment> updateAndReload(String engagementUuid, List<HostingEnvironment> hostingEnvironments, Author author) {
         return hostingEnvironmentApiClient.updateHostingEnvironments(engagementUuid, hostingEnvironments, author.getEmail(), author.getName());
     }
@@ -50,14 +107,19 @@ public class HostingService {
         return hostingEnvironmentApiClient.isSubdomainValid(engagementUuid, subdomain);
     }
 
+    /**
+     * With downstream.nonblocking.enabled the worker thread is given back as soon as the refresh is sent.
+     */
     @ConsumeEvent(value = EventType.RELOAD_HOSTING_EVENT_ADDRESS, blocking = true)
-    public void refresh(String message) {
-        try {
-            LOGGER.debug("refresh {}", message);
-            hostingEnvironmentApiClient.refresh();
-            LOGGER.debug("refresh {} completed", message);
-        } catch (WebApplicationException wae) { //without catching this it will fail silently
-            LOGGER.error("Failed to refresh hosting {}", wae.getResponse(), wae);
-        }
+    public Uni<Void> refresh(String message) {
+        LOGGER.debug("refresh {}", message);
+        Uni<Response> refresh = nonBlocking ? Uni.createFrom().completionStage(hostingEnvironmentApiClient::refreshAsync)
+                : Uni.createFrom().item(hostingEnvironmentApiClient::refresh);
+
+        return refresh.invoke(response -> LOGGER.debug("refresh {} completed", message))
+                .onFailure(WebApplicationException.class).recoverWithItem(wae -> { //without catching this it will fail silently
+                    LOGGER.error("Failed to refresh hosting {}", ((WebApplicationException) wae).getResponse(), wae);
+                    return null;
+                }).replaceWithVoid();
     }
 }
@@ -0,0 +1,414 @@
+package com.redhat.labs.lodestar.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbException;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.model.Author;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+import com.redhat.labs.lodestar.model.event.OutboxEntry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Section writes waiting to be sent to the downstream services. A write is appended to a local log and the log
+ * forced to disk before the write is acknowledged, then a single dispatcher thread sends it downstream, retrying
+ * with backoff until the service accepts or rejects it or outbox.max.retries is used up. A write that runs out of
+ * retries is appended to the dead letter file at outbox.dead.letter.path. Either way the engagement is dropped from
+ * the cache, which was filled with the write before it was confirmed. Appends that arrive while the log is being forced are
+ * written and forced together (group commit), so concurrent requests share one fsync.
+ * <p>
+ * Every write carries the whole section, so an older write for a section that has a newer one is dropped rather
+ * than sent. Once sent, a done marker is appended. At startup the writes without a marker are replayed and the log
+ * is rewritten to hold only those. The log is truncated whenever nothing is waiting and it has grown past
+ * outbox.compact.bytes. With outbox.enabled=false section writes are sent during the request as before.
+ */
+@ApplicationScoped
+public class Outbox {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Outbox.class);
+
+    static final String METRIC_NAME = "lodestar.outbox";
+
+    private static final int MAX_DOUBLINGS = 30;
+
+    @ConfigProperty(name = "outbox.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "outbox.path", defaultValue = "outbox/lodestar-outbox.log")
+    String path;
+
+    @ConfigProperty(name = "outbox.commit.max.batch", defaultValue = "256")
+    int maxBatch;
+
+    @ConfigProperty(name = "outbox.compact.bytes", defaultValue = "1048576")
+    long compactBytes;
+
+    @ConfigProperty(name = "outbox.retry.max.delay", defaultValue = "60")
+    int maxRetryDelay;
+
+    @ConfigProperty(name = "outbox.max.retries", defaultValue = "15")
+    int maxRetries;
+
+    @ConfigProperty(name = "outbox.dead.letter.path", defaultValue = "outbox/lodestar-outbox.dead")
+    String deadLetterPath;
+
+    @Inject
+    EngagementService engagementService;
+
+    @Inject
+    EngagementCache engagementCache;
+
+    @Inject
+    Jsonb jsonb;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Map<Long, OutboxEntry> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private FileChannel log;
+    private Thread writer;
+    private ScheduledExecutorService dispatcher;
+    private DistributionSummary batchSize;
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent event) {
+        if(enabled) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if(!running) {
+            return;
+        }
+
+        running = false;
+        dispatcher.shutdownNow();
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            log.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.warn("outbox log not closed cleanly", e);
+        }
+
+        if(!pending.isEmpty()) {
+            LOGGER.info("{} outbox writes left for the next start", pending.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replays the writes the log holds and starts accepting new ones.
+     */
+    synchronized void start() {
+        Path file = Paths.get(path);
+        Map<Long, OutboxEntry> replayed = replay(file);
+
+        try {
+            compact(file, replayed.values());
+            log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("outbox log " + file + " not usable", e);
+        }
+
+        batchSize = DistributionSummary.builder(METRIC_NAME + ".commit.batch")
+                .description("Writes forced to disk together").register(registry);
+        registry.gauge(METRIC_NAME + ".pending", pending, Map::size);
+
+        running = true;
+        writer = new Thread(this::write, "outbox-writer");
+        writer.start();
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "outbox-dispatcher"));
+
+        if(!replayed.isEmpty()) {
+            LOGGER.info("replaying {} outbox writes", replayed.size());
+        }
+
+        replayed.values().forEach(entry -> {
+            pending.put(entry.getId(), entry);
+            latest.merge(entry.key(), entry.getId(), Math::max);
+            dispatcher.execute(() -> dispatch(entry, 0));
+        });
+    }
+
+    /**
+     * Records the engagement's section to be sent downstream. Returns once the write is on disk.
+     *
+     * @param section the section to write
+     * @param engagement the engagement holding the section's desired state
+     * @param author the author of the change
+     */
+    public void record(EngagementSection section, Engagement engagement, Author author) {
+        if(!running) {
+            throw new IllegalStateException("outbox not started");
+        }
+
+        Engagement sectionOnly = engagement.toBuilder().build();
+        EnumSet.complementOf(EnumSet.of(section)).forEach(other -> other.clear(sectionOnly));
+
+        OutboxEntry entry = OutboxEntry.builder().id(sequence.incrementAndGet()).section(section).author(author)
+                .engagement(sectionOnly).build();
+
+        pending.put(entry.getId(), entry);
+
+        try {
+            append(entry).join();
+        } catch (CompletionException e) {
+            pending.remove(entry.getId());
+            throw new UncheckedIOException("outbox write for " + entry.key() + " not recorded",
+                    (IOException) e.getCause());
+        }
+
+        latest.merge(entry.key(), entry.getId(), Math::max);
+        dispatcher.execute(() -> dispatch(entry, 0));
+    }
+
+    /**
+     * @return the writes not yet accepted or rejected downstream
+     */
+    public int pending() {
+        return pending.size();
+    }
+
+    private CompletableFuture<Void> append(OutboxEntry entry) {
+        Append append = new Append(line(entry));
+        appends.add(append);
+        return append.written;
+    }
+
+    /**
+     * The writer thread. Takes whatever has queued up while the last batch was forced and forces it as one.
+     */
+    private void write() {
+        while(running || !appends.isEmpty()) {
+            List<Append> batch = new ArrayList<>();
+
+            try {
+                Append first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            appends.drainTo(batch, maxBatch - 1);
+
+            try {
+                for(Append append : batch) {
+                    writeFully(log, append.line);
+                }
+                log.force(false);
+                batch.forEach(append -> append.written.complete(null));
+                batchSize.record(batch.size());
+
+                if(pending.isEmpty() && log.size() >= compactBytes) {
+                    log.truncate(0);
+                }
+            } catch (IOException e) {
+                LOGGER.error("outbox log write failed", e);
+                batch.forEach(append -> append.written.completeExceptionally(e));
+            }
+        }
+    }
+
+    private byte[] line(OutboxEntry entry) {
+        return (jsonb.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void dispatch(OutboxEntry entry, int attempt) {
+        if(entry.getId() < latest.get(entry.key())) {
+            done(entry, "superseded");
+            return;
+        }
+
+        try {
+            engagementService.writeSection(entry.getSection(), entry.getEngagement(), entry.getAuthor());
+            done(entry, "success");
+        } catch (WebApplicationException wae) {
+            int status = wae.getResponse().getStatus();
+
+            if(status >= 400 && status < 500 && status != 408 && status != 429) {
+                LOGGER.error("outbox write {} for {} rejected with {}", entry.getId(), entry.key(), status);
+                engagementCache.invalidate(entry.getEngagement().getUuid());
+                done(entry, "rejected");
+            } else {
+                retry(entry, attempt, wae);
+            }
+        } catch (RuntimeException e) {
+            retry(entry, attempt, e);
+        }
+    }
+
+    private void retry(OutboxEntry entry, int attempt, RuntimeException cause) {
+        if(attempt >= maxRetries) {
+            park(entry, cause);
+            return;
+        }
+
+        long delay = delayMillis(attempt);
+        LOGGER.warn("outbox write {} for {} failed. Retrying in {} ms. {}", entry.getId(), entry.key(), delay,
+                cause.getMessage());
+        registry.counter(METRIC_NAME + ".retries").increment();
+        dispatcher.schedule(() -> dispatch(entry, attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gives up on a write that kept failing. It is kept in the dead letter file for someone to look at.
+     */
+    private void park(OutboxEntry entry, RuntimeException cause) {
+        LOGGER.error("outbox write {} for {} failed {} times. Moving it to {}. {}", entry.getId(), entry.key(),
+                maxRetries + 1, deadLetterPath, cause.getMessage());
+
+        try {
+            Path deadLetters = Paths.get(deadLetterPath);
+            Files.createDirectories(deadLetters.toAbsolutePath().getParent());
+            Files.write(deadLetters, line(entry), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.error("outbox write {} not saved to {}. It was {}", entry.getId(), deadLetterPath,
+                    new String(line(entry), StandardCharsets.UTF_8), e);
+        }
+
+        engagementCache.invalidate(entry.getEngagement().getUuid());
+        done(entry, "exhausted");
+    }
+
+    private void done(OutboxEntry entry, String outcome) {
+        pending.remove(entry.getId());
+        registry.counter(METRIC_NAME + ".dispatched", "outcome", outcome).increment();
+        append(OutboxEntry.builder().id(entry.getId()).done(true).build());
+    }
+
+    /**
+     * A delay between half and all of 2^attempt seconds, at most outbox.retry.max.delay seconds.
+     */
+    long delayMillis(int attempt) {
+        long backoff = Math.min(TimeUnit.SECONDS.toMillis(maxRetryDelay), 1000L << Math.min(attempt, MAX_DOUBLINGS));
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    /**
+     * @return the writes in the log without a done marker, oldest first
+     */
+    private Map<Long, OutboxEntry> replay(Path file) {
+        Map<Long, OutboxEntry> replayed = new TreeMap<>();
+
+        if(!Files.exists(file)) {
+            return replayed;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    OutboxEntry entry = jsonb.fromJson(line, OutboxEntry.class);
+                    sequence.accumulateAndGet(entry.getId(), Math::max);
+
+                    if(entry.isDone()) {
+                        replayed.remove(entry.getId());
+                    } else {
+                        replayed.put(entry.getId(), entry);
+                    }
+                } catch (JsonbException e) {
+                    // the last line is cut short when the process died mid append. It was never acknowledged
+                    LOGGER.warn("skipping unreadable outbox record {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("outbox log " + file + " not readable", e);
+        }
+
+        return replayed;
+    }
+
+    /**
+     * Swaps in a log holding only the given writes.
+     */
+    private void compact(Path file, Iterable<OutboxEntry> entries) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path compacted = parent.resolve(file.getFileName() + ".compact");
+
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for(OutboxEntry entry : entries) {
+                writeFully(channel, line(entry));
+            }
+            channel.force(false);
+        }
+
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Append {
+        final byte[] line;
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Append(byte[] line) {
+            this.line = line;
+        }
+    }
+}
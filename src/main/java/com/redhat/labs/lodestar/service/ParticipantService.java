@@ -1,25 +1,33 @@
 package com.redhat.labs.lodestar.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.redhat.labs.lodestar.config.ExecutorConfig;
 import com.redhat.labs.lodestar.model.Engagement;
 import com.redhat.labs.lodestar.model.EngagementUser;
 import com.redhat.labs.lodestar.model.event.EventType;
 import com.redhat.labs.lodestar.rest.client.ParticipantApiClient;
 
 import io.quarkus.vertx.ConsumeEvent;
+import io.smallrye.mutiny.Uni;
 
 @ApplicationScoped
 public class ParticipantService {
@@ -31,19 +39,89 @@ public class ParticipantService {
     
     @Inject
     EngagementService engagementService;
+
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor downstreamExecutor;
+
+    @ConfigProperty(name = "downstream.nonblocking.enabled", defaultValue = "false")
+    boolean nonBlocking;
+
+    static final int BULK_PAGE_SIZE = 500;
     
     public List<EngagementUser> getParticipantsForEngagement(String engagementUuid) {
+        return getParticipantsForEngagement(engagementUuid, () -> {});
+    }
+
+    /**
+     * @param engagementUuid the engagement uuid
+     * @param onServerError run when the participant service fails with a 5xx and an empty list is returned instead
+     * @return the participants of the engagement
+     */
+    public List<EngagementUser> getParticipantsForEngagement(String engagementUuid, Runnable onServerError) {
         try {
             return participantRestClient.getParticipantsForEngagement(engagementUuid);
         } catch (WebApplicationException wex) {
             if(wex.getResponse().getStatus() >= 500) {
                 LOGGER.error("Participant Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
+                onServerError.run();
                 return Collections.emptyList();
             }
             throw wex;
         }
     }
+
+    /**
+     * {@link #getParticipantsForEngagement(String)} as a Uni. When downstream.nonblocking.enabled is set no thread
+     * waits on the participant service and the participants are handed back on the downstream executor. Otherwise
+     * they are read as before, on the thread that subscribes.
+     */
+    public Uni<List<EngagementUser>> getParticipantsForEngagementAsync(String engagementUuid) {
+        if(!nonBlocking) {
+            return Uni.createFrom().item(() -> getParticipantsForEngagement(engagementUuid));
+        }
+
+        return getParticipantsForEngagementAsync(engagementUuid, () -> {}).emitOn(downstreamExecutor);
+    }
+
+    /**
+     * {@link #getParticipantsForEngagement(String, Runnable)} without holding a thread while the participant service
+     * answers.
+     */
+    public Uni<List<EngagementUser>> getParticipantsForEngagementAsync(String engagementUuid, Runnable onServerError) {
+        return Uni.createFrom().completionStage(() -> participantRestClient.getParticipantsForEngagementAsync(engagementUuid))
+                .onFailure(WebApplicationException.class).recoverWithUni(e -> {
+                    WebApplicationException wex = (WebApplicationException) e;
+                    if(wex.getResponse().getStatus() >= 500) {
+                        LOGGER.error("Participant Server error ({}) from hosting env for euuid {}", wex.getResponse().getStatus(), engagementUuid);
+                        onServerError.run();
+                        return Uni.createFrom().item(Collections.emptyList());
+                    }
+                    return Uni.createFrom().failure(wex);
+                });
+    }
     
+    /**
+     * Fetches the participants of many engagements in as few calls as possible.
+     *
+     * @param engagementUuids the engagements
+     * @return participants grouped by engagement uuid. Engagements without any are absent
+     */
+    public Map<String, List<EngagementUser>> getParticipantsByEngagement(Set<String> engagementUuids) {
+        List<EngagementUser> all = new ArrayList<>();
+        List<EngagementUser> page;
+        int pageNumber = 0;
+
+        do {
+            page = participantRestClient.getParticipants(engagementUuids, pageNumber++, BULK_PAGE_SIZE)
+                    .readEntity(new GenericType<List<EngagementUser>>(){});
+            all.addAll(page);
+        } while(page.size() == BULK_PAGE_SIZE);
+
+        return all.stream().filter(p -> p.getEngagementUuid() != null)
+                .collect(Collectors.groupingBy(EngagementUser::getEngagementUuid));
+    }
+
     public Response getParticipants(int page, int pageSize) {
         return getParticipants(null, page, pageSize);
     }
@@ -75,9 +153,14 @@ public class ParticipantService {
     }
 
     public List<EngagementUser> updateParticipantsAndReload(String engagementUuid, String authorName, String authorEmail, Set<EngagementUser> participants) {
+        return updateParticipantsAndReload(engagementUuid, authorName, authorEmail, participants, () -> {});
+    }
+
+    public List<EngagementUser> updateParticipantsAndReload(String engagementUuid, String authorName, String authorEmail,
+            Set<EngagementUser> participants, Runnable onReloadServerError) {
 
         updateParticipants(engagementUuid, authorName, authorEmail, participants);
-        return getParticipantsForEngagement(engagementUuid);
+        return getParticipantsForEngagement(engagementUuid, onReloadServerError);
     }
     
     /**
@@ -101,14 +184,20 @@ public class ParticipantService {
         
     }
     
+    /**
+     * With downstream.nonblocking.enabled the worker thread is given back as soon as the refresh is sent.
+     */
     @ConsumeEvent(value = EventType.RELOAD_PARTICIPANTS_EVENT_ADDRESS, blocking = true)
-    public void refesh(String message) {
-        try {
-            LOGGER.debug("refresh {}", message);
-            Response response = participantRestClient.refreshParticipants();
-            LOGGER.debug("refresh {} completed. Participant count is {} ", message, response.getHeaderString("x-total-participants"));
-        } catch (WebApplicationException wae) { //without catching this it will fail silently
-            LOGGER.error("Failed to refresh participants {}", wae.getResponse(), wae);
-        }
+    public Uni<Void> refesh(String message) {
+        LOGGER.debug("refresh {}", message);
+        Uni<Response> refresh = nonBlocking ? Uni.createFrom().completionStage(participantRestClient::refreshParticipantsAsync)
+                : Uni.createFrom().item(participantRestClient::refreshParticipants);
+
+        return refresh.invoke(response -> LOGGER.debug("refresh {} completed. Participant count is {} ", message,
+                        response.getHeaderString("x-total-participants")))
+                .onFailure(WebApplicationException.class).recoverWithItem(wae -> { //without catching this it will fail silently
+                    LOGGER.error("Failed to refresh participants {}", ((WebApplicationException) wae).getResponse(), wae);
+                    return null;
+                }).replaceWithVoid();
     }
 }
@@ -0,0 +1,187 @@
+package com.redhat.labs.lodestar.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.config.ExecutorConfig;
+import com.redhat.labs.lodestar.model.event.RetriableEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+
+/**
+ * Runs a retry of a {@link RetriableEvent} after a delay without holding a thread while it waits. The wait is a
+ * Vert.x timer and the retry itself runs on the downstream executor once the timer fires. The timer fires on the
+ * event loop, where a saturated downstream executor refuses work, so a refused retry runs on a Vert.x worker
+ * instead. A retry that cannot be started at all counts as exhausted.
+ * <p>
+ * The delay doubles with every attempt, starting at event.retry.delay.factor seconds and capped at
+ * event.retry.max.delay seconds. Each delay is jittered between half and all of that value so that events which
+ * failed together do not retry together.
+ */
+@ApplicationScoped
+public class RetryScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+
+    static final String METRIC_NAME = "lodestar.event.retry";
+
+    private static final int MAX_DOUBLINGS = 30;
+
+    @ConfigProperty(name = "event.retry.delay.factor", defaultValue = "2")
+    int delayFactor;
+
+    @ConfigProperty(name = "event.retry.max.delay", defaultValue = "60")
+    int maxDelay;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    @Named(ExecutorConfig.DOWNSTREAM_EXECUTOR)
+    ManagedExecutor executor;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<Long> timers = new HashSet<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Counter retried;
+    private Counter exhausted;
+
+    @PostConstruct
+    void init() {
+        registry.gauge(METRIC_NAME + ".in.flight", inFlight);
+        retried = registry.counter(METRIC_NAME + ".retried");
+        exhausted = registry.counter(METRIC_NAME + ".exhausted");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (timers) {
+            timers.forEach(vertx::cancelTimer);
+
+            if(!timers.isEmpty()) {
+                LOGGER.warn("{} event retries cancelled at shutdown", timers.size());
+            }
+        }
+    }
+
+    /**
+     * Runs the retry on the downstream executor once the backoff for the event's current retry count has passed.
+     *
+     * @param event
+     * @param retry
+     * @return false if the event has no retries left
+     */
+    public boolean schedule(RetriableEvent event, Runnable retry) {
+        return schedule(event, retry, executor);
+    }
+
+    /**
+     * Runs the retry on the given executor once the backoff for the event's current retry count has passed. The
+     * timer fires on the event loop, so a retry that never blocks can be run there directly with Runnable::run.
+     *
+     * @param event
+     * @param retry
+     * @param runOn where the retry runs
+     * @return false if the event has no retries left
+     */
+    public boolean schedule(RetriableEvent event, Runnable retry, Executor runOn) {
+        if(!event.shouldRetry()) {
+            LOGGER.info("retries exhausted for {} after {} attempts", event.subject(), event.getCurrentRetryCount());
+            exhausted.increment();
+            return false;
+        }
+
+        long delay = delayMillis(event.getCurrentRetryCount());
+        LOGGER.debug("retrying {} in {} ms", event.subject(), delay);
+
+        inFlight.incrementAndGet();
+        synchronized (timers) {
+            // a timer can fire before setTimer returns its id
+            timers.add(vertx.setTimer(delay, id -> {
+                synchronized (timers) {
+                    timers.remove(id);
+                }
+                run(event, retry, runOn);
+            }));
+        }
+        return true;
+    }
+
+    /**
+     * @return the events waiting for or running a retry
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * A delay between half and all of factor * 2^retryCount seconds, at most max delay seconds.
+     */
+    long delayMillis(int retryCount) {
+        long ceiling = TimeUnit.SECONDS.toMillis(maxDelay);
+        long backoff = Math.min(ceiling, TimeUnit.SECONDS.toMillis(delayFactor) << Math.min(retryCount, MAX_DOUBLINGS));
+        long half = backoff / 2;
+
+        // vert.x refuses timers under 1 ms
+        return Math.max(1, half + ThreadLocalRandom.current().nextLong(backoff - half + 1));
+    }
+
+    private void run(RetriableEvent event, Runnable retry, Executor runOn) {
+        Runnable task = () -> {
+            try {
+                retry.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("event retry failed", e);
+            } finally {
+                retried.increment();
+                inFlight.decrementAndGet();
+            }
+        };
+
+        try {
+            runOn.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the timer fires on the event loop, which a saturated executor refuses to run the retry on
+            LOGGER.debug("executor refused the retry of {}. Running it on a worker", event.subject());
+            runOnWorker(event, task);
+        } catch (RuntimeException e) {
+            lost(event, e);
+        }
+    }
+
+    private void runOnWorker(RetriableEvent event, Runnable task) {
+        try {
+            vertx.executeBlocking(promise -> {
+                task.run();
+                promise.complete();
+            }, false, null);
+        } catch (RuntimeException e) {
+            lost(event, e);
+        }
+    }
+
+    private void lost(RetriableEvent event, RuntimeException e) {
+        LOGGER.error("retry of {} could not be started. It is given up", event.subject(), e);
+        exhausted.increment();
+        inFlight.decrementAndGet();
+    }
+}
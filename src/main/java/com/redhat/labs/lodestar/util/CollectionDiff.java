@@ -0,0 +1,181 @@
+package com.redhat.labs.lodestar.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Function;
+
+import org.javers.core.metamodel.annotation.DiffIgnore;
+
+/**
+ * Compares two collections of value objects in linear time. Elements are matched on their identity (uuid,
+ * email) through a hash map and matched elements are compared property by property. Properties are the
+ * fields of the class and its super classes that Javers would compare - static, transient and
+ * {@link DiffIgnore} fields are skipped - so the change / no change answer is the same as
+ * Javers compareCollections with the LEVENSHTEIN_DISTANCE list algorithm. For lists a change in order is
+ * a change. For sets it is not. Elements without an identity are matched on their properties.
+ *
+ * @param <T> the element type
+ */
+public class CollectionDiff<T> {
+
+    private final Function<T, Object> identity;
+    private final List<Field> fields;
+
+    private CollectionDiff(Class<T> type, Function<T, Object> identity) {
+        this.identity = identity;
+        this.fields = comparedFields(type);
+    }
+
+    public static <T> CollectionDiff<T> of(Class<T> type, Function<T, Object> identity) {
+        return new CollectionDiff<>(type, identity);
+    }
+
+    public Changes compare(List<T> current, List<T> desired) {
+        return compare(nullToEmpty(current), nullToEmpty(desired), true);
+    }
+
+    public Changes compare(Set<T> current, Set<T> desired) {
+        return compare(nullToEmpty(current), nullToEmpty(desired), false);
+    }
+
+    private Changes compare(Collection<T> current, Collection<T> desired, boolean ordered) {
+        Map<Object, List<Object>> before = index(current);
+        Map<Object, List<Object>> after = index(desired);
+
+        Changes changes = new Changes();
+
+        for(Map.Entry<Object, List<Object>> entry : after.entrySet()) {
+            List<Object> was = before.get(entry.getKey());
+            if(was == null) {
+                changes.added.add(entry.getKey());
+            } else if(!was.equals(entry.getValue())) {
+                changes.modified.add(entry.getKey());
+            }
+        }
+
+        for(Object key : before.keySet()) {
+            if(!after.containsKey(key)) {
+                changes.removed.add(key);
+            }
+        }
+
+        if(changes.hasChanges()) {
+            return changes;
+        }
+
+        // Same elements by identity. The order may have moved or duplicated identities collapsed in the index
+        boolean duplicates = before.size() != current.size() || after.size() != desired.size();
+        if(current.size() != desired.size()) {
+            changes.reordered = true;
+        } else if(ordered) {
+            changes.reordered = !sameSequence(current, desired);
+        } else if(duplicates) {
+            changes.reordered = !counts(current).equals(counts(desired));
+        }
+
+        return changes;
+    }
+
+    private boolean sameSequence(Collection<T> current, Collection<T> desired) {
+        Iterator<T> was = current.iterator();
+        Iterator<T> is = desired.iterator();
+
+        while(was.hasNext()) {
+            if(!properties(was.next()).equals(properties(is.next()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<List<Object>, Integer> counts(Collection<T> elements) {
+        Map<List<Object>, Integer> counts = new HashMap<>();
+        elements.forEach(e -> counts.merge(properties(e), 1, Integer::sum));
+        return counts;
+    }
+
+    private Map<Object, List<Object>> index(Collection<T> elements) {
+        Map<Object, List<Object>> index = new LinkedHashMap<>(elements.size() * 2);
+        for(T element : elements) {
+            List<Object> properties = properties(element);
+            Object key = identity.apply(element);
+            index.put(key == null ? properties : key, properties);
+        }
+        return index;
+    }
+
+    private List<Object> properties(T element) {
+        if(element == null) {
+            return Collections.emptyList();
+        }
+
+        List<Object> values = new ArrayList<>(fields.size());
+        for(Field field : fields) {
+            try {
+                values.add(field.get(element));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to read " + field.getName(), e);
+            }
+        }
+        return values;
+    }
+
+    private static List<Field> comparedFields(Class<?> type) {
+        List<Field> compared = new ArrayList<>();
+        for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for(Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if(!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+                        && !field.isAnnotationPresent(DiffIgnore.class)) {
+                    field.setAccessible(true);
+                    compared.add(field);
+                }
+            }
+        }
+        return compared;
+    }
+
+    private static <E> List<E> nullToEmpty(List<E> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    private static <E> Set<E> nullToEmpty(Set<E> set) {
+        return set == null ? Collections.emptySet() : set;
+    }
+
+    /**
+     * The identities of the added, removed and modified elements.
+     */
+    public static class Changes {
+        private final List<Object> added = new ArrayList<>();
+        private final List<Object> removed = new ArrayList<>();
+        private final List<Object> modified = new ArrayList<>();
+        private boolean reordered;
+
+        public boolean hasChanges() {
+            return reordered || !added.isEmpty() || !removed.isEmpty() || !modified.isEmpty();
+        }
+
+        public List<Object> getAdded() {
+            return added;
+        }
+
+        public List<Object> getRemoved() {
+            return removed;
+        }
+
+        public List<Object> getModified() {
+            return modified;
+        }
+
+        public boolean isReordered() {
+            return reordered;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("added %s removed %s modified %s reordered %s", added, removed, modified, reordered);
+        }
+    }
+}
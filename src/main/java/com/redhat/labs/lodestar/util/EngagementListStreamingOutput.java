@@ -0,0 +1,159 @@
+package com.redhat.labs.lodestar.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Copies a JSON array of engagements from the engagement service to the client token by token, adding
+ * pretty_type to each engagement on the way. Nothing but the current token is held in memory so the cost
+ * of a page does not grow with its size. The downstream response is closed once the copy is done.
+ */
+public class EngagementListStreamingOutput implements StreamingOutput {
+
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(Collections.emptyMap());
+    private static final JsonGeneratorFactory GENERATORS = Json.createGeneratorFactory(Collections.emptyMap());
+
+    private static final int ENGAGEMENT_DEPTH = 2;
+    private static final String TYPE = "type";
+    private static final String PRETTY_TYPE = "pretty_type";
+
+    private final Response downstream;
+    private final Map<String, String> engagementOptions;
+
+    public EngagementListStreamingOutput(Response downstream, Map<String, String> engagementOptions) {
+        this.downstream = downstream;
+        this.engagementOptions = engagementOptions;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (InputStream input = downstream.readEntity(InputStream.class);
+                JsonParser parser = PARSERS.createParser(input)) {
+            // not closed. That would close the container's output stream
+            JsonGenerator generator = GENERATORS.createGenerator(output);
+            copy(parser, generator);
+            generator.flush();
+        } finally {
+            downstream.close();
+        }
+    }
+
+    void copy(JsonParser parser, JsonGenerator generator) {
+        int depth = 0;
+        String key = null;
+        String type = null;
+
+        while(parser.hasNext()) {
+            JsonParser.Event event = parser.next();
+
+            if(depth == ENGAGEMENT_DEPTH && PRETTY_TYPE.equals(key) && isValue(event)) {
+                // replaced when the engagement ends
+                key = null;
+                continue;
+            }
+
+            switch (event) {
+            case START_ARRAY:
+                if(key == null) {
+                    generator.writeStartArray();
+                } else {
+                    generator.writeStartArray(key);
+                }
+                depth++;
+                break;
+            case START_OBJECT:
+                if(key == null) {
+                    generator.writeStartObject();
+                } else {
+                    generator.writeStartObject(key);
+                }
+                depth++;
+                if(depth == ENGAGEMENT_DEPTH) {
+                    type = null;
+                }
+                break;
+            case END_OBJECT:
+                if(depth == ENGAGEMENT_DEPTH) {
+                    String prettyType = type == null ? null : engagementOptions.getOrDefault(type, type);
+                    if(prettyType != null) {
+                        generator.write(PRETTY_TYPE, prettyType);
+                    }
+                }
+                generator.writeEnd();
+                depth--;
+                break;
+            case END_ARRAY:
+                generator.writeEnd();
+                depth--;
+                break;
+            case KEY_NAME:
+                key = parser.getString();
+                continue;
+            case VALUE_STRING:
+                if(depth == ENGAGEMENT_DEPTH && TYPE.equals(key)) {
+                    type = parser.getString();
+                }
+                write(generator, key, parser.getString());
+                break;
+            case VALUE_NUMBER:
+                write(generator, key, parser.getBigDecimal());
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                write(generator, key, event == JsonParser.Event.VALUE_TRUE);
+                break;
+            case VALUE_NULL:
+                if(key == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNull(key);
+                }
+                break;
+            }
+
+            key = null;
+        }
+    }
+
+    private static boolean isValue(JsonParser.Event event) {
+        return event != JsonParser.Event.START_ARRAY && event != JsonParser.Event.START_OBJECT
+                && event != JsonParser.Event.END_ARRAY && event != JsonParser.Event.END_OBJECT
+                && event != JsonParser.Event.KEY_NAME;
+    }
+
+    private static void write(JsonGenerator generator, String key, String value) {
+        if(key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+
+    private static void write(JsonGenerator generator, String key, BigDecimal value) {
+        if(key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+
+    private static void write(JsonGenerator generator, String key, boolean value) {
+        if(key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+}
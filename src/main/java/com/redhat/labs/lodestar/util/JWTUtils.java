@@ -1,6 +1,5 @@
 package com.redhat.labs.lodestar.util;
 
-import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Singleton;
@@ -54,10 +53,6 @@ public class JWTUtils {
 
     }
     
-    public boolean isAllowedToWriteEngagement(JsonWebToken jwt, List<String> allowedGroups) {
-        return jwt.getGroups().stream().anyMatch(allowedGroups::contains);
-    }
-
     public Optional<String> claimIsValid(JsonWebToken jwt, String claimName) {
 
         // get claim by name
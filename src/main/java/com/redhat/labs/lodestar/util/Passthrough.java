@@ -0,0 +1,82 @@
+package com.redhat.labs.lodestar.util;
+
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Relays a response from a downstream LodeStar service without reading it into objects. The status, the
+ * paging headers (x-total-*, x-*-page), last-update and the content type are kept and the body bytes are
+ * copied to the client as they arrive. Connection level headers of the downstream response are dropped.
+ * Access-Control-Expose-Headers names the relayed headers, plus any the downstream already exposed, so that
+ * browsers on another origin can still read them.
+ */
+public final class Passthrough {
+
+    private static final String LAST_UPDATE = "last-update";
+    private static final String ACCESS_CONTROL_EXPOSE_HEADERS = "Access-Control-Expose-Headers";
+
+    private Passthrough() {
+    }
+
+    public static Response relay(Response downstream) {
+        if(downstream == null) {
+            return Response.noContent().build();
+        }
+
+        ResponseBuilder builder = Response.status(downstream.getStatusInfo());
+        Set<String> exposed = new LinkedHashSet<>();
+
+        for(Map.Entry<String, List<String>> header : downstream.getStringHeaders().entrySet()) {
+            if(isRelayed(header.getKey())) {
+                header.getValue().forEach(value -> builder.header(header.getKey(), value));
+                exposed.add(header.getKey());
+            } else if(ACCESS_CONTROL_EXPOSE_HEADERS.equalsIgnoreCase(header.getKey())) {
+                header.getValue().forEach(value -> exposed.addAll(List.of(value.split("\\s*,\\s*"))));
+            }
+        }
+
+        exposed.remove("");
+        if(!exposed.isEmpty()) {
+            builder.header(ACCESS_CONTROL_EXPOSE_HEADERS, String.join(",", exposed));
+        }
+
+        if(downstream.getMediaType() != null) {
+            builder.type(downstream.getMediaType());
+        }
+
+        Object entity = downstream.getEntity();
+
+        if(entity != null && !(entity instanceof InputStream)) {
+            // already an object. Nothing to save by copying
+            return builder.entity(entity).build();
+        }
+
+        if(!downstream.hasEntity()) {
+            downstream.close();
+            return builder.build();
+        }
+
+        StreamingOutput body = output -> {
+            try (InputStream input = downstream.readEntity(InputStream.class)) {
+                input.transferTo(output);
+            } finally {
+                downstream.close();
+            }
+        };
+        return builder.entity(body).build();
+    }
+
+    static boolean isRelayed(String header) {
+        String name = header.toLowerCase(Locale.ROOT);
+        return name.startsWith("x-total-") || (name.startsWith("x-") && name.endsWith("-page"))
+                || name.equals(LAST_UPDATE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.redhat.labs.lodestar.util;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Write permission decisions for one rbac map (engagement type to the groups that may write it). Each type gets a
+ * bit and each group the bitset of types it may write. The types a token may write are the union of its groups'
+ * bitsets, worked out once per distinct group set and cached, so a check is a lookup and a bit test. A new rbac map
+ * gets a new index.
+ */
+public class RbacIndex {
+
+    static final int MAX_GROUP_SETS = 10_000;
+
+    private final Map<String, Integer> typeBits = new HashMap<>();
+    private final Map<String, BitSet> groupTypes = new HashMap<>();
+    private final Cache<Set<String>, BitSet> decisions = Caffeine.newBuilder().maximumSize(MAX_GROUP_SETS).build();
+
+    public RbacIndex(Map<String, List<String>> rbac) {
+        rbac.forEach((type, groups) -> {
+            int bit = typeBits.size();
+            typeBits.put(type, bit);
+            groups.forEach(group -> groupTypes.computeIfAbsent(group, g -> new BitSet()).set(bit));
+        });
+    }
+
+    /**
+     * @param groups the groups in the caller's token
+     * @param type the engagement type
+     * @return true if any of the groups may write engagements of the type
+     */
+    public boolean isAllowed(Set<String> groups, String type) {
+        Integer bit = typeBits.get(type);
+
+        if(bit == null || groups == null || groups.isEmpty()) {
+            return false;
+        }
+
+        BitSet allowed = decisions.getIfPresent(groups);
+
+        if(allowed == null) {
+            // the caller's set may change after this. Keep a copy
+            Set<String> key = Set.copyOf(groups);
+            allowed = allowedTypes(key);
+            decisions.put(key, allowed);
+        }
+
+        return allowed.get(bit);
+    }
+
+    private BitSet allowedTypes(Set<String> groups) {
+        BitSet allowed = new BitSet(typeBits.size());
+
+        for(String group : groups) {
+            BitSet types = groupTypes.get(group);
+            if(types != null) {
+                allowed.or(types);
+            }
+        }
+
+        return allowed;
+    }
+}
@@ -0,0 +1,59 @@
+package com.redhat.labs.lodestar.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExecutorConfigTest {
+
+    @Test
+    void testCallerRunsWhenSaturated() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorConfig config = new ExecutorConfig();
+        config.maxAsync = 2;
+        config.maxQueued = 1;
+        config.registry = registry;
+
+        ManagedExecutor executor = config.downstreamExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> calls = new ArrayList<>();
+            for(int i = 0; i < 3; i++) {
+                calls.add(executor.supplyAsync(() -> {
+                    await(release);
+                    return Thread.currentThread().getName();
+                }));
+            }
+
+            String caller = executor.supplyAsync(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertEquals(Thread.currentThread().getName(), caller, "runs on the caller once the pool and queue are full");
+            assertEquals(1, registry.counter(ExecutorConfig.SATURATED_METRIC).count());
+
+            release.countDown();
+            for(CompletableFuture<String> call : calls) {
+                assertTrue(call.get(5, TimeUnit.SECONDS).startsWith("downstream-"));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.redhat.labs.lodestar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.bind.Jsonb;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.config.JsonbWarmup;
+import com.redhat.labs.lodestar.utils.IntegrationTestHelper;
+
+/**
+ * Pins the JSON names of the engagement graph, including the legacy mirrored fields the v1 front end still reads.
+ */
+class EngagementJsonTest {
+
+    Jsonb jsonb = new IntegrationTestHelper().quarkusJsonb;
+
+    @Test
+    void testPropertyNames() {
+        Engagement engagement = Engagement.builder().uuid("1").customerName("Customer").startDate("s").endDate("e")
+                .archiveDate("a").publicReference(true).lastUpdate("l").prettyType("Pretty").timezone("tz")
+                .hostingEnvironments(List.of(HostingEnvironment.builder().environmentName("env").build()))
+                .engagementUsers(Set.of(EngagementUser.builder().email("a@b.com").build()))
+                .categories(List.of(Category.builder().name("c").build()))
+                .artifacts(List.of(Artifact.builder().title("t").build())).build();
+        engagement.setRegion("na");
+        engagement.setName("Project");
+        engagement.setType("DO");
+
+        JsonObject json = Json.createReader(new StringReader(jsonb.toJson(engagement))).readObject();
+
+        assertEquals("Customer", json.getString("customer_name"));
+        assertEquals("Project", json.getString("name"));
+        assertEquals("Project", json.getString("project_name"));
+        assertEquals("na", json.getString("region"));
+        assertEquals("na", json.getString("engagement_region"));
+        assertEquals("DO", json.getString("type"));
+        assertEquals("DO", json.getString("engagement_type"));
+        assertEquals("Pretty", json.getString("pretty_type"));
+        assertEquals("l", json.getString("last_update"));
+        assertTrue(json.getBoolean("public_reference"));
+        for(String name : List.of("start_date", "end_date", "archive_date", "timezone", "hosting_environments",
+                "engagement_users", "engagement_categories", "artifacts")) {
+            assertTrue(json.containsKey(name), name);
+        }
+    }
+
+    @Test
+    void testLegacyNamesRead() {
+        Engagement engagement = jsonb.fromJson(
+                "{\"engagement_region\":\"na\",\"project_name\":\"Project\",\"engagement_type\":\"DO\"}", Engagement.class);
+
+        assertEquals("na", engagement.getRegion());
+        assertEquals("Project", engagement.getName());
+        assertEquals("DO", engagement.getType());
+
+        engagement = jsonb.fromJson("{\"region\":\"emea\",\"name\":\"Other\",\"type\":\"Residency\"}", Engagement.class);
+
+        assertEquals("emea", engagement.getEngagementRegion());
+        assertEquals("Other", engagement.getProjectName());
+        assertEquals("Residency", engagement.getEngagementType());
+    }
+
+    @Test
+    void testGraphRoundTrip() {
+        Engagement sample = JsonbWarmup.sample();
+
+        assertEquals(sample, jsonb.fromJson(jsonb.toJson(sample), Engagement.class));
+    }
+}
@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.model;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -67,4 +68,30 @@ class FilterOptionsTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetSectionsDefaultsToAll() {
+
+        FilterOptions options = FilterOptions.builder().build();
+        assertEquals(EngagementSection.all(), options.getSections());
+
+    }
+
+    @Test
+    void testGetSectionsExclude() {
+
+        FilterOptions options = FilterOptions.builder().exclude("commits,status").build();
+        assertEquals(EnumSet.of(EngagementSection.ENGAGEMENT, EngagementSection.HOSTING, EngagementSection.ARTIFACTS,
+                EngagementSection.PARTICIPANTS, EngagementSection.CATEGORIES), options.getSections());
+
+    }
+
+    @Test
+    void testGetSectionsInclude() {
+
+        FilterOptions options = FilterOptions.builder().include("customer_name,engagement_users,status.overall_status").build();
+        assertEquals(EnumSet.of(EngagementSection.ENGAGEMENT, EngagementSection.PARTICIPANTS, EngagementSection.STATUS),
+                options.getSections());
+
+    }
+
+}
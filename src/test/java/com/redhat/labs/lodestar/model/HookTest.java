@@ -1,8 +1,12 @@
 package com.redhat.labs.lodestar.model;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.gradle.internal.impldep.com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
@@ -44,4 +48,26 @@ class HookTest {
 
     }
 
+    @Test
+    void testChangedFiles() {
+
+        Commit c1 = Commit.builder().added(Lists.newArrayList("engagement/participants.json")).build();
+        Commit c2 = Commit.builder().modified(Lists.newArrayList("status.json"))
+                .removed(Lists.newArrayList("engagement/hosting.json")).build();
+        Hook hook = Hook.builder().commits(Lists.newArrayList(c1, c2)).build();
+
+        assertEquals(Set.of("engagement/participants.json", "status.json", "engagement/hosting.json"), hook.changedFiles());
+        assertEquals(EnumSet.of(EngagementSection.PARTICIPANTS, EngagementSection.STATUS, EngagementSection.HOSTING),
+                EngagementSection.fromFiles(hook.changedFiles()));
+
+    }
+
+    @Test
+    void testEngagementFileMapsToEngagementAndCategories() {
+
+        assertEquals(EnumSet.of(EngagementSection.ENGAGEMENT, EngagementSection.CATEGORIES),
+                EngagementSection.fromFiles(Set.of("engagement/engagement.json", "README.md")));
+
+    }
+
 }
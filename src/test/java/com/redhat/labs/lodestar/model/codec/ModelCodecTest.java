@@ -0,0 +1,232 @@
+package com.redhat.labs.lodestar.model.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.json.bind.config.PropertyNamingStrategy;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.config.JsonConfig;
+import com.redhat.labs.lodestar.config.JsonbWarmup;
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementArtifact;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.model.GitlabProject;
+import com.redhat.labs.lodestar.model.Hook;
+import com.redhat.labs.lodestar.model.HostingEnvironment;
+import com.redhat.labs.lodestar.model.Score;
+import com.redhat.labs.lodestar.model.UseCase;
+
+/**
+ * Every codec has to give the same JSON as reflective JSON-B. The instances are populated reflectively so a
+ * property added to a model class but not to its codec fails here.
+ */
+class ModelCodecTest {
+
+    private static final Type ENGAGEMENT_LIST = new ArrayList<Engagement>() {}.getClass().getGenericSuperclass();
+
+    Jsonb reflective = JsonbBuilder.create(config());
+    Jsonb codecs = JsonbBuilder.create(JsonConfig.withCodecs(config()));
+
+    @Test
+    void testEngagementWrittenAsReflective() throws Exception {
+        Engagement engagement = populate(JsonbWarmup.sample());
+
+        assertEquals(parse(reflective.toJson(engagement)), parse(codecs.toJson(engagement)));
+    }
+
+    @Test
+    void testEngagementReadAsReflective() throws Exception {
+        Engagement engagement = withTwinsInStep(populate(JsonbWarmup.sample()));
+        String json = reflective.toJson(engagement);
+
+        assertEquals(reflective.fromJson(json, Engagement.class), codecs.fromJson(json, Engagement.class));
+        assertEquals(engagement, codecs.fromJson(json, Engagement.class));
+    }
+
+    @Test
+    void testEngagementListRoundTrip() throws Exception {
+        List<Engagement> engagements = List.of(withTwinsInStep(populate(JsonbWarmup.sample())), Engagement.builder().uuid("2").build());
+
+        assertEquals(engagements, codecs.fromJson(codecs.toJson(engagements), ENGAGEMENT_LIST));
+    }
+
+    @Test
+    void testUnknownAndNullPropertiesSkipped() {
+        Engagement engagement = codecs.fromJson("{\"unknown\":{\"a\":[1,{\"b\":2}]},\"uuid\":\"1\",\"list\":[1,[2]],"
+                + "\"number\":3,\"description\":null,\"artifacts\":null,\"participant_count\":null,\"artifact_count\":4}",
+                Engagement.class);
+
+        assertEquals("1", engagement.getUuid());
+        assertNull(engagement.getDescription());
+        assertNull(engagement.getArtifacts());
+        assertEquals(0, engagement.getParticipantCount());
+        assertEquals(4, engagement.getArtifactCount());
+    }
+
+    @Test
+    void testEngagementArtifactAsReflective() throws Exception {
+        EngagementArtifact artifact = populate(EngagementArtifact.builder().build());
+        String json = reflective.toJson(artifact);
+
+        assertEquals(parse(json), parse(codecs.toJson(artifact)));
+        assertEquals(artifact, codecs.fromJson(json, EngagementArtifact.class));
+    }
+
+    @Test
+    void testHookReadAsReflective() throws Exception {
+        Hook hook = populate(Hook.builder().commits(List.of(Commit.builder().id("c1").added(List.of("a.json")).build()))
+                .project(GitlabProject.builder().pathWithNamespace("a/b/c/iac").build()).build());
+        String json = "{\"user\":{\"name\":\"n\",\"ids\":[1]}," + reflective.toJson(hook).substring(1);
+
+        assertEquals(reflective.fromJson(json, Hook.class), codecs.fromJson(json, Hook.class));
+        assertEquals(hook, codecs.fromJson(json, Hook.class));
+    }
+
+    @Test
+    void testEngagementPartsAsReflective() throws Exception {
+        for(Object part : List.of(new EngagementUser(), new HostingEnvironment(), new Artifact(), new Category(),
+                new UseCase(), new Score(), new Commit())) {
+            populate(part);
+            String json = reflective.toJson(part);
+
+            assertEquals(parse(json), parse(codecs.toJson(part)), part.getClass().getSimpleName());
+            assertEquals(part, codecs.fromJson(json, part.getClass()), part.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void testCodecsHaveEveryProperty() throws Exception {
+        assertEquals(properties(new Engagement()), names(EngagementCodec.CODEC));
+        assertEquals(properties(new EngagementArtifact()), names(EngagementArtifactCodec.CODEC));
+        assertEquals(properties(new EngagementUser()), names(EngagementUserCodec.CODEC));
+        assertEquals(properties(new HostingEnvironment()), names(HostingEnvironmentCodec.CODEC));
+        assertEquals(properties(new Artifact()), names(ArtifactCodec.CODEC));
+        assertEquals(properties(new Category()), names(CategoryCodec.CODEC));
+        assertEquals(properties(new UseCase()), names(UseCaseCodec.CODEC));
+        assertEquals(properties(new Score()), names(ScoreCodec.CODEC));
+        assertEquals(properties(new Commit()), names(CommitCodec.CODEC));
+        // only read, so only the properties with a setter
+        Set<String> hook = properties(Hook.builder().project(GitlabProject.builder().pathWithNamespace("a/b/c/iac").build()).build());
+        hook.removeIf(name -> !hasSetter(Hook.class, name));
+        assertEquals(hook, names(HookCodec.CODEC));
+    }
+
+    private static boolean hasSetter(Class<?> type, String property) {
+        StringBuilder setter = new StringBuilder("set");
+        for(String word : property.split("_")) {
+            setter.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return Arrays.stream(type.getMethods()).anyMatch(m -> m.getName().equals(setter.toString()) && m.getParameterCount() == 1);
+    }
+
+    /**
+     * The properties reflective JSON-B writes once every field of the instance has a value.
+     */
+    private Set<String> properties(Object value) throws Exception {
+        return new TreeSet<>(parse(reflective.toJson(populateAll(value))).keySet());
+    }
+
+    private static Set<String> names(ModelCodec<?> codec) {
+        Set<String> names = new TreeSet<>();
+        codec.names().forEach(names::add);
+        return names;
+    }
+
+    private static Engagement withTwinsInStep(Engagement engagement) {
+        engagement.setName("name");
+        engagement.setRegion("region");
+        engagement.setType("type");
+        return engagement;
+    }
+
+    private static JsonbConfig config() {
+        return new JsonbConfig().withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES);
+    }
+
+    private static JsonObject parse(String json) {
+        return Json.createReader(new StringReader(json)).readObject();
+    }
+
+    /**
+     * Gives every field of the instance and its super classes that is still unset a value of its type. Fields
+     * holding another class get an empty instance of it.
+     */
+    private static <T> T populateAll(T value) throws Exception {
+        populate(value);
+        for(Class<?> type = value.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for(Field field : type.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+
+                field.setAccessible(true);
+                if(field.get(value) != null) {
+                    continue;
+                }
+
+                Class<?> fieldType = field.getType();
+                if(fieldType == Set.class) {
+                    field.set(value, new HashSet<>(Set.of(field.getName())));
+                } else if(fieldType == Map.class) {
+                    field.set(value, new HashMap<>(Map.of(field.getName(), field.getName())));
+                } else if(fieldType.isEnum()) {
+                    field.set(value, fieldType.getEnumConstants()[0]);
+                } else {
+                    field.set(value, fieldType.getDeclaredConstructor().newInstance());
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Gives every unset String, Integer, int, Double, Boolean and boolean field of the instance and its super classes a value.
+     */
+    private static <T> T populate(T value) throws IllegalAccessException {
+        int i = 1;
+        for(Class<?> type = value.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for(Field field : type.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                field.setAccessible(true);
+                if(field.getType() == String.class && field.get(value) == null) {
+                    field.set(value, field.getName() + "-value");
+                } else if(field.getType() == Integer.class || field.getType() == int.class) {
+                    field.set(value, i++);
+                } else if(field.getType() == Double.class) {
+                    field.set(value, i++ + 0.25);
+                } else if(field.getType() == Boolean.class || field.getType() == boolean.class) {
+                    field.set(value, Boolean.TRUE);
+                } else if(field.getType() == List.class && field.get(value) == null) {
+                    field.set(value, List.of(field.getName()));
+                }
+            }
+        }
+        return value;
+    }
+}
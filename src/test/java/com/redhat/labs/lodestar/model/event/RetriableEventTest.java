@@ -1,5 +1,6 @@
 package com.redhat.labs.lodestar.model.event;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,4 +29,12 @@ class RetriableEventTest {
 
     }    
 
+    @Test
+    void testSubject() {
+
+        assertEquals("engagement 1", RetriableEvent.builder().engagement(Engagement.builder().uuid("1").build()).build().subject());
+        assertEquals("project 2", RetriableEvent.builder().projectId(2).build().subject());
+
+    }
+
 }
\ No newline at end of file
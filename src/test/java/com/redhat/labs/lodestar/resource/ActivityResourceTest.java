@@ -1,6 +1,7 @@
 package com.redhat.labs.lodestar.resource;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.timeout;
 
@@ -49,6 +50,19 @@ class ActivityResourceTest {
         Mockito.verify(activityClient, timeout(1000)).getPaginatedActivity(0, 1);
     }
 
+    @Test
+    void testPagingHeadersExposedCrossOrigin() {
+        List<Commit> activity = Collections.singletonList(Commit.builder().id("a1").build());
+        Mockito.when(activityClient.getPaginatedActivity(0, 1)).thenReturn(Response.ok().entity(activity)
+                .header("x-total-activity", 12).header("x-next-page", 1).build());
+
+        given().header("Origin", "http://lodestar.example.com").queryParam("page", "0").queryParam("pageSize", "1")
+                .when().auth().oauth2(validToken).get("/engagements/activity").then().statusCode(200)
+                .header("x-total-activity", "12").header("Access-Control-Allow-Origin", "http://lodestar.example.com")
+                .header("Access-Control-Expose-Headers", containsString("x-total-activity"))
+                .header("Access-Control-Expose-Headers", containsString("x-next-page"));
+    }
+
     @Test
     void testFetchActivityByUuid() {
         List<Commit> activity = Collections.singletonList(Commit.builder().id("a1").build());
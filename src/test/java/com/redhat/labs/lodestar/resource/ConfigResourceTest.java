@@ -4,10 +4,12 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.labs.lodestar.rest.client.ConfigApiClient;
+import com.redhat.labs.lodestar.utils.IntegrationTestHelper;
 import com.redhat.labs.lodestar.utils.ResourceLoader;
 import io.quarkus.test.common.http.TestHTTPEndpoint;
 import io.quarkus.test.junit.mockito.InjectMock;
@@ -104,7 +106,23 @@ class ConfigResourceTest {
     void testVoidCache() {
         String token = TokenUtils.generateTokenString("/JwtClaimsReader.json");
 
+        Mockito.when(configApiClient.getRegionOptions()).thenReturn(Map.of("region1", "Region 1"));
         given().when().auth().oauth2(token).put("/rbac/cache").then().statusCode(200);
+        given().when().auth().oauth2(VALID_TOKEN).get("/region/options").then().statusCode(200)
+                .body("region1", is("Region 1"));
+    }
+
+    @Test
+    void testVoidCacheKeepsConfigWhenReloadFails() {
+        String token = TokenUtils.generateTokenString("/JwtClaimsReader.json");
+
+        Mockito.when(configApiClient.getRegionOptions()).thenReturn(Map.of("region1", "Region 1"));
+        IntegrationTestHelper.reloadConfig();
+
+        Mockito.when(configApiClient.getPermission()).thenThrow(new WebApplicationException(503));
+        given().when().auth().oauth2(token).put("/rbac/cache").then().statusCode(200);
+        given().when().auth().oauth2(VALID_TOKEN).get("/region/options").then().statusCode(200)
+                .body("region1", is("Region 1"));
     }
 
     @Test
@@ -112,6 +130,7 @@ class ConfigResourceTest {
         String regions = ResourceLoader.load("config-region-options.json");
         Map<String, String> regionMap = om.readValue(regions, Map.class);
         Mockito.when(configApiClient.getRegionOptions()).thenReturn(regionMap);
+        IntegrationTestHelper.reloadConfig();
         given().when().auth().oauth2(VALID_TOKEN).get("/region/options").then().statusCode(200)
                 .body("$", Matchers.hasKey("region1"))
                 .body("$", Matchers.hasKey("region2"));
@@ -122,6 +141,7 @@ class ConfigResourceTest {
         String artifacts = ResourceLoader.load("config-artifact-options.json");
         Map<String, String> artifactsMap = om.readValue(artifacts, Map.class);
         Mockito.when(configApiClient.getArtifactOptions()).thenReturn(artifactsMap);
+        IntegrationTestHelper.reloadConfig();
         given().when().auth().oauth2(VALID_TOKEN).get("/artifact/options").then().statusCode(200)
                 .body("$", Matchers.hasKey("doc"))
                 .body("$", Matchers.hasKey("paper"));
@@ -132,6 +152,7 @@ class ConfigResourceTest {
         String engagements = ResourceLoader.load("config-engagement-options.json");
         Map<String, String> engagementsMap = om.readValue(engagements, Map.class);
         Mockito.when(configApiClient.getEngagementOptions()).thenReturn(engagementsMap);
+        IntegrationTestHelper.reloadConfig();
         given().when().auth().oauth2(VALID_TOKEN).get("/engagement/options").then().statusCode(200)
                 .body("$", Matchers.hasKey("res"))
                 .body("$", Matchers.hasKey("training"));
@@ -142,6 +163,7 @@ class ConfigResourceTest {
         String participants = ResourceLoader.load("config-participant-options.json");
         Map<String, String> pariticipantsMap = om.readValue(participants, Map.class);
         Mockito.when(configApiClient.getParticipantOptions()).thenReturn(pariticipantsMap);
+        IntegrationTestHelper.reloadConfig();
         given().when().auth().oauth2(VALID_TOKEN).get("/participant/options").then().statusCode(200)
                 .body("$", Matchers.hasKey("arole"))
                 .body("$", Matchers.hasKey("brole"));
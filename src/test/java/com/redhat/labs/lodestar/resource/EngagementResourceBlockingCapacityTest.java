@@ -0,0 +1,44 @@
+package com.redhat.labs.lodestar.resource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.utils.DownstreamStubResource;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+@QuarkusTestResource(value = DownstreamStubResource.class, restrictToAnnotatedClass = true, initArgs = {
+        @ResourceArg(name = "downstream.executor.max.async", value = EngagementResourceCapacityTest.THREADS),
+        @ResourceArg(name = "quarkus.thread-pool.max-threads", value = EngagementResourceCapacityTest.WORKERS),
+        @ResourceArg(name = "downstream.nonblocking.enabled", value = "false") })
+class EngagementResourceBlockingCapacityTest extends EngagementResourceCapacityTest {
+
+    @Test
+    void testExecutorBoundsCapacity() throws Exception {
+        List<Long> latencies = load(ENGAGEMENT);
+
+        long max = latencies.get(latencies.size() - 1);
+        assertTrue(max >= BLOCKING_FLOOR_MS * 9 / 10, "max " + max + " ms is under the " + BLOCKING_FLOOR_MS + " ms the executor allows");
+    }
+
+    @Test
+    void testWorkersBoundParticipantCapacity() throws Exception {
+        assertWorkerBound(load(PARTICIPANTS));
+    }
+
+    @Test
+    void testWorkersBoundArtifactCapacity() throws Exception {
+        assertWorkerBound(load(ARTIFACTS));
+    }
+
+    private static void assertWorkerBound(List<Long> latencies) {
+        long max = latencies.get(latencies.size() - 1);
+        assertTrue(max >= WORKER_FLOOR_MS * 9 / 10, "max " + max + " ms is under the " + WORKER_FLOOR_MS + " ms the workers allow");
+    }
+}
@@ -0,0 +1,100 @@
+package com.redhat.labs.lodestar.resource;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.utils.DownstreamStubResource;
+import com.redhat.labs.lodestar.utils.TokenUtils;
+
+/**
+ * {@link #USERS} concurrent requests for the engagement, its participants or the artifact page, with real rest
+ * clients against WireMock stubs that each take {@link DownstreamStubResource#DELAY_MS} to answer. The downstream
+ * executor has {@link #THREADS} threads and the worker pool {@link #WORKERS}. Revalidation finds no HEAD stub, so
+ * every request composes the engagement again. The subclasses run it with and without
+ * downstream.nonblocking.enabled.
+ */
+abstract class EngagementResourceCapacityTest {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(EngagementResourceCapacityTest.class);
+
+    static final String TOKEN = TokenUtils.generateTokenString("/JwtClaimsWriter.json");
+    static final int USERS = 40;
+    static final String THREADS = "8";
+    static final String WORKERS = "4";
+
+    static final String ENGAGEMENT = "/engagements/" + DownstreamStubResource.UUID;
+    static final String PARTICIPANTS = "/engagements/participants/engagementUuid/" + DownstreamStubResource.UUID;
+    static final String ARTIFACTS = "/engagements/artifacts";
+
+    /**
+     * When every call holds an executor thread while it waits, the last of the requests cannot finish before all
+     * of their calls have had a turn on the executor.
+     */
+    static final long BLOCKING_FLOOR_MS = (long) USERS * DownstreamStubResource.CALLS * DownstreamStubResource.DELAY_MS
+            / Integer.parseInt(THREADS);
+
+    /**
+     * When a request holds its worker thread while its one downstream call waits, the last of the requests cannot
+     * finish before each has had a turn on a worker.
+     */
+    static final long WORKER_FLOOR_MS = (long) USERS * DownstreamStubResource.DELAY_MS / Integer.parseInt(WORKERS);
+
+    @BeforeEach
+    void warmUp() {
+        for(int i = 0; i < 5; i++) {
+            get(ENGAGEMENT);
+            get(PARTICIPANTS);
+            get(ARTIFACTS);
+        }
+    }
+
+    /**
+     * @param path the path every user asks for
+     * @return the latency of every request in ms, sorted
+     */
+    List<Long> load(String path) throws Exception {
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Callable<Long>> requests = new ArrayList<>();
+            for(int user = 0; user < USERS; user++) {
+                requests.add(() -> {
+                    long start = System.nanoTime();
+                    get(path);
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                });
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            for(Future<Long> request : users.invokeAll(requests)) {
+                latencies.add(request.get());
+            }
+            Collections.sort(latencies);
+
+            LOGGER.info("{} {} concurrent {}: p50 {} ms, p99 {} ms, max {} ms", getClass().getSimpleName(), USERS, path,
+                    percentile(latencies, 50), percentile(latencies, 99), latencies.get(latencies.size() - 1));
+            return latencies;
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get((int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+    }
+
+    static void get(String path) {
+        given().auth().oauth2(TOKEN).when().get(path).then().statusCode(200);
+    }
+}
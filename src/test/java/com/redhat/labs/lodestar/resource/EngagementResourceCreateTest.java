@@ -33,6 +33,7 @@ class EngagementResourceCreateTest extends IntegrationTestHelper {
     void setUp() {
         Map<String, List<String>> rbac = Collections.singletonMap("Residency", Collections.singletonList("writer"));
         Mockito.when(configApiClient.getPermission()).thenReturn(rbac);
+        IntegrationTestHelper.reloadConfig();
     }
 
     @Test
@@ -29,6 +29,7 @@ class EngagementResourceDeleteTest extends IntegrationTestHelper {
     void setUp() {
         Map<String, List<String>> rbac = Collections.singletonMap("Residency", Collections.singletonList("writer"));
         Mockito.when(configApiClient.getPermission()).thenReturn(rbac);
+        IntegrationTestHelper.reloadConfig();
     }
 
     @Test
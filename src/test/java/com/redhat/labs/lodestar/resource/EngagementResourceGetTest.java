@@ -5,6 +5,8 @@ import com.redhat.labs.lodestar.model.filter.ArtifactOptions;
 import com.redhat.labs.lodestar.rest.client.*;
 import com.redhat.labs.lodestar.utils.IntegrationTestHelper;
 import com.redhat.labs.lodestar.utils.TokenUtils;
+import io.quarkus.arc.Arc;
+import io.quarkus.cache.CacheManager;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
 import io.restassured.http.ContentType;
@@ -75,6 +77,57 @@ class EngagementResourceGetTest extends IntegrationTestHelper {
 
     }
 
+    @Test
+    void testGetEngagementWriteableFromCallerGroups() {
+
+        Mockito.when(configApiClient.getPermission()).thenReturn(Map.of("Residency", List.of("writer")));
+        IntegrationTestHelper.reloadConfig();
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(Engagement.builder().uuid("1234").type("Residency").build());
+
+        given()
+            .when()
+                .auth()
+                .oauth2(validToken)
+                .get("/engagements/1234")
+            .then()
+                .statusCode(200)
+                .body("writeable", equalTo(true));
+
+        given()
+            .when()
+                .auth()
+                .oauth2(TokenUtils.generateTokenString("/JwtClaimsReader.json"))
+                .get("/engagements/1234")
+            .then()
+                .statusCode(200)
+                .body("writeable", equalTo(false));
+    }
+
+    @Test
+    void testGetEngagementExcludedSectionsNotFetched() {
+
+        Engagement engagement = Engagement.builder().uuid("1234").type("Residency").customerName("Customer").projectName("Project").build();
+
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(engagement);
+
+        given()
+            .when()
+                .auth()
+                .oauth2(validToken)
+                .queryParam("exclude", "commits,status,artifacts,hosting_environments,engagement_users,engagement_categories")
+                .get("/engagements/1234")
+            .then()
+                .statusCode(200)
+                .body("uuid", equalTo("1234"));
+
+        Mockito.verify(engagementApiClient).getEngagement("1234");
+        Mockito.verify(activityApiClient, Mockito.never()).getActivityForUuid("1234");
+        Mockito.verify(artifactApiClient, Mockito.never()).getArtifacts(Mockito.any(ArtifactOptions.class));
+        Mockito.verify(participantApiClient, Mockito.never()).getParticipantsForEngagement("1234");
+        Mockito.verify(hostingEnvironmentApiClient, Mockito.never()).getHostingEnvironmentsByEngagementUuid("1234");
+        Mockito.verify(categoryApiClient, Mockito.never()).getCategories("1234");
+    }
+
     @Test
     void testGetEngagementDoesNotExist() {
 
@@ -91,6 +144,100 @@ class EngagementResourceGetTest extends IntegrationTestHelper {
 
     }
 
+    @Test
+    void testGetEngagementBatchUsesBulkQueries() {
+
+        Mockito.when(engagementApiClient.getEngagement("1")).thenReturn(Engagement.builder().uuid("1").type("Residency").build());
+        Mockito.when(engagementApiClient.getEngagement("2")).thenReturn(Engagement.builder().uuid("2").type("Residency").build());
+        Mockito.when(engagementApiClient.getEngagement("3")).thenThrow(new WebApplicationException(404));
+
+        List<HostingEnvironment> hes = List.of(HostingEnvironment.builder().engagementUuid("1").environmentName("one").build(),
+                HostingEnvironment.builder().engagementUuid("2").environmentName("two").build());
+        Mockito.when(hostingEnvironmentApiClient.getHostingEnvironments(Set.of("1", "2", "3"), 0, 500))
+                .thenReturn(Response.ok(hes).build());
+        List<EngagementUser> users = List.of(EngagementUser.builder().engagementUuid("2").email("kevin@rh.com").build());
+        Mockito.when(participantApiClient.getParticipants(Set.of("1", "2", "3"), 0, 500))
+                .thenReturn(Response.ok(users).build());
+
+        given()
+            .when()
+                .auth()
+                .oauth2(TokenUtils.generateTokenString("/JwtClaimsReader.json"))
+                .contentType(ContentType.JSON)
+                .body("[\"1\", \"2\", \"3\"]")
+                .queryParam("include", "hosting_environments,engagement_users")
+                .post("/engagements/batch")
+            .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].uuid", equalTo("1"))
+                .body("[0].hosting_environments[0].environment_name", equalTo("one"))
+                .body("[0].engagement_users.size()", equalTo(0))
+                .body("[1].hosting_environments[0].environment_name", equalTo("two"))
+                .body("[1].engagement_users[0].email", equalTo("kevin@rh.com"));
+
+        Mockito.verify(hostingEnvironmentApiClient).getHostingEnvironments(Set.of("1", "2", "3"), 0, 500);
+        Mockito.verify(participantApiClient).getParticipants(Set.of("1", "2", "3"), 0, 500);
+        Mockito.verify(hostingEnvironmentApiClient, Mockito.never()).getHostingEnvironmentsByEngagementUuid(Mockito.anyString());
+        Mockito.verify(participantApiClient, Mockito.never()).getParticipantsForEngagement(Mockito.anyString());
+        Mockito.verify(artifactApiClient, Mockito.never()).getArtifacts(Mockito.any(ArtifactOptions.class));
+        Mockito.verify(activityApiClient, Mockito.never()).getActivityForUuid(Mockito.anyString());
+    }
+
+    @Test
+    void testGetRecentEngagementsHydratedInBulk() {
+        // the page is cached per region set and this test runs again from EngagementResourceTest
+        Arc.container().instance(CacheManager.class).get().getCache("recent-engagements").ifPresent(cache -> cache.invalidateAll().await().indefinitely());
+
+        Mockito.when(activityApiClient.getLatestActivity(0, 5, Set.of("na"))).thenReturn(List.of("2", "1"));
+        Mockito.when(engagementApiClient.getEngagement("1")).thenReturn(Engagement.builder().uuid("1").type("Residency").build());
+        Mockito.when(engagementApiClient.getEngagement("2")).thenReturn(Engagement.builder().uuid("2").type("Residency").build());
+        Mockito.when(hostingEnvironmentApiClient.getHostingEnvironments(Mockito.anySet(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(Response.ok(Collections.emptyList()).build());
+        Mockito.when(participantApiClient.getParticipants(Mockito.anySet(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(Response.ok(Collections.emptyList()).build());
+
+        given()
+            .when()
+                .auth()
+                .oauth2(validToken)
+                .queryParam("perPage", 5)
+                .queryParam("sortFields", "last_update")
+                .queryParam("regions", "na")
+                .get("/engagements")
+            .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].uuid", equalTo("2"))
+                .body("[1].uuid", equalTo("1"));
+
+        Mockito.verify(hostingEnvironmentApiClient).getHostingEnvironments(Set.of("2", "1"), 0, 500);
+        Mockito.verify(participantApiClient).getParticipants(Set.of("2", "1"), 0, 500);
+        Mockito.verify(hostingEnvironmentApiClient, Mockito.never()).getHostingEnvironmentsByEngagementUuid(Mockito.anyString());
+        Mockito.verify(participantApiClient, Mockito.never()).getParticipantsForEngagement(Mockito.anyString());
+    }
+
+    @Test
+    void testGetEngagementBatchTooLarge() {
+
+        List<String> uuids = new ArrayList<>();
+        for(int i = 0; i < 101; i++) {
+            uuids.add(String.valueOf(i));
+        }
+
+        given()
+            .when()
+                .auth()
+                .oauth2(validToken)
+                .contentType(ContentType.JSON)
+                .body(quarkusJsonb.toJson(uuids))
+                .post("/engagements/batch")
+            .then()
+                .statusCode(400);
+
+        Mockito.verify(engagementApiClient, Mockito.never()).getEngagement(Mockito.anyString());
+    }
+
     @Test
     void testGetEngagementsSuccessNoEngagements() {
 
@@ -3,6 +3,7 @@ package com.redhat.labs.lodestar.resource;
 import com.redhat.labs.lodestar.model.Engagement;
 import com.redhat.labs.lodestar.rest.client.ConfigApiClient;
 import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+import com.redhat.labs.lodestar.utils.IntegrationTestHelper;
 import com.redhat.labs.lodestar.utils.TokenUtils;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
@@ -46,6 +47,7 @@ class EngagementResourceJwtTest {
     void setUp() {
         Map<String, List<String>> rbac = Collections.singletonMap("Residency", Collections.singletonList("writer"));
         Mockito.when(configApiClient.getPermission()).thenReturn(rbac);
+        IntegrationTestHelper.reloadConfig();
     }
 
     @ParameterizedTest
@@ -0,0 +1,89 @@
+package com.redhat.labs.lodestar.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.utils.DownstreamStubResource;
+import com.redhat.labs.lodestar.utils.TokenUtils;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Real rest clients against WireMock stubs that each take {@link DownstreamStubResource#DELAY_MS} to answer. The
+ * downstream executor is kept small so that a handful of concurrent requests saturate it.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = DownstreamStubResource.class, restrictToAnnotatedClass = true, initArgs = {
+        @ResourceArg(name = "downstream.executor.max.async", value = "4"),
+        @ResourceArg(name = "downstream.executor.max.queued", value = "2") })
+class EngagementResourceLatencyTest {
+
+    static final String TOKEN = TokenUtils.generateTokenString("/JwtClaimsWriter.json");
+
+    @Inject
+    EngagementService engagementService;
+
+    @BeforeEach
+    void warmUp() {
+        getEngagement();
+    }
+
+    @Test
+    void testComposedInAboutTheSlowestCall() {
+        long start = System.currentTimeMillis();
+        getEngagement();
+        long elapsed = System.currentTimeMillis() - start;
+
+        long sequential = (long) DownstreamStubResource.CALLS * DownstreamStubResource.DELAY_MS;
+        assertTrue(elapsed < sequential * 2 / 3, elapsed + " ms is not well under the " + sequential + " ms of calling one after another");
+    }
+
+    @Test
+    void testComposedOffARequestThread() {
+        Engagement engagement = engagementService.getEngagement(DownstreamStubResource.UUID, EngagementSection.all());
+
+        assertEquals(DownstreamStubResource.UUID, engagement.getUuid());
+        assertEquals("green", engagement.getStatus().getStatus());
+        assertEquals(0, engagement.getArtifacts().size());
+    }
+
+    @Test
+    void testBurstBeyondExecutorCapacitySucceeds() throws Exception {
+        int requests = 10;
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for(int i = 0; i < requests; i++) {
+                statuses.add(clients.submit(EngagementResourceLatencyTest::getEngagement));
+            }
+
+            for(Future<Integer> status : statuses) {
+                assertEquals(200, status.get());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    static int getEngagement() {
+        return given().auth().oauth2(TOKEN).when().get("/engagements/" + DownstreamStubResource.UUID)
+                .then().statusCode(200).extract().statusCode();
+    }
+}
@@ -0,0 +1,83 @@
+package com.redhat.labs.lodestar.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+import com.redhat.labs.lodestar.service.EngagementService;
+import com.redhat.labs.lodestar.service.HostingService;
+import com.redhat.labs.lodestar.utils.DownstreamStubResource;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+@QuarkusTestResource(value = DownstreamStubResource.class, restrictToAnnotatedClass = true, initArgs = {
+        @ResourceArg(name = "downstream.executor.max.async", value = EngagementResourceCapacityTest.THREADS),
+        @ResourceArg(name = "quarkus.thread-pool.max-threads", value = EngagementResourceCapacityTest.WORKERS),
+        @ResourceArg(name = "downstream.nonblocking.enabled", value = "true") })
+class EngagementResourceNonBlockingCapacityTest extends EngagementResourceCapacityTest {
+
+    @Inject
+    EngagementService engagementService;
+
+    @Inject
+    HostingService hostingService;
+
+    @Test
+    void testExecutorDoesNotBoundCapacity() throws Exception {
+        List<Long> latencies = load(ENGAGEMENT);
+
+        long p99 = percentile(latencies, 99);
+        assertTrue(p99 < BLOCKING_FLOOR_MS / 3, "p99 " + p99 + " ms is not well under the " + BLOCKING_FLOOR_MS + " ms of the blocking calls");
+    }
+
+    @Test
+    void testWorkersDoNotBoundParticipantCapacity() throws Exception {
+        assertNotWorkerBound(load(PARTICIPANTS));
+    }
+
+    @Test
+    void testWorkersDoNotBoundArtifactCapacity() throws Exception {
+        assertNotWorkerBound(load(ARTIFACTS));
+    }
+
+    @Test
+    void testRefreshAnswered() {
+        long start = System.currentTimeMillis();
+        hostingService.refresh("test").await().indefinitely();
+
+        // a refresh that failed fast would be logged and dropped
+        assertTrue(System.currentTimeMillis() - start >= DownstreamStubResource.DELAY_MS);
+    }
+
+    @Test
+    void testComposedWithoutBlocking() {
+        Engagement engagement = engagementService.getEngagementAsync(DownstreamStubResource.UUID, EngagementSection.all())
+                .await().indefinitely();
+
+        assertEquals(DownstreamStubResource.UUID, engagement.getUuid());
+        assertEquals("green", engagement.getStatus().getStatus());
+        assertEquals(0, engagement.getArtifacts().size());
+        assertEquals(0, engagement.getHostingEnvironments().size());
+    }
+
+    @Test
+    void testUnknownEngagementNotFound() {
+        given().auth().oauth2(TOKEN).when().get("/engagements/unknown").then().statusCode(404);
+    }
+
+    private static void assertNotWorkerBound(List<Long> latencies) {
+        long p99 = percentile(latencies, 99);
+        assertTrue(p99 < WORKER_FLOOR_MS / 2, "p99 " + p99 + " ms is not well under the " + WORKER_FLOOR_MS + " ms of blocking workers");
+    }
+}
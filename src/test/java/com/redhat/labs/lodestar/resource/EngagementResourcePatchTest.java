@@ -0,0 +1,193 @@
+package com.redhat.labs.lodestar.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.*;
+
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.filter.ArtifactOptions;
+import com.redhat.labs.lodestar.rest.client.*;
+import com.redhat.labs.lodestar.utils.IntegrationTestHelper;
+import com.redhat.labs.lodestar.utils.TokenUtils;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+
+@QuarkusTest
+class EngagementResourcePatchTest extends IntegrationTestHelper {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @InjectMock
+    @RestClient
+    HostingEnvironmentApiClient hostingEnvironmentApiClient;
+
+    @InjectMock
+    @RestClient
+    ParticipantApiClient participantApiClient;
+
+    @InjectMock
+    @RestClient
+    CategoryApiClient categoryApiClient;
+
+    @InjectMock
+    @RestClient
+    ActivityApiClient activityApiClient;
+
+    static String validToken = TokenUtils.generateTokenString("/JwtClaimsWriter.json");
+    static String lastUpdate = "2021-04-08T00:00:00.000Z";
+
+    Engagement existing;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> rbac = Map.of("Residency", List.of("writer"), "Dojo", List.of("writer"));
+        Mockito.when(configApiClient.getPermission()).thenReturn(rbac);
+        IntegrationTestHelper.reloadConfig();
+
+        existing = Engagement.builder().uuid("1234").customerName("Customer").projectName("Project").type("Residency")
+                .description("before").lastUpdate(lastUpdate).build();
+        existing.setName("Project");
+        existing.setRegion("na");
+        existing.setType("Residency");
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "name,NewName", "project_name,NewName", "region,emea", "engagement_region,emea", "type,Dojo",
+            "engagement_type,Dojo" })
+    void testPatchLegacyMirroredProperty(String property, String value) {
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+        Mockito.when(engagementApiClient.updateEngagement(Mockito.any(Engagement.class))).thenReturn(Response.ok().build());
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"%s\": \"%s\", \"last_update\": \"%s\"}", property, value, lastUpdate))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(200);
+
+        Mockito.verify(engagementApiClient).updateEngagement(Mockito.argThat(e -> List.of(value, value)
+                .equals(twins(e, property))));
+    }
+
+    private static List<String> twins(Engagement engagement, String property) {
+        if(property.contains("name")) {
+            return Arrays.asList(engagement.getName(), engagement.getProjectName());
+        }
+        if(property.contains("region")) {
+            return Arrays.asList(engagement.getRegion(), engagement.getEngagementRegion());
+        }
+        return Arrays.asList(engagement.getType(), engagement.getEngagementType());
+    }
+
+    @Test
+    void testPatchEngagementFieldOnlyCallsEngagementService() {
+        Engagement updated = existing.toBuilder().description("after").lastUpdate("2021-04-09T00:00:00.000Z").build();
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing).thenReturn(updated);
+        List<Object> sectionsSent = new ArrayList<>();
+        Mockito.when(engagementApiClient.updateEngagement(Mockito.any(Engagement.class))).thenAnswer(i -> {
+            Engagement sent = i.getArgument(0);
+            sectionsSent.addAll(Arrays.asList(sent.getArtifacts(), sent.getHostingEnvironments(),
+                    sent.getEngagementUsers(), sent.getCategories()));
+            return Response.ok().build();
+        });
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"description\": \"after\", \"last_update\": \"%s\"}", lastUpdate))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(200)
+                .body("description", equalTo("after"))
+                .body("customer_name", equalTo("Customer"))
+                .body("last_update", equalTo("2021-04-09T00:00:00.000Z"));
+
+        Mockito.verify(engagementApiClient).updateEngagement(Mockito.argThat(e -> "after".equals(e.getDescription())
+                && "Customer".equals(e.getCustomerName())));
+        assertEquals(Arrays.asList(null, null, null, null), sectionsSent, "sections not sent to the engagement service");
+        Mockito.verify(engagementApiClient, Mockito.never()).registerUpdate(Mockito.anyString());
+        Mockito.verifyNoInteractions(hostingEnvironmentApiClient, participantApiClient, categoryApiClient, activityApiClient, artifactClient);
+    }
+
+    @Test
+    void testPatchArtifactsOnlyCallsArtifactService() {
+        List<Artifact> artifacts = List.of(Artifact.builder().uuid("a1").title("new").build());
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+        Mockito.when(artifactClient.getArtifacts(Mockito.any(ArtifactOptions.class)))
+                .thenReturn(Response.ok(Collections.emptyList()).build())
+                .thenReturn(Response.ok(artifacts).build());
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"artifacts\": [{\"uuid\": \"a1\", \"title\": \"new\"}], \"last_update\": \"%s\"}", lastUpdate))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(200)
+                .body("artifacts.size()", equalTo(1))
+                .body("artifacts[0].title", equalTo("new"));
+
+        Mockito.verify(artifactClient).updateArtifacts(Mockito.eq("1234"), Mockito.any(), Mockito.eq(artifacts), Mockito.any(), Mockito.any());
+        Mockito.verify(engagementApiClient).registerUpdate("1234");
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+        Mockito.verifyNoInteractions(hostingEnvironmentApiClient, participantApiClient, categoryApiClient, activityApiClient);
+    }
+
+    @Test
+    void testPatchWithoutLastUpdate() {
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body("{\"description\": \"after\"}")
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(400);
+
+        Mockito.verify(engagementApiClient, Mockito.never()).getEngagement("1234");
+    }
+
+    @Test
+    void testPatchOutOfSyncLastUpdate() {
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+        String stale = Instant.parse(lastUpdate).minusSeconds(1L).toString();
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"description\": \"after\", \"last_update\": \"%s\"}", stale))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(409);
+
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+    }
+
+    @Test
+    void testPatchToTypeWithoutWriteAccess() {
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"type\": \"DO\", \"last_update\": \"%s\"}", lastUpdate))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(403);
+
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+    }
+
+    @Test
+    void testPatchInvalidName() {
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+
+        given().when().auth().oauth2(validToken).contentType(MERGE_PATCH)
+                .body(String.format("{\"customer_name\": \" x\", \"last_update\": \"%s\"}", lastUpdate))
+                .patch("/engagements/1234")
+            .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,126 @@
+package com.redhat.labs.lodestar.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.labs.lodestar.utils.DownstreamStubResource;
+import com.redhat.labs.lodestar.utils.TokenUtils;
+
+import io.quarkus.cache.CacheManager;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * The recent-activity page (perPage=5, sortFields=last_update) under 50 concurrent users, with real rest clients
+ * against WireMock stubs that each take {@link DownstreamStubResource#DELAY_MS} to answer. Every user asks for the
+ * page {@link #ROUNDS} times and the p50 and p99 of all requests are logged. The executor and connection pools
+ * have their production sizes.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = DownstreamStubResource.class, restrictToAnnotatedClass = true)
+class EngagementResourceRecentLoadTest {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(EngagementResourceRecentLoadTest.class);
+
+    static final String TOKEN = TokenUtils.generateTokenString("/JwtClaimsWriter.json");
+    static final int USERS = 50;
+    static final int ROUNDS = 4;
+
+    /**
+     * The old shortcut composed the five engagements one after another. Each took the engagement call and then the
+     * status call, after the latest activity call, so one page took at least this long with no load at all.
+     */
+    static final long SEQUENTIAL_MS = DownstreamStubResource.DELAY_MS * (1 + 2L * DownstreamStubResource.RECENT.size());
+
+    @Inject
+    CacheManager cacheManager;
+
+    @BeforeEach
+    void warmUp() {
+        for(int i = 0; i < 10; i++) {
+            getRecent("warmup-" + i);
+        }
+        cacheManager.getCache("recent-engagements").ifPresent(cache -> cache.invalidateAll().await().indefinitely());
+    }
+
+    @Test
+    void testSharedRegionsP99() throws Exception {
+        List<Long> latencies = load(request -> "na");
+
+        // the first round finds the cache empty and all 50 users wait on the same hydration
+        long p99 = percentile(latencies, 99);
+        assertTrue(p99 < 2 * SEQUENTIAL_MS, "p99 " + p99 + " ms is not under twice the " + SEQUENTIAL_MS + " ms of one sequential page");
+    }
+
+    @Test
+    void testEveryRequestUncachedP99() throws Exception {
+        // a region set of its own for every request, so each one hydrates the page
+        List<Long> latencies = load(request -> "region-" + request);
+
+        long p50 = percentile(latencies, 50);
+        assertTrue(p50 >= DownstreamStubResource.DELAY_MS * 3, "p50 " + p50 + " ms is too fast to have hydrated the page");
+    }
+
+    /**
+     * @param regions the region of each request, by its number
+     * @return the latency of every request in ms, sorted
+     */
+    private List<Long> load(IntFunction<String> regions) throws Exception {
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Callable<List<Long>>> sessions = new ArrayList<>();
+            for(int user = 0; user < USERS; user++) {
+                int first = user * ROUNDS;
+                sessions.add(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    for(int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        getRecent(regions.apply(first + round));
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    return latencies;
+                });
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            for(Future<List<Long>> session : users.invokeAll(sessions)) {
+                latencies.addAll(session.get());
+            }
+            Collections.sort(latencies);
+
+            LOGGER.info("{} users x {} rounds: p50 {} ms, p99 {} ms, max {} ms", USERS, ROUNDS,
+                    percentile(latencies, 50), percentile(latencies, 99), latencies.get(latencies.size() - 1));
+            return latencies;
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get((int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+    }
+
+    private static void getRecent(String region) {
+        given().auth().oauth2(TOKEN).queryParam("perPage", 5).queryParam("sortFields", "last_update")
+                .queryParam("regions", region).when().get("/engagements").then().statusCode(200)
+                .body("$", hasSize(DownstreamStubResource.RECENT.size()));
+    }
+}
@@ -62,6 +62,7 @@ class EngagementResourceUpdateTest extends IntegrationTestHelper {
     void setUp() {
         Map<String, List<String>> rbac = Collections.singletonMap("Residency", Collections.singletonList("writer"));
         Mockito.when(configApiClient.getPermission()).thenReturn(rbac);
+        IntegrationTestHelper.reloadConfig();
     }
     
     @Test
@@ -349,6 +350,43 @@ class EngagementResourceUpdateTest extends IntegrationTestHelper {
 
     }
 
+    @Test
+    void testPutEngagementWithInvalidRoleWritesNothing() {
+
+        List<HostingEnvironment> hes = Collections.singletonList(HostingEnvironment.builder().ocpSubDomain("sub").build());
+        Set<EngagementUser> users = Set.of(EngagementUser.builder().email("bs@example.com").firstName("bill")
+                .lastName("smith").role("chef").build());
+        Engagement toUpdate = Engagement.builder().uuid("1234").customerName("Customer").projectName("Project").type("Residency")
+                .description("changed").hostingEnvironments(hes).engagementUsers(users).lastUpdate(lastUpdate).build();
+        Engagement existing = Engagement.builder().uuid("1234").customerName("Customer").projectName("Project").type("Residency")
+                .lastUpdate(lastUpdate).build();
+
+        Mockito.when(configApiClient.getParticipantOptions("Residency")).thenReturn(Map.of("dev", "Developer"));
+        IntegrationTestHelper.reloadConfig();
+        Mockito.when(engagementApiClient.getEngagement("1234")).thenReturn(existing);
+        Mockito.when(artifactApiClient.getArtifacts(Mockito.any(ArtifactOptions.class))).thenReturn(Response.ok(Collections.emptyList()).build());
+
+        String body = quarkusJsonb.toJson(toUpdate);
+
+        given()
+            .when()
+                .auth()
+                .oauth2(validToken)
+                .body(body)
+                .contentType(ContentType.JSON)
+                .put("/engagements/1234")
+            .then()
+                .statusCode(400)
+                .body("lodestarMessage", equalTo("Participant bs@example.com has invalid role chef."));
+
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+        Mockito.verify(hostingEnvironmentApiClient, Mockito.never()).updateHostingEnvironments(Mockito.anyString(),
+                Mockito.anyList(), Mockito.any(), Mockito.any());
+        Mockito.verify(participantApiClient, Mockito.never()).updateParticipants(Mockito.anyString(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.anySet());
+        Mockito.verify(engagementApiClient, Mockito.never()).registerUpdate(Mockito.anyString());
+    }
+
     @Test
     void retryGitlabEngagement() {
         Engagement engagement = Engagement.builder().uuid("1234").customerName("Customer").projectName("Project").type("Residency").build();
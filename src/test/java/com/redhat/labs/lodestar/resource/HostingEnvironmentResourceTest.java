@@ -2,6 +2,7 @@ package com.redhat.labs.lodestar.resource;
 
 import com.redhat.labs.lodestar.model.HostingEnvironment;
 import com.redhat.labs.lodestar.rest.client.HostingEnvironmentApiClient;
+import com.redhat.labs.lodestar.service.EngagementCache;
 import com.redhat.labs.lodestar.utils.TokenUtils;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
@@ -27,6 +28,9 @@ class HostingEnvironmentResourceTest {
     @RestClient
     HostingEnvironmentApiClient hostingEnvironmentApiClient;
 
+    @InjectMock
+    EngagementCache engagementCache;
+
     @Test
     void testGetHostingEnvironments() {
 
@@ -105,5 +109,6 @@ class HostingEnvironmentResourceTest {
                 .body("[0].environment_name", equalTo("env1"))
                 .body(containsString("env-one"));
 
+        Mockito.verify(engagementCache).invalidate("engagement-uuid");
     }
 }
@@ -2,8 +2,11 @@ package com.redhat.labs.lodestar.resource;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.timeout;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
@@ -25,6 +29,7 @@ import org.mockito.Mockito;
 
 import com.redhat.labs.lodestar.model.Engagement;
 import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.service.EngagementCache;
 import com.redhat.labs.lodestar.utils.TokenUtils;
 
 import io.quarkus.test.junit.QuarkusTest;
@@ -43,6 +48,9 @@ class ParticipantResourceTest {
     @RestClient
     EngagementApiClient engagementApiClient;
 
+    @InjectMock
+    EngagementCache engagementCache;
+
     static String validToken;
 
     @BeforeAll
@@ -88,6 +96,18 @@ class ParticipantResourceTest {
 
         Mockito.verify(participantApiClient, timeout(1000)).getParticipants(euuids, 0, 100);
     }
+
+    @Test
+    void testGetParticipantsRelaysDownstreamBody() {
+        String body = "[{\"uuid\":\"11\",\"email\":\"particip@nt.com\",\"unmapped\":\"kept\"}]";
+        Mockito.when(participantApiClient.getParticipants(Set.of("relay"), 0, 100)).thenReturn(Response
+                .ok(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_JSON_TYPE)
+                .header("x-total-participants", 1).header("x-current-page", 1).header("x-internal", "secret").build());
+
+        given().queryParam("engagementUuids", "relay").when().auth().oauth2(validToken).get().then().statusCode(200)
+                .header("x-total-participants", "1").header("x-current-page", "1").header("x-internal", nullValue())
+                .body("[0].unmapped", equalTo("kept"));
+    }
     
     @Test
     void testGetEnabled() {
@@ -136,5 +156,7 @@ class ParticipantResourceTest {
 
         given().contentType(ContentType.JSON).body(participants).when().auth().oauth2(validToken)
                 .put("/engagementUuid/euuid").then().statusCode(200);
+
+        Mockito.verify(engagementCache).invalidate(uuid);
     }
 }
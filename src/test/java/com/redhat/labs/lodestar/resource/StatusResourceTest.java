@@ -93,13 +93,14 @@ class StatusResourceTest {
             .header("x-gitlab-token", "ttttt")
             .post("/status/hook")
         .then()
-            .statusCode(200);
+            .statusCode(202);
 
-        Mockito.verify(engagementApiClient).getEngagementByProject(8675309);
-        Mockito.verify(engagementApiClient).getEngagement("uuid1");
-        Mockito.verify(engagementStatusApiClient).updateEngagementStatus("uuid1");
+        Mockito.verify(engagementApiClient, Mockito.timeout(1000)).getEngagementByProject(8675309);
+        Mockito.verify(engagementStatusApiClient, Mockito.timeout(1000)).updateEngagementStatus("uuid1");
+        //engagement is re-warmed in the background
+        Mockito.verify(engagementApiClient, Mockito.timeout(1000)).getEngagement("uuid1");
         //Mockito.verify(engagementStatusApiClient).getEngagementStatus("uuid1");
-        Mockito.verify(activityApiClient).getActivityForUuid("uuid1");
+        Mockito.verify(activityApiClient, Mockito.timeout(1000)).getActivityForUuid("uuid1");
     } 
     
     @Test
@@ -114,10 +115,13 @@ class StatusResourceTest {
             .header("x-gitlab-token", "ttttt")
             .post("/status/hook")
         .then()
-            .statusCode(200);
+            .statusCode(202);
 
-        Mockito.verify(engagementApiClient).getEngagementByProject(8675309);
-        Mockito.verify(activityApiClient).postHook(Mockito.any(Hook.class), Mockito.eq("ttttt"));
+        Mockito.verify(engagementApiClient, Mockito.timeout(1000)).getEngagementByProject(8675309);
+        Mockito.verify(activityApiClient, Mockito.timeout(1000)).postHook(Mockito.any(Hook.class), Mockito.eq("ttttt"));
+        //engagement is re-read in the background
+        Mockito.verify(engagementApiClient, Mockito.timeout(1000)).getEngagement("uuid1");
+        Mockito.verify(activityApiClient, Mockito.timeout(1000)).getActivityForUuid("uuid1");
 
 //        verify(exactly(1), getRequestedFor(urlEqualTo("/api/activity/uuid/uuid1")));
 
@@ -0,0 +1,85 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.interceptor.InvocationContext;
+import javax.ws.rs.ProcessingException;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DownstreamMetricsInterceptorTest {
+
+    static final Tags TAGS = Tags.of("client", "EngagementApiClient", "downstream", "lodestar.engagements.api");
+
+    DownstreamMetricsInterceptor interceptor;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new DownstreamMetricsInterceptor();
+        interceptor.registry = registry;
+    }
+
+    @Test
+    void testPoolOfTheClientReported() throws Exception {
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(4);
+        DownstreamPool.register(EngagementApiClient.class, new DownstreamPool(connections));
+
+        InvocationContext context = context();
+        Mockito.when(context.proceed()).thenReturn("done");
+        interceptor.meter(context);
+
+        assertEquals(4, registry.get(DownstreamMetricsInterceptor.METRIC_NAME + ".pool.size").tags(TAGS).gauge().value());
+        assertEquals(0, registry.get(DownstreamMetricsInterceptor.METRIC_NAME + ".in.flight").tags(TAGS).gauge().value());
+        assertEquals(1, registry.get(DownstreamMetricsInterceptor.METRIC_NAME + ".calls").tags(TAGS)
+                .tag("outcome", "success").timer().count());
+        connections.shutdown();
+    }
+
+    @Test
+    void testFailedCallIsCounted() throws Exception {
+        InvocationContext context = context();
+        Mockito.when(context.proceed()).thenThrow(new ProcessingException("refused"));
+
+        assertThrows(ProcessingException.class, () -> interceptor.meter(context));
+
+        assertEquals(1, registry.get(DownstreamMetricsInterceptor.METRIC_NAME + ".calls").tags(TAGS)
+                .tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testNonBlockingCallTimedToCompletion() throws Exception {
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        InvocationContext context = context();
+        Mockito.when(context.proceed()).thenReturn(answer);
+
+        CompletableFuture<?> metered = (CompletableFuture<?>) interceptor.meter(context);
+
+        assertEquals(0, registry.find(DownstreamMetricsInterceptor.METRIC_NAME + ".calls").timers().size());
+
+        answer.completeExceptionally(new ProcessingException("reset"));
+
+        assertThrows(Exception.class, metered::join);
+        assertEquals(1, registry.get(DownstreamMetricsInterceptor.METRIC_NAME + ".calls").tags(TAGS)
+                .tag("outcome", "error").timer().count());
+    }
+
+    private InvocationContext context() throws NoSuchMethodException {
+        InvocationContext context = Mockito.mock(InvocationContext.class);
+        Mockito.when(context.getMethod()).thenReturn(EngagementApiClient.class.getMethod("getEngagement", String.class));
+        return context;
+    }
+}
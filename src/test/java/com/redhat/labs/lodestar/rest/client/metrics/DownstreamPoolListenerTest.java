@@ -0,0 +1,111 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkus.restclient.config.RestClientConfig;
+import io.quarkus.restclient.config.RestClientsConfig;
+
+class DownstreamPoolListenerTest {
+
+    static final String CONFIG_KEY = "test.api";
+
+    @RegisterRestClient(configKey = CONFIG_KEY)
+    interface TestClient {
+    }
+
+    @TempDir
+    Path dir;
+
+    RestClientsConfig clients;
+    RestClientConfig config;
+
+    @BeforeEach
+    void setUp() {
+        clients = new RestClientsConfig();
+        clients.readTimeout = 30000L;
+        clients.putClientConfig(TestClient.class, empty());
+        config = empty();
+        clients.putClientConfig(CONFIG_KEY, config);
+    }
+
+    @Test
+    void testQuarkusClientSettingsCopied() throws Exception {
+        Path trustStore = dir.resolve("trust.p12");
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, null);
+        try (OutputStream output = Files.newOutputStream(trustStore)) {
+            store.store(output, "secret".toCharArray());
+        }
+
+        config.connectionPoolSize = Optional.of(10);
+        config.connectTimeout = Optional.of(500L);
+        config.trustStore = Optional.of("file:" + trustStore);
+        config.trustStoreType = Optional.of("PKCS12");
+        config.trustStorePassword = Optional.of("secret");
+        config.hostnameVerifier = Optional.of(NoopHostnameVerifier.class.getName());
+        config.proxyAddress = Optional.of("proxy.example.com:3128");
+
+        ResteasyClientBuilder settings = DownstreamPoolListener.settings(TestClient.class, clients);
+
+        assertEquals(10, settings.getConnectionPoolSize());
+        assertEquals(500, settings.getConnectionTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(30000, settings.getReadTimeout(TimeUnit.MILLISECONDS));
+        assertNotNull(settings.getTrustStore());
+        assertTrue(settings.getHostnameVerifier() instanceof NoopHostnameVerifier);
+        assertEquals("proxy.example.com", settings.getDefaultProxyHostname());
+        assertEquals(3128, settings.getDefaultProxyPort());
+    }
+
+    @Test
+    void testDefaultsWithoutClientConfig() {
+        ResteasyClientBuilder settings = DownstreamPoolListener.settings(TestClient.class, clients);
+
+        assertEquals(DownstreamPoolListener.DEFAULT_POOL_SIZE, settings.getConnectionPoolSize());
+        assertNull(settings.getTrustStore());
+        assertNull(settings.getDefaultProxyHostname());
+    }
+
+    @Test
+    void testBadProxyAddressRejected() {
+        config.proxyAddress = Optional.of("proxy.example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> DownstreamPoolListener.settings(TestClient.class, clients));
+    }
+
+    private static RestClientConfig empty() {
+        RestClientConfig config = new RestClientConfig();
+        config.url = Optional.empty();
+        config.uri = Optional.empty();
+        config.connectionPoolSize = Optional.empty();
+        config.connectionTTL = Optional.empty();
+        config.connectTimeout = Optional.empty();
+        config.readTimeout = Optional.empty();
+        config.trustStore = Optional.empty();
+        config.trustStoreType = Optional.empty();
+        config.trustStorePassword = Optional.empty();
+        config.keyStore = Optional.empty();
+        config.keyStoreType = Optional.empty();
+        config.keyStorePassword = Optional.empty();
+        config.hostnameVerifier = Optional.empty();
+        config.proxyAddress = Optional.empty();
+        return config;
+    }
+}
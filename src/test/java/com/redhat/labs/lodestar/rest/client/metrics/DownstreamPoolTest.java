@@ -0,0 +1,81 @@
+package com.redhat.labs.lodestar.rest.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DownstreamPoolTest {
+
+    static final String METRIC_NAME = "test.downstream";
+    static final Tags TAGS = Tags.of("client", "TestClient");
+    static final HttpRoute ROUTE = new HttpRoute(new HttpHost("lodestar-engagements", 8080));
+
+    PoolingHttpClientConnectionManager connections;
+    DownstreamPool pool;
+    SimpleMeterRegistry registry;
+    ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(2);
+        connections.setDefaultMaxPerRoute(2);
+        pool = new DownstreamPool(connections);
+        registry = new SimpleMeterRegistry();
+        pool.bind(registry, METRIC_NAME, TAGS);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        pool.shutdown();
+    }
+
+    @Test
+    void testLeasesBeyondThePoolWait() throws Exception {
+        HttpClientConnection first = lease();
+        lease();
+
+        Future<HttpClientConnection> third = executor.submit(this::lease);
+        long deadline = System.currentTimeMillis() + 5000;
+        while(gauge(".pending") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, gauge(".pool.size"));
+        assertEquals(2, gauge(".leased"));
+        assertEquals(1, gauge(".pending"));
+        assertEquals(3, gauge(".in.flight"));
+
+        // as when the entity stream of a response is closed
+        pool.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+        third.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, gauge(".leased"));
+        assertEquals(0, gauge(".pending"));
+        assertEquals(3, registry.get(METRIC_NAME + ".lease.wait").tags(TAGS).timer().count());
+    }
+
+    private HttpClientConnection lease() throws Exception {
+        return pool.requestConnection(ROUTE, null).get(5, TimeUnit.SECONDS);
+    }
+
+    private double gauge(String name) {
+        return registry.get(METRIC_NAME + name).tags(TAGS).gauge().value();
+    }
+}
@@ -0,0 +1,90 @@
+package com.redhat.labs.lodestar.rest.filter;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.rest.client.StatusApiClient;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+
+@QuarkusTest
+class ResponseEncodingTest {
+
+    @InjectMock
+    @RestClient
+    StatusApiClient statusApiClient;
+
+    @Test
+    void testLargeBodyGzipped() {
+        Mockito.when(statusApiClient.getComponentStatus()).thenReturn(Response.ok(status(100)).build());
+
+        given()
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/status")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", is("gzip"))
+            .header("Vary", containsString("Accept-Encoding"))
+            .body("checks.size()", is(100));
+    }
+
+    @Test
+    void testSmallBodyNotGzipped() {
+        Mockito.when(statusApiClient.getComponentStatus()).thenReturn(Response.ok(status(1)).build());
+
+        given()
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/status")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", nullValue())
+            .body("checks.size()", is(1));
+    }
+
+    @Test
+    void testNotGzippedWhenNotAccepted() {
+        Mockito.when(statusApiClient.getComponentStatus()).thenReturn(Response.ok(status(100)).build());
+
+        given()
+            .config(RestAssuredConfig.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+            .header("Accept-Encoding", "identity")
+        .when()
+            .get("/status")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", nullValue())
+            .body("checks.size()", is(100));
+    }
+
+    @Test
+    void testCompactUnlessPrettyRequested() {
+        Mockito.when(statusApiClient.getComponentStatus()).thenReturn(Response.ok(status(1)).build());
+
+        given().when().get("/status").then().statusCode(200).body(not(containsString("\n")));
+        given().queryParam("pretty", true).when().get("/status").then().statusCode(200)
+                .body(containsString("\n")).body("checks.size()", is(1));
+    }
+
+    private String status(int checks) {
+        String all = IntStream.range(0, checks).mapToObj(i -> "{\"name\":\"component-" + i + "\",\"status\":\"UP\"}")
+                .collect(Collectors.joining(","));
+        return "{\"status\":\"UP\",\"checks\":[" + all + "]}";
+    }
+}
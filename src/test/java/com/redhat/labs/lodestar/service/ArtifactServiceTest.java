@@ -1,9 +1,15 @@
 package com.redhat.labs.lodestar.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,31 +18,39 @@ import org.mockito.Mockito;
 
 import com.redhat.labs.lodestar.model.Artifact;
 import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementArtifact;
+import com.redhat.labs.lodestar.model.filter.ArtifactOptions;
+import com.redhat.labs.lodestar.model.filter.ListFilterOptions;
 import com.redhat.labs.lodestar.rest.client.ArtifactApiClient;
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
 
 class ArtifactServiceTest {
 
     ArtifactService artifactService;
     
-    EngagementService engagementService;
+    EngagementSummaryIndex summaryIndex;
+    EngagementApiClient engagementClient;
     ArtifactApiClient artifactClient;
+    ConfigService configService;
     List<Artifact> artifacts;
     
     @BeforeEach
     void setUp() {
         artifactClient = Mockito.mock(ArtifactApiClient.class);
-        engagementService = Mockito.mock(EngagementService.class);
-        
+        engagementClient = Mockito.mock(EngagementApiClient.class);
+        configService = Mockito.mock(ConfigService.class);
+
         artifacts = Collections.emptyList();
-        Engagement engagement = Engagement.builder().artifacts(artifacts).build();
-        Mockito.when(engagementService.getByUuid(Mockito.eq("uuid1"))).thenReturn(engagement);
-        Mockito.when(engagementService.getByUuid(Mockito.eq("uuid2"))).thenThrow(new RuntimeException("test"));
-        Mockito.when(engagementService.getByUuid(Mockito.eq("uuid3"))).thenThrow(new WebApplicationException("test", 500));
         Mockito.when(artifactClient.updateArtifacts("uuid1", "ma", artifacts, "Mitch", "mitch@mitch.com")).thenReturn(Response.ok().build());
 
+        summaryIndex = new EngagementSummaryIndex();
+        summaryIndex.engagementApiClient = engagementClient;
+        summaryIndex.budgetBytes = 1024;
+
         artifactService = new ArtifactService();
         artifactService.artifactRestClient = artifactClient;
-        artifactService.engagementService = engagementService;
+        artifactService.summaryIndex = summaryIndex;
+        artifactService.configService = configService;
     }
     
     @Test
@@ -73,6 +87,35 @@ class ArtifactServiceTest {
         Mockito.verify(artifactClient, Mockito.never()).updateArtifacts("uuid3", "na", artifacts, "Mitch", "mitch@mitch.com");
     }
 
+    @Test
+    void testArtifactsDecoratedWithOneLookupPerEngagement() {
+        List<EngagementArtifact> page = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            page.add(EngagementArtifact.builder().uuid("a" + i).type("demo").engagementUuid("e" + (i % 3)).build());
+        }
+        page.add(EngagementArtifact.builder().uuid("orphan").type("demo").engagementUuid("gone").build());
+
+        Mockito.when(artifactClient.getArtifacts(Mockito.any(ArtifactOptions.class)))
+                .thenReturn(Response.ok(page).header("x-total-artifacts", page.size()).build());
+        Mockito.when(configService.getArtifactOptions()).thenReturn(Map.of("demo", "Demo"));
+        Mockito.when(engagementClient.getEngagement(Mockito.startsWith("e"))).then(i -> Engagement.builder()
+                .uuid(i.getArgument(0)).customerName("Customer " + i.getArgument(0)).projectName("Project").region("na").build());
+        Mockito.when(engagementClient.getEngagement("gone")).thenThrow(new WebApplicationException(404));
+
+        artifactService.getArtifacts(new ListFilterOptions(), null, null, null);
+        Response response = artifactService.getArtifacts(new ListFilterOptions(), null, null, null);
+
+        List<EngagementArtifact> decorated = response.readEntity(new GenericType<>(){});
+        assertEquals("Customer e1", decorated.get(1).getCustomerName());
+        assertEquals("na", decorated.get(2).getRegion());
+        assertEquals("Demo", decorated.get(0).getPrettyType());
+        assertNull(decorated.get(100).getCustomerName());
+
+        Mockito.verify(engagementClient, Mockito.times(3)).getEngagement(Mockito.startsWith("e"));
+        Mockito.verify(engagementClient, Mockito.times(2)).getEngagement("gone");
+        Mockito.verify(engagementClient, Mockito.times(5)).getEngagement(Mockito.anyString());
+    }
+
     @Test
     void testArtifactTypeCount() {
 
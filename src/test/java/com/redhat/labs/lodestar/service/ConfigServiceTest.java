@@ -0,0 +1,181 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.rest.client.ConfigApiClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConfigServiceTest {
+
+    ConfigService configService;
+    ConfigApiClient configApiClient;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        configApiClient = Mockito.mock(ConfigApiClient.class);
+        Mockito.when(configApiClient.getPermission()).thenReturn(Map.of("Residency", List.of("writer")));
+        Mockito.when(configApiClient.getEngagementOptions()).thenReturn(Map.of("Residency", "Residency", "DO", "Dojo"));
+        Mockito.when(configApiClient.getParticipantOptions("Residency")).thenReturn(Map.of("dev", "Developer"));
+        Mockito.when(configApiClient.getParticipantOptions("DO")).thenReturn(Map.of("coach", "Coach"));
+        Mockito.when(configApiClient.getRegionOptions()).thenReturn(Map.of("na", "North America"));
+
+        configService = new ConfigService();
+        configService.configApiClient = configApiClient;
+        configService.registry = registry = new SimpleMeterRegistry();
+        configService.snapshotEnabled = true;
+    }
+
+    @Test
+    void testReadsServedFromOneLoad() {
+        assertEquals(List.of("writer"), configService.getPermission("Residency"));
+        assertTrue(configService.getPermission("DO").isEmpty());
+        assertEquals("Dojo", configService.getEngagementOptions().get("DO"));
+        assertEquals("Coach", configService.getParticipantOptions("DO").get("coach"));
+        assertEquals("North America", configService.getRegionOptions().get("na"));
+
+        Mockito.verify(configApiClient).getPermission();
+        Mockito.verify(configApiClient).getEngagementOptions();
+        Mockito.verify(configApiClient).getParticipantOptions("DO");
+        Mockito.verify(configApiClient).getRegionOptions();
+    }
+
+    @Test
+    void testWritePermissionFollowsRbac() {
+        assertTrue(configService.isAllowedToWrite(Set.of("reader", "writer"), "Residency"));
+        assertFalse(configService.isAllowedToWrite(Set.of("reader", "writer"), "DO"));
+        assertFalse(configService.isAllowedToWrite(Set.of("writer"), null));
+
+        Mockito.when(configApiClient.getPermission()).thenReturn(Map.of("DO", List.of("writer")));
+        configService.invalidateCache();
+
+        assertFalse(configService.isAllowedToWrite(Set.of("reader", "writer"), "Residency"));
+        assertTrue(configService.isAllowedToWrite(Set.of("reader", "writer"), "DO"));
+    }
+
+    @Test
+    void testUnknownTypeFetchedOnce() {
+        Mockito.when(configApiClient.getParticipantOptions("Other")).thenReturn(Map.of("dev", "Developer"));
+
+        configService.getParticipantOptions("Other");
+        assertEquals("Developer", configService.getParticipantOptions("Other").get("dev"));
+
+        Mockito.verify(configApiClient).getParticipantOptions("Other");
+    }
+
+    @Test
+    void testInvalidateSwapsEverything() {
+        configService.getPermission("Residency");
+
+        Mockito.when(configApiClient.getPermission()).thenReturn(Map.of("DO", List.of("writer")));
+        Mockito.when(configApiClient.getParticipantOptions()).thenReturn(Map.of("base", "Base"));
+        configService.invalidateCache();
+
+        assertTrue(configService.getPermission("Residency").isEmpty());
+        assertEquals(List.of("writer"), configService.getPermission("DO"));
+        assertEquals("Base", configService.getParticipantOptions().get("base"));
+        Mockito.verify(configApiClient, Mockito.times(2)).getPermission();
+        Mockito.verify(configApiClient, Mockito.times(2)).getParticipantOptions();
+    }
+
+    @Test
+    void testFailedRefreshKeepsSnapshot() {
+        configService.onStart(null);
+
+        Mockito.when(configApiClient.getPermission()).thenThrow(new WebApplicationException(503));
+        configService.scheduledRefresh();
+
+        assertEquals(List.of("writer"), configService.getPermission("Residency"));
+        configService.invalidateCache();
+        assertEquals(List.of("writer"), configService.getPermission("Residency"));
+        assertEquals(2, registry.counter(ConfigService.METRIC_NAME + ".refresh.failed").count());
+    }
+
+    @Test
+    void testOptionsFetchedBeforeReloadNotAddedToIt() throws Exception {
+        configService.onStart(null);
+
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(configApiClient.getParticipantOptions("Other")).thenAnswer(i -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("dev", "Old Developer");
+        }).thenReturn(Map.of("dev", "Developer"));
+
+        Thread read = new Thread(() -> configService.getParticipantOptions("Other"));
+        read.start();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+        Thread reload = new Thread(configService::invalidateCache);
+        reload.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while(reload.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.BLOCKED, reload.getState());
+
+        release.countDown();
+        read.join(5000);
+        reload.join(5000);
+
+        assertEquals("Developer", configService.getParticipantOptions("Other").get("dev"));
+    }
+
+    @Test
+    void testReloadNotOverwrittenBySlowerScheduledRefresh() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(configApiClient.getPermission()).thenAnswer(i -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("Residency", List.of("writer"));
+        }).thenReturn(Map.of("DO", List.of("writer")));
+
+        Thread scheduled = new Thread(configService::scheduledRefresh);
+        scheduled.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Thread reload = new Thread(configService::invalidateCache);
+        reload.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while(reload.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.BLOCKED, reload.getState());
+
+        release.countDown();
+        scheduled.join(5000);
+        reload.join(5000);
+
+        assertTrue(configService.getPermission("Residency").isEmpty());
+        assertEquals(List.of("writer"), configService.getPermission("DO"));
+    }
+
+    @Test
+    void testDisabledReadsThrough() {
+        configService.snapshotEnabled = false;
+
+        configService.getPermission("Residency");
+        configService.getPermission("Residency");
+        configService.invalidateCache();
+
+        Mockito.verify(configApiClient, Mockito.times(2)).getPermission();
+        Mockito.verify(configApiClient, Mockito.never()).getEngagementOptions();
+    }
+}
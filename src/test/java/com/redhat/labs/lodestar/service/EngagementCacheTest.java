@@ -0,0 +1,103 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.model.Engagement;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EngagementCacheTest {
+
+    EngagementCache cache;
+    AtomicInteger loads;
+    Function<String, Engagement> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EngagementCache();
+        cache.enabled = true;
+        cache.maxWeight = 100;
+        cache.registry = new SimpleMeterRegistry();
+        cache.init();
+
+        loads = new AtomicInteger();
+        loader = uuid -> {
+            loads.incrementAndGet();
+            return Engagement.builder().uuid(uuid).lastUpdate("2021-01-01T00:00:00Z").build();
+        };
+    }
+
+    @Test
+    void testHitWhenLastUpdateUnchanged() {
+        cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+        Engagement second = cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals("1", second.getUuid());
+        assertEquals(1, cache.misses.count());
+        assertEquals(1, cache.hits.count());
+        assertEquals(1, cache.revalidations.count());
+    }
+
+    @Test
+    void testReloadWhenLastUpdateMoved() {
+        cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+        cache.get("1", uuid -> "2021-02-01T00:00:00Z", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stale.count());
+    }
+
+    @Test
+    void testReloadWhenRevalidationFails() {
+        cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+        cache.get("1", uuid -> {
+            throw new WebApplicationException(500);
+        }, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCallerGetsCopy() {
+        Engagement first = cache.get("1", uuid -> null, loader);
+        first.setWriteable(true);
+        Engagement second = cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+
+        assertNotSame(first, second);
+        assertEquals(null, second.getWriteable());
+    }
+
+    @Test
+    void testDegradedNotCached() {
+        cache.put(Engagement.builder().uuid("1").lastUpdate("2021-01-01T00:00:00Z").build());
+        cache.put(Engagement.builder().uuid("1").lastUpdate("2021-01-01T00:00:00Z").degraded(true).build());
+
+        assertFalse(cache.getIfPresent("1").isPresent(), "a degraded engagement replaces nothing and is not kept");
+
+        cache.get("2", uuid -> "2021-01-01T00:00:00Z", uuid -> Engagement.builder().uuid(uuid)
+                .lastUpdate("2021-01-01T00:00:00Z").degraded(true).build());
+        cache.get("2", uuid -> "2021-01-01T00:00:00Z", loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testDisabled() {
+        cache.enabled = false;
+        cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+        cache.get("1", uuid -> "2021-01-01T00:00:00Z", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,180 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+class EngagementCacheWarmupTest {
+
+    EngagementCacheWarmup warmup;
+    List<Long> delays = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        EngagementCache cache = new EngagementCache();
+        cache.enabled = true;
+        cache.maxWeight = 1000;
+        cache.registry = registry;
+        cache.init();
+
+        warmup = new EngagementCacheWarmup();
+        warmup.onStartup = true;
+        warmup.concurrency = 2;
+        warmup.ratePerSecond = 1000;
+        warmup.pageSize = 2;
+        warmup.readyPercent = 50;
+        warmup.registry = registry;
+        warmup.engagementCache = cache;
+        warmup.engagementApiClient = Mockito.mock(EngagementApiClient.class);
+        warmup.engagementService = Mockito.mock(EngagementService.class);
+        warmup.executor = ManagedExecutor.builder().propagated(ThreadContext.NONE).cleared(ThreadContext.ALL_REMAINING)
+                .build();
+        warmup.vertx = Mockito.mock(Vertx.class);
+        Mockito.when(warmup.vertx.setTimer(Mockito.anyLong(), Mockito.any())).thenAnswer(i -> {
+            delays.add(i.getArgument(0));
+            Handler<Long> handler = i.getArgument(1);
+            handler.handle((long) delays.size());
+            return (long) delays.size();
+        });
+        warmup.init();
+
+        List<Engagement> all = IntStream.range(0, 3).mapToObj(i -> Engagement.builder().uuid("e" + i).build())
+                .collect(Collectors.toList());
+        Mockito.when(warmup.engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.isNull(), Mockito.isNull(), Mockito.isNull())).thenAnswer(i -> {
+                    int page = i.getArgument(0);
+                    List<Engagement> pageOf = all.subList(Math.min(page * 2, 3), Math.min(page * 2 + 2, 3));
+                    return Response.ok(pageOf).header("x-total-engagements", "3").build();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmup.executor.shutdown();
+    }
+
+    @Test
+    void testWarmAllPages() throws Exception {
+        Mockito.when(warmup.engagementService.composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull()))
+                .thenAnswer(i -> Uni.createFrom().item(Engagement.builder().uuid(i.getArgument(0)).build()));
+
+        assertFalse(warmup.isReady());
+        assertTrue(warmup.warmUp());
+        awaitFinished();
+
+        assertEquals(3, warmup.getTotal());
+        assertEquals(3, warmup.getWarmed());
+        assertEquals(0, warmup.getFailed());
+        assertEquals(1.0, warmup.getProgress());
+        assertTrue(warmup.isReady());
+        assertTrue(warmup.engagementCache.getIfPresent("e2").isPresent());
+        Mockito.verify(warmup.engagementService, Mockito.times(3)).composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull());
+        assertEquals(List.of(2L, 1L), delays, "each batch waits its share of the rate on a timer");
+    }
+
+    @Test
+    void testLaterWarmUpKeepsThePodReady() throws Exception {
+        Mockito.when(warmup.engagementService.composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull()))
+                .thenAnswer(i -> Uni.createFrom().item(Engagement.builder().uuid(i.getArgument(0)).build()));
+        warmup.warmUp();
+        awaitFinished();
+
+        CompletableFuture<Engagement> composing = new CompletableFuture<>();
+        Mockito.when(warmup.engagementService.composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull()))
+                .thenAnswer(i -> Uni.createFrom().completionStage(composing));
+
+        assertTrue(warmup.warmUp(), "on demand, as PUT /engagements/refresh?cache=true does");
+        assertTrue(warmup.isRunning());
+        assertEquals(0, warmup.getProgress());
+        assertTrue(warmup.isReady());
+
+        composing.complete(Engagement.builder().uuid("e").build());
+        awaitFinished();
+    }
+
+    @Test
+    void testFailuresAreCounted() throws Exception {
+        Mockito.when(warmup.engagementService.composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull()))
+                .thenAnswer(i -> Uni.createFrom().failure(new WebApplicationException(500)));
+
+        warmup.warmUp();
+        awaitFinished();
+
+        assertEquals(0, warmup.getWarmed());
+        assertEquals(3, warmup.getFailed());
+        assertTrue(warmup.engagementCache.getIfPresent("e0").isEmpty());
+    }
+
+    @Test
+    void testNextBatchWaitsForAFreeSlot() throws Exception {
+        List<CompletableFuture<Engagement>> composing = new ArrayList<>();
+        Mockito.when(warmup.engagementService.composeEngagement(Mockito.anyString(), Mockito.any(), Mockito.isNull()))
+                .thenAnswer(i -> {
+                    CompletableFuture<Engagement> composed = new CompletableFuture<>();
+                    synchronized (composing) {
+                        composing.add(composed);
+                    }
+                    return Uni.createFrom().completionStage(composed);
+                });
+
+        warmup.warmUp();
+        Thread.sleep(200);
+
+        synchronized (composing) {
+            assertEquals(2, composing.size(), "no more than concurrency in flight");
+            composing.get(0).complete(Engagement.builder().uuid("e0").build());
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(composingCount(composing) < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        synchronized (composing) {
+            assertEquals(3, composing.size());
+            composing.forEach(c -> c.complete(Engagement.builder().uuid("e").build()));
+        }
+
+        awaitFinished();
+        assertEquals(3, warmup.getWarmed());
+    }
+
+    private int composingCount(List<CompletableFuture<Engagement>> composing) {
+        synchronized (composing) {
+            return composing.size();
+        }
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(warmup.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(warmup.isRunning());
+    }
+}
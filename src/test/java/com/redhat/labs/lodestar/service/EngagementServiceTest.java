@@ -1,23 +1,28 @@
 package com.redhat.labs.lodestar.service;
 
-import com.redhat.labs.lodestar.model.Engagement;
-import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.model.*;
 import com.redhat.labs.lodestar.rest.client.CategoryApiClient;
 import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
 import org.mockito.Mockito;
 
 import javax.inject.Inject;
 import javax.ws.rs.WebApplicationException;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 class EngagementServiceTest {
@@ -52,9 +57,9 @@ class EngagementServiceTest {
      void setUp() {
         String uuid = "uuid";
         Mockito.when(engagementApiClient.getEngagement(uuid)).thenReturn(Engagement.builder().uuid("uuid").lastUpdate(lastUpdate).build());
-        Mockito.when(hostingService.getHostingEnvironments(uuid)).thenReturn(Collections.emptyList());
-        Mockito.when(artifactService.getArtifacts(uuid)).thenReturn(Collections.emptyList());
-        Mockito.when(participantService.getParticipantsForEngagement(uuid)).thenReturn(Collections.emptyList());
+        Mockito.when(hostingService.getHostingEnvironments(Mockito.eq(uuid), Mockito.any())).thenReturn(Collections.emptyList());
+        Mockito.when(artifactService.getArtifacts(Mockito.eq(uuid), Mockito.any())).thenReturn(Collections.emptyList());
+        Mockito.when(participantService.getParticipantsForEngagement(Mockito.eq(uuid), Mockito.any())).thenReturn(Collections.emptyList());
         Mockito.when(configService.getParticipantOptions("Res")).thenReturn(Map.of("monkey", "Monkey", "giraffe", "Giraffe"));
         Mockito.when(categoryApiClient.getCategories(uuid)).thenReturn(Collections.emptyList());
         Mockito.when(activityService.getActivityForUuid(uuid)).thenReturn(Collections.emptyList());
@@ -65,7 +70,13 @@ class EngagementServiceTest {
         EngagementUser participant = EngagementUser.builder().email("kevin@rh.com").firstName("Kevin").lastName("RH").role("monkey").build();
         Engagement engagement = Engagement.builder().uuid("uuid").type("Res").lastUpdate(lastUpdate).engagementUsers(Set.of(participant)).build();
         engagementService.update(engagement);
-        Mockito.verify(participantService, Mockito.times(2)).getParticipantsForEngagement("uuid");
+        Mockito.verify(participantService, Mockito.times(1)).getParticipantsForEngagement(Mockito.eq("uuid"), Mockito.any());
+        Mockito.verify(participantService).updateParticipantsAndReload(Mockito.eq("uuid"), Mockito.isNull(), Mockito.isNull(),
+                Mockito.eq(Set.of(participant)), Mockito.any());
+        Mockito.verify(hostingService, Mockito.never()).updateAndReload(Mockito.anyString(), Mockito.anyList(), Mockito.any());
+        Mockito.verify(artifactService, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(categoryApiClient, Mockito.never()).updateCategories(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anySet());
+        Mockito.verify(engagementApiClient).registerUpdate("uuid");
     }
 
     @Test
@@ -78,6 +89,140 @@ class EngagementServiceTest {
         Map<String, String> body = ex.getResponse().readEntity(Map.class);
         assertEquals("Participant kevin@rh.com has invalid role Chef.", body.get("lodestarMessage"));
         assertEquals(400, ex.getResponse().getStatus());
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+        Mockito.verify(participantService, Mockito.never()).updateParticipantsAndReload(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anySet(), Mockito.any());
+    }
+
+    @Test
+    void testPartiallyInvalidUpdateWritesNothing() {
+        EngagementUser participant = EngagementUser.builder().email("kevin@rh.com").firstName("Kevin").lastName("RH").role("Chef").build();
+        List<HostingEnvironment> hes = List.of(HostingEnvironment.builder().environmentName("env").build());
+        Engagement engagement = Engagement.builder().uuid("uuid").type("Res").description("changed").lastUpdate(lastUpdate)
+                .hostingEnvironments(hes).artifacts(List.of(Artifact.builder().title("artifact").build()))
+                .categories(List.of(Category.builder().name("cat").build())).engagementUsers(Set.of(participant)).build();
+
+        WebApplicationException ex = assertThrows(WebApplicationException.class, () -> engagementService.update(engagement));
+
+        assertEquals(400, ex.getResponse().getStatus());
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+        Mockito.verify(hostingService, Mockito.never()).updateAndReload(Mockito.anyString(), Mockito.anyList(), Mockito.any());
+        Mockito.verify(artifactService, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(categoryApiClient, Mockito.never()).updateCategories(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anySet());
+        Mockito.verify(participantService, Mockito.never()).updateParticipantsAndReload(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anySet(), Mockito.any());
+        Mockito.verify(engagementApiClient, Mockito.never()).registerUpdate(Mockito.anyString());
+    }
+
+    @Test
+    void testUpdateWritesChangedSectionsConcurrently() {
+        long delay = 300;
+        List<HostingEnvironment> hes = List.of(HostingEnvironment.builder().environmentName("env").build());
+        List<Artifact> artifacts = List.of(Artifact.builder().title("artifact").build());
+        Engagement engagement = Engagement.builder().uuid("uuid").lastUpdate(lastUpdate)
+                .hostingEnvironments(hes).artifacts(artifacts).categories(List.of(Category.builder().name("cat").build())).build();
+
+        Mockito.when(hostingService.updateAndReload(Mockito.eq("uuid"), Mockito.eq(hes), Mockito.any()))
+                .thenAnswer(AdditionalAnswers.answersWithDelay(delay, i -> hes));
+        Mockito.doAnswer(AdditionalAnswers.answersWithDelay(delay, i -> null)).when(artifactService).update(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.when(categoryApiClient.updateCategories(Mockito.eq("uuid"), Mockito.any(), Mockito.any(), Mockito.anySet()))
+                .thenAnswer(AdditionalAnswers.answersWithDelay(delay, i -> null));
+
+        long start = System.currentTimeMillis();
+        Engagement updated = engagementService.update(engagement);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < delay * 3, "update took " + elapsed + "ms");
+        assertEquals(1, updated.getHostingEnvironments().size());
+        Mockito.verify(engagementApiClient).registerUpdate("uuid");
+        Mockito.verify(engagementApiClient, Mockito.never()).updateEngagement(Mockito.any());
+        Mockito.verify(participantService, Mockito.never()).updateParticipantsAndReload(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anySet(), Mockito.any());
+        Mockito.verify(activityService, Mockito.times(1)).getActivityForUuid("uuid");
+    }
+
+    @Test
+    void testGetEngagementCallsDownstreamConcurrently() {
+        long delay = 300;
+        String uuid = "slow";
+        Mockito.when(engagementApiClient.getEngagement(uuid)).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> Engagement.builder().uuid(uuid).lastUpdate(lastUpdate).build()));
+        Mockito.when(hostingService.getHostingEnvironments(Mockito.eq(uuid), Mockito.any())).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> List.of(HostingEnvironment.builder().environmentName("env").build())));
+        Mockito.when(artifactService.getArtifacts(Mockito.eq(uuid), Mockito.any())).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> List.of(Artifact.builder().title("artifact").build())));
+        Mockito.when(participantService.getParticipantsForEngagement(Mockito.eq(uuid), Mockito.any())).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> List.of(EngagementUser.builder().email("kevin@rh.com").build())));
+        Mockito.when(categoryApiClient.getCategories(uuid)).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> List.of(Category.builder().name("cat").build())));
+        Mockito.when(activityService.getActivityForUuid(uuid)).thenAnswer(AdditionalAnswers.answersWithDelay(delay,
+                i -> List.of(Commit.builder().id("c1").build())));
+
+        long start = System.currentTimeMillis();
+        Engagement engagement = engagementService.getEngagement(uuid);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < delay * 3, "composition took " + elapsed + "ms");
+        assertEquals(1, engagement.getHostingEnvironments().size());
+        assertEquals(1, engagement.getArtifacts().size());
+        assertEquals(1, engagement.getEngagementUsers().size());
+        assertEquals(1, engagement.getCategories().size());
+        assertEquals(1, engagement.getCommits().size());
+    }
+
+    @Test
+    void testGetEngagementNotFound() {
+        Mockito.when(engagementApiClient.getEngagement("missing")).thenThrow(new WebApplicationException(404));
+
+        WebApplicationException ex = assertThrows(WebApplicationException.class, () -> engagementService.getEngagement("missing"));
+        assertEquals(404, ex.getResponse().getStatus());
+    }
+
+    @Test
+    void testComposeMarksFallbackDegraded() {
+        Mockito.when(hostingService.getHostingEnvironments(Mockito.eq("uuid"), Mockito.any())).thenAnswer(i -> {
+            i.getArgument(1, Runnable.class).run();
+            return Collections.emptyList();
+        });
+
+        Engagement engagement = engagementService.composeEngagement("uuid", EngagementSection.all(), null)
+                .await().indefinitely();
+
+        assertTrue(engagement.isDegraded());
+        assertFalse(engagementService.composeEngagement("uuid", EnumSet.of(EngagementSection.ARTIFACTS), null)
+                .await().indefinitely().isDegraded());
+    }
+
+    @Test
+    void testComposeOnlyChangedSections() {
+        Engagement base = Engagement.builder().uuid("uuid").lastUpdate(lastUpdate)
+                .hostingEnvironments(List.of(HostingEnvironment.builder().environmentName("cached").build()))
+                .artifacts(List.of(Artifact.builder().title("cached").build())).build();
+        Mockito.when(participantService.getParticipantsForEngagement(Mockito.eq("uuid"), Mockito.any()))
+                .thenReturn(List.of(EngagementUser.builder().email("kevin@rh.com").build()));
+
+        Engagement engagement = engagementService.composeEngagement("uuid", EnumSet.of(EngagementSection.PARTICIPANTS), base)
+                .await().indefinitely();
+
+        assertEquals("cached", engagement.getHostingEnvironments().get(0).getEnvironmentName());
+        assertEquals("cached", engagement.getArtifacts().get(0).getTitle());
+        assertEquals(1, engagement.getEngagementUsers().size());
+        Mockito.verify(engagementApiClient).getEngagement("uuid");
+        Mockito.verify(participantService).getParticipantsForEngagement(Mockito.eq("uuid"), Mockito.any());
+        Mockito.verify(hostingService, Mockito.never()).getHostingEnvironments(Mockito.eq("uuid"), Mockito.any());
+        Mockito.verify(artifactService, Mockito.never()).getArtifacts(Mockito.eq("uuid"), Mockito.any());
+        Mockito.verify(categoryApiClient, Mockito.never()).getCategories("uuid");
+        Mockito.verify(activityService, Mockito.never()).getActivityForUuid("uuid");
+    }
+
+    @Test
+    void testRecentlyUpdatedReturnsCopies() {
+        Set<String> regions = Set.of("recent");
+        Mockito.when(activityService.getLatestActivity(0, 5, regions)).thenReturn(List.of("uuid"));
+        Mockito.when(hostingService.getHostingEnvironmentsByEngagement(Set.of("uuid"))).thenReturn(Map.of());
+        Mockito.when(participantService.getParticipantsByEngagement(Set.of("uuid"))).thenReturn(Map.of());
+
+        engagementService.getRecentlyUpdated(regions).get(0).setWriteable(true);
+
+        assertNull(engagementService.getRecentlyUpdated(regions).get(0).getWriteable());
+        Mockito.verify(activityService).getLatestActivity(0, 5, regions);
     }
 
 //
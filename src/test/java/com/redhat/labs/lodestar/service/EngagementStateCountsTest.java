@@ -0,0 +1,134 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+import com.redhat.labs.lodestar.model.EngagementSummary;
+import com.redhat.labs.lodestar.model.Launch;
+
+class EngagementStateCountsTest {
+
+    static final Instant START = Instant.parse("2021-06-01T00:00:00Z");
+
+    TestClock clock;
+    EngagementStateCounts counts;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(START);
+        counts = new EngagementStateCounts(clock);
+    }
+
+    @Test
+    void testEngagementsMoveAtTheirEndAndArchiveDates() {
+        counts.put("active", summary("active", "na", true, "2021-06-10T00:00:00Z", "2021-06-20T00:00:00Z"));
+        counts.put("upcoming", summary("upcoming", "na", false, "2021-06-10T00:00:00Z", "2021-06-20T00:00:00Z"));
+        counts.put("past", summary("past", "emea", true, "2021-05-10T00:00:00Z", "2021-05-20T00:00:00Z"));
+
+        assertCounts(Map.of(EngagementState.ACTIVE, 1, EngagementState.UPCOMING, 1, EngagementState.PAST, 1), null);
+
+        clock.now = Instant.parse("2021-06-10T00:00:00Z");
+        assertCounts(Map.of(EngagementState.ACTIVE, 1, EngagementState.UPCOMING, 1, EngagementState.PAST, 1), null);
+
+        clock.now = clock.now.plusSeconds(1);
+        assertCounts(Map.of(EngagementState.TERMINATING, 1, EngagementState.UPCOMING, 1, EngagementState.PAST, 1), null);
+
+        clock.now = Instant.parse("2021-06-20T00:00:00Z");
+        assertCounts(Map.of(EngagementState.UPCOMING, 1, EngagementState.PAST, 2), null);
+        assertCounts(Map.of(EngagementState.PAST, 1), Set.of("emea"));
+    }
+
+    @Test
+    void testPutReplacesAndRemoveForgets() {
+        counts.put("1", summary("1", "na", true, "2021-06-10T00:00:00Z", null));
+        counts.put("1", summary("1", "apac", true, "2021-05-10T00:00:00Z", null));
+
+        assertCounts(Map.of(EngagementState.PAST, 1), Set.of("apac"));
+        assertCounts(Map.of(), Set.of("na"));
+
+        counts.remove("1");
+        assertCounts(Map.of(), Collections.emptySet());
+    }
+
+    @Test
+    void testSameAsEngagementRules() {
+        String[] dates = { null, "2021-05-01T00:00:00Z", "2021-06-01T00:00:00Z", "2021-07-01T00:00:00Z" };
+        int i = 0;
+
+        for(String end : dates) {
+            for(String archive : dates) {
+                for(boolean launched : new boolean[] { true, false }) {
+                    Engagement engagement = Engagement.builder().uuid("e" + i).startDate("2021-04-01T00:00:00Z")
+                            .endDate(end).archiveDate(archive).launch(launched ? Launch.builder().build() : null).build();
+
+                    for(Duration later : new Duration[] { Duration.ZERO, Duration.ofDays(20), Duration.ofDays(40) }) {
+                        Instant at = START.plus(later);
+                        assertEquals(engagement.getEngagementCurrentState(at),
+                                EngagementSummary.from(engagement).getEngagementCurrentState(at));
+                    }
+                    counts.put("e" + i++, EngagementSummary.from(engagement));
+                }
+            }
+        }
+
+        clock.now = START.plus(Duration.ofDays(40));
+        Map<EngagementState, Integer> counted = counts.count(null);
+        assertEquals(i, counted.get(EngagementState.ANY));
+        assertEquals(0, counted.get(EngagementState.ACTIVE));
+        assertEquals(0, counted.get(EngagementState.TERMINATING));
+    }
+
+    private void assertCounts(Map<EngagementState, Integer> expected, Set<String> regions) {
+        Map<EngagementState, Integer> counted = counts.count(regions);
+        int total = 0;
+
+        for(EngagementState state : EngagementState.values()) {
+            if(state != EngagementState.ANY) {
+                assertEquals(expected.getOrDefault(state, 0), counted.get(state), state.name());
+                total += expected.getOrDefault(state, 0);
+            }
+        }
+        assertEquals(total, counted.get(EngagementState.ANY));
+    }
+
+    private EngagementSummary summary(String uuid, String region, boolean launched, String end, String archive) {
+        return EngagementSummary.builder().uuid(uuid).region(region).launched(launched)
+                .startDate("2021-01-01T00:00:00Z").endDate(end).archiveDate(archive).build();
+    }
+
+    static class TestClock extends Clock {
+        Instant now;
+
+        TestClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
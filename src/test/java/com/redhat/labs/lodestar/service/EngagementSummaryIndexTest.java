@@ -0,0 +1,190 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.Engagement.EngagementState;
+import com.redhat.labs.lodestar.model.Launch;
+import com.redhat.labs.lodestar.rest.client.EngagementApiClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EngagementSummaryIndexTest {
+
+    EngagementSummaryIndex index;
+    EngagementApiClient engagementApiClient;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        engagementApiClient = Mockito.mock(EngagementApiClient.class);
+        registry = new SimpleMeterRegistry();
+
+        index = new EngagementSummaryIndex();
+        index.engagementApiClient = engagementApiClient;
+        index.registry = registry;
+        index.pageSize = 2;
+        index.budgetBytes = 1024 * 1024;
+        index.init();
+    }
+
+    @Test
+    void testRebuildPagesAndDropsDeleted() {
+        index.put(engagement("deleted"));
+        Mockito.when(engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.anySet(), Mockito.anySet(),
+                Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(page(5, "1", "2"), page(5, "3", "4"), page(5, "5"));
+
+        index.rebuild();
+
+        assertEquals(5, index.size());
+        assertTrue(index.get("5").isPresent());
+        assertEquals("Customer 5", index.get("5").get().getCustomerName());
+        Mockito.verify(engagementApiClient, Mockito.times(3)).getEngagements(Mockito.anyInt(), Mockito.eq(2),
+                Mockito.anySet(), Mockito.anySet(), Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any());
+
+        Mockito.when(engagementApiClient.getEngagement("deleted")).thenThrow(new WebApplicationException(404));
+        assertFalse(index.get("deleted").isPresent());
+    }
+
+    @Test
+    void testBytesFollowPutsAndRemoves() {
+        index.put(engagement("1"));
+        long one = index.getEstimatedBytes();
+        index.put(engagement("2"));
+        index.put(engagement("2"));
+
+        assertEquals(2 * one, index.getEstimatedBytes());
+        assertEquals(2 * one, registry.get(EngagementSummaryIndex.METRIC_NAME + ".bytes").gauge().value());
+        assertEquals(2, registry.get(EngagementSummaryIndex.METRIC_NAME + ".size").gauge().value());
+
+        index.remove("1");
+        index.remove("2");
+        assertEquals(0, index.getEstimatedBytes());
+    }
+
+    @Test
+    void testCountsOnceComplete() {
+        Mockito.when(engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.anySet(), Mockito.anySet(),
+                Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(Response.ok(List.of(engagement("1"), engagement("2").toBuilder().region("emea")
+                        .launch(Launch.builder().build()).startDate("2021-01-01T00:00:00Z").endDate("2999-01-01T00:00:00Z")
+                        .build())).header(EngagementSummaryIndex.TOTAL_HEADER, "2").build(), page(2));
+
+        assertFalse(index.isComplete());
+        index.rebuild();
+        assertTrue(index.isComplete());
+
+        Map<EngagementState, Integer> counts = index.countByState(Collections.emptySet());
+        assertEquals(1, counts.get(EngagementState.UPCOMING));
+        assertEquals(1, counts.get(EngagementState.ACTIVE));
+        assertEquals(2, counts.get(EngagementState.ANY));
+        assertEquals(1, index.countByState(Set.of("emea")).get(EngagementState.ANY));
+
+        Map<EngagementState, Integer> then = index.countByState(Instant.parse("3000-01-01T00:00:00Z"), Set.of("emea"));
+        assertEquals(1, then.get(EngagementState.PAST));
+        assertEquals(0, then.get(EngagementState.ACTIVE));
+
+        index.remove("2");
+        assertEquals(0, index.countByState(Collections.emptySet()).get(EngagementState.ACTIVE));
+    }
+
+    @Test
+    void testRebuildKeepsWritesMadeWhileItRuns() {
+        index.put(engagement("stale"));
+        Mockito.when(engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.anySet(), Mockito.anySet(),
+                Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(i -> {
+                    index.put(engagement("1").toBuilder().customerName("Updated").lastUpdate("2021-06-01T00:00:00Z").build());
+                    index.put(engagement("created"));
+                    index.remove("2");
+                    index.put(engagement("3").toBuilder().customerName("Updated").lastUpdate("2021-06-01T00:00:00Z").build());
+                    return page(3, "1", "2");
+                }).thenAnswer(i -> Response.ok(List.of(engagement("3").toBuilder().lastUpdate("2021-07-01T00:00:00Z").build()))
+                        .header(EngagementSummaryIndex.TOTAL_HEADER, "3").build());
+
+        index.rebuild();
+
+        assertEquals("Updated", index.get("1").get().getCustomerName(), "older page does not replace a newer write");
+        assertTrue(index.get("created").isPresent(), "created during the rebuild");
+        assertEquals("Customer 3", index.get("3").get().getCustomerName(), "newer page replaces an older write");
+        assertFalse(index.get("stale").isPresent());
+        assertEquals(3, index.size());
+        assertEquals(3, index.countByState(Collections.emptySet()).get(EngagementState.ANY));
+
+        Mockito.when(engagementApiClient.getEngagement("2")).thenThrow(new WebApplicationException(404));
+        assertFalse(index.get("2").isPresent(), "removed during the rebuild");
+    }
+
+    @Test
+    void testReconcileRebuildsOnSchedule() throws Exception {
+        index.executor = ManagedExecutor.builder().propagated(ThreadContext.NONE).cleared(ThreadContext.ALL_REMAINING).build();
+        Mockito.when(engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.anySet(), Mockito.anySet(),
+                Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(i -> page(1, "1"));
+
+        try {
+            index.reconcileEnabled = false;
+            index.scheduledReconcile();
+            Mockito.verifyNoInteractions(engagementApiClient);
+
+            index.reconcileEnabled = true;
+            index.put(engagement("drifted"));
+            index.scheduledReconcile();
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while(!index.isComplete() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(index.isComplete());
+            assertEquals(1, index.size());
+            assertEquals(1, index.countByState(Collections.emptySet()).get(EngagementState.ANY));
+        } finally {
+            index.executor.shutdown();
+        }
+    }
+
+    @Test
+    void testNothingDroppedWhenPagesMissedSome() {
+        index.put(engagement("1"));
+        index.put(engagement("2"));
+        index.put(engagement("3"));
+        // 2 was deleted after the first page, so 3 moved up into it and was never seen
+        Mockito.when(engagementApiClient.getEngagements(Mockito.anyInt(), Mockito.eq(2), Mockito.anySet(), Mockito.anySet(),
+                Mockito.anySet(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(page(4, "1", "2"), page(3, "4"));
+
+        index.rebuild();
+
+        assertTrue(index.get("3").isPresent());
+        assertEquals(4, index.size());
+        assertFalse(index.isComplete());
+    }
+
+    private Response page(int total, String... uuids) {
+        List<Engagement> engagements = Arrays.stream(uuids).map(this::engagement).collect(Collectors.toList());
+        return Response.ok(engagements).header(EngagementSummaryIndex.TOTAL_HEADER, String.valueOf(total)).build();
+    }
+
+    private Engagement engagement(String uuid) {
+        return Engagement.builder().uuid(uuid).customerName("Customer " + uuid).projectName("Project")
+                .region("na").type("Residency").lastUpdate("2021-01-01T00:00:00Z").build();
+    }
+}
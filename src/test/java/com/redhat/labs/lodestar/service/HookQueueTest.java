@@ -0,0 +1,323 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Commit;
+import com.redhat.labs.lodestar.model.Hook;
+import com.redhat.labs.lodestar.model.event.RetriableEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+class HookQueueTest {
+
+    HookQueue hookQueue;
+    EngagementService engagementService;
+    RetryScheduler retryScheduler;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        engagementService = Mockito.mock(EngagementService.class);
+        retryScheduler = Mockito.mock(RetryScheduler.class);
+        registry = new SimpleMeterRegistry();
+
+        hookQueue = new HookQueue();
+        hookQueue.engagementService = engagementService;
+        hookQueue.retryScheduler = retryScheduler;
+        hookQueue.maxRetries = 2;
+        hookQueue.registry = registry;
+        hookQueue.partitions = 2;
+        hookQueue.capacity = 4;
+        hookQueue.shutdownWaitSeconds = 5;
+        hookQueue.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hookQueue.shutdown();
+    }
+
+    @Test
+    void testOrderedPerProjectWhileAnotherProjectRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherDone = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+
+        Mockito.doAnswer(i -> {
+            Hook hook = i.getArgument(0);
+            if(hook.getProjectId() == 2) {
+                release.await(5, TimeUnit.SECONDS);
+            } else {
+                otherDone.countDown();
+            }
+            applied.add(hook.getProjectId() + ":" + hook.getObjectKind());
+            return null;
+        }).when(engagementService).updateStatusAndCommits(Mockito.any(Hook.class));
+
+        assertTrue(hookQueue.submit(hook(2, "first")));
+        assertTrue(hookQueue.submit(hook(2, "second")));
+        assertTrue(hookQueue.submit(hook(1, "other")));
+
+        assertTrue(otherDone.await(5, TimeUnit.SECONDS), "project 1 not held up by project 2");
+        release.countDown();
+        hookQueue.shutdown();
+
+        assertEquals(List.of("2:first", "2:second"),
+                applied.stream().filter(a -> a.startsWith("2:")).collect(Collectors.toList()));
+        assertEquals(3, registry.get(HookQueue.METRIC_NAME + ".processing").tag("outcome", "success").timer().count());
+        assertEquals(3, registry.get(HookQueue.METRIC_NAME + ".queue.lag").timer().count());
+        assertEquals(0, hookQueue.depth());
+    }
+
+    @Test
+    void testFullPartitionRefuses() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(i -> release.await(5, TimeUnit.SECONDS)).when(engagementService)
+                .updateStatusAndCommits(Mockito.any(Hook.class));
+
+        // one running and two waiting fill a partition of capacity 4 / 2
+        assertTrue(hookQueue.submit(hook(2, "a")));
+        Mockito.verify(engagementService, Mockito.timeout(1000)).updateStatusAndCommits(Mockito.any(Hook.class));
+        assertTrue(hookQueue.submit(hook(2, "b")));
+        assertTrue(hookQueue.submit(hook(2, "c")));
+
+        assertFalse(hookQueue.submit(hook(2, "d")));
+        assertTrue(hookQueue.submit(hook(1, "e")), "other partitions still take hooks");
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".rejected").counter().count());
+        assertTrue(registry.get(HookQueue.METRIC_NAME + ".queue.depth").gauge().value() >= 3);
+
+        release.countDown();
+    }
+
+    @Test
+    void testFailedHookDoesNotStopThePartition() {
+        Mockito.doThrow(new RuntimeException("down")).doNothing().when(engagementService)
+                .updateStatusAndCommits(Mockito.any(Hook.class));
+
+        hookQueue.submit(hook(2, "a"));
+        hookQueue.submit(hook(2, "b"));
+        hookQueue.shutdown();
+
+        Mockito.verify(engagementService, Mockito.times(2)).updateStatusAndCommits(Mockito.any(Hook.class));
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".processing").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testFailedHookRetried() {
+        retryImmediately();
+        Mockito.doThrow(new WebApplicationException(503)).doNothing().when(engagementService)
+                .updateStatusAndCommits(Mockito.any(Hook.class));
+
+        hookQueue.submit(hook(2, "a"));
+
+        Mockito.verify(engagementService, Mockito.timeout(2000).times(2)).updateStatusAndCommits(Mockito.any(Hook.class));
+        ArgumentCaptor<RetriableEvent> event = ArgumentCaptor.forClass(RetriableEvent.class);
+        Mockito.verify(retryScheduler).schedule(event.capture(), Mockito.any(), Mockito.any());
+        assertEquals(0, event.getValue().getCurrentRetryCount());
+        assertEquals(2, event.getValue().getMaxRetryCount());
+        assertEquals(2, event.getValue().getProjectId());
+        assertEquals("project 2", event.getValue().subject());
+
+        hookQueue.shutdown();
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".processing").tag("outcome", "success").timer().count());
+        assertEquals(0, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testHookDroppedOnceRetriesExhausted() {
+        retryImmediately();
+        Mockito.doThrow(new ProcessingException("connection refused")).when(engagementService)
+                .updateStatusAndCommits(Mockito.any(Hook.class));
+
+        hookQueue.submit(hook(2, "a"));
+
+        Mockito.verify(engagementService, Mockito.timeout(2000).times(3)).updateStatusAndCommits(Mockito.any(Hook.class));
+        hookQueue.shutdown();
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testClientErrorNotRetried() {
+        Mockito.doThrow(new WebApplicationException(404)).when(engagementService).updateStatusAndCommits(Mockito.any(Hook.class));
+
+        hookQueue.submit(hook(2, "a"));
+        hookQueue.shutdown();
+
+        Mockito.verify(retryScheduler, Mockito.never()).schedule(Mockito.any(), Mockito.any(), Mockito.any());
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testLaterHooksForTheProjectHeldBehindARetry() {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        Mockito.doThrow(new WebApplicationException(503)).doAnswer(i -> applied.add(i.<Hook>getArgument(0).getObjectKind()))
+                .when(engagementService).updateStatusAndCommits(Mockito.any(Hook.class));
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.when(retryScheduler.schedule(Mockito.any(), retry.capture(), Mockito.any())).thenReturn(true);
+
+        hookQueue.submit(hook(2, "a"));
+        Mockito.verify(retryScheduler, Mockito.timeout(1000)).schedule(Mockito.any(), Mockito.any(), Mockito.any());
+        hookQueue.submit(hook(2, "b"));
+        hookQueue.submit(hook(4, "other project"));
+
+        Mockito.verify(engagementService, Mockito.timeout(1000).times(2)).updateStatusAndCommits(Mockito.any(Hook.class));
+        assertEquals(List.of("other project"), applied, "b waits for the retry of a");
+
+        retry.getValue().run();
+
+        Mockito.verify(engagementService, Mockito.timeout(1000).times(4)).updateStatusAndCommits(Mockito.any(Hook.class));
+        hookQueue.shutdown();
+        assertEquals(List.of("other project", "a", "b"), applied);
+        assertEquals(0, hookQueue.depth());
+        assertEquals(0, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testRetryNotLostWhenTheDownstreamExecutorIsSaturated() {
+        List<Runnable> timers = new CopyOnWriteArrayList<>();
+        hookQueue.retryScheduler = saturatedScheduler(timers);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        Mockito.doThrow(new WebApplicationException(503)).doAnswer(i -> applied.add(i.<Hook>getArgument(0).getObjectKind()))
+                .when(engagementService).updateStatusAndCommits(Mockito.any(Hook.class));
+
+        hookQueue.submit(hook(2, "a"));
+        Mockito.verify(engagementService, Mockito.timeout(1000)).updateStatusAndCommits(Mockito.any(Hook.class));
+        hookQueue.submit(hook(2, "b"));
+        long deadline = System.currentTimeMillis() + 1000;
+        while(timers.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+
+        // fired as vert.x would, on the event loop where the saturated executor refuses work
+        timers.get(0).run();
+
+        Mockito.verify(engagementService, Mockito.timeout(1000).times(3)).updateStatusAndCommits(Mockito.any(Hook.class));
+        hookQueue.shutdown();
+        assertEquals(List.of("a", "b"), applied);
+        assertEquals(0, hookQueue.depth());
+        assertEquals(0, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testBurstForAProjectMerged() {
+        hookQueue.coalesceWindowMs = 200;
+        Mockito.when(engagementService.changesStatus(Mockito.any(Hook.class))).thenReturn(true);
+        Mockito.when(engagementService.changesEngagement(Mockito.any(Hook.class)))
+                .thenAnswer(i -> i.<Hook>getArgument(0).getCommits().stream().anyMatch(c -> "both".equals(c.getMessage())));
+
+        hookQueue.submit(hook(2, "a", "status only"));
+        hookQueue.submit(hook(2, "b", "both"));
+        hookQueue.submit(hook(2, "c", "both"));
+        hookQueue.submit(hook(1, "other", "both"));
+
+        ArgumentCaptor<Hook> applied = ArgumentCaptor.forClass(Hook.class);
+        Mockito.verify(engagementService, Mockito.timeout(2000).times(2)).updateStatusAndCommits(applied.capture());
+
+        Hook merged = applied.getAllValues().stream().filter(h -> h.getProjectId() == 2).findFirst().get();
+        assertEquals(List.of("status only", "both", "both"),
+                merged.getCommits().stream().map(Commit::getMessage).collect(Collectors.toList()));
+        assertEquals("c", merged.getObjectKind());
+
+        assertEquals(2, saved("lookup"));
+        assertEquals(2, saved("status"));
+        assertEquals(1, saved("activity"));
+    }
+
+    @Test
+    void testOpenWindowHoldsItsPartitionSlot() {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(i -> release.await(5, TimeUnit.SECONDS)).when(engagementService)
+                .updateStatusAndCommits(Mockito.any(Hook.class));
+
+        assertTrue(hookQueue.submit(Hook.builder().objectKind("running").build()));
+        Mockito.verify(engagementService, Mockito.timeout(1000)).updateStatusAndCommits(Mockito.any(Hook.class));
+
+        // two windows take both slots of the partition, so the third project is refused up front
+        hookQueue.coalesceWindowMs = 200;
+        assertTrue(hookQueue.submit(hook(2, "a")));
+        assertTrue(hookQueue.submit(hook(4, "b")));
+        assertFalse(hookQueue.submit(hook(6, "c")));
+        assertTrue(hookQueue.submit(hook(2, "d")), "merged into an open window");
+
+        release.countDown();
+        Mockito.verify(engagementService, Mockito.timeout(2000).times(3)).updateStatusAndCommits(Mockito.any(Hook.class));
+        assertEquals(1, registry.get(HookQueue.METRIC_NAME + ".rejected").counter().count());
+        assertEquals(0, registry.get(HookQueue.METRIC_NAME + ".dropped").counter().count());
+    }
+
+    @Test
+    void testShutdownAppliesWaitingHooks() {
+        hookQueue.coalesceWindowMs = 60_000;
+
+        hookQueue.submit(hook(2, "a", "one"));
+        hookQueue.submit(hook(2, "b", "two"));
+        assertEquals(1, hookQueue.depth());
+
+        hookQueue.shutdown();
+        Mockito.verify(engagementService).updateStatusAndCommits(Mockito.any(Hook.class));
+    }
+
+    private void retryImmediately() {
+        Mockito.when(retryScheduler.schedule(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(i -> {
+            if(!i.<RetriableEvent>getArgument(0).shouldRetry()) {
+                return false;
+            }
+            i.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    private RetryScheduler saturatedScheduler(List<Runnable> timers) {
+        RetryScheduler scheduler = new RetryScheduler();
+        scheduler.vertx = Mockito.mock(Vertx.class);
+        Mockito.when(scheduler.vertx.setTimer(Mockito.anyLong(), Mockito.any())).thenAnswer(i -> {
+            long id = timers.size();
+            Handler<Long> handler = i.getArgument(1);
+            timers.add(() -> handler.handle(id));
+            return id;
+        });
+        scheduler.executor = Mockito.mock(ManagedExecutor.class);
+        Mockito.doThrow(new RejectedExecutionException("downstream executor is saturated")).when(scheduler.executor)
+                .execute(Mockito.any());
+        scheduler.registry = registry;
+        scheduler.delayFactor = 0;
+        scheduler.maxDelay = 60;
+        scheduler.init();
+        return scheduler;
+    }
+
+    private double saved(String call) {
+        return registry.counter(HookQueue.METRIC_NAME + ".calls.saved", "call", call).count();
+    }
+
+    private Hook hook(int projectId, String kind, String message) {
+        Hook hook = hook(projectId, kind);
+        hook.setCommits(List.of(Commit.builder().message(message).build()));
+        return hook;
+    }
+
+    private Hook hook(int projectId, String kind) {
+        return Hook.builder().projectId(projectId).objectKind(kind).build();
+    }
+}
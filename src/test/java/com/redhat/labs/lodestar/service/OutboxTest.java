@@ -0,0 +1,244 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.Author;
+import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementSection;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.model.event.OutboxEntry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxTest {
+
+    private static final Author AUTHOR = Author.builder().name("Mitch").email("mitch@example.com").build();
+
+    @TempDir
+    Path dir;
+
+    Jsonb jsonb = JsonbBuilder.create();
+
+    Outbox outbox;
+    EngagementService engagementService;
+    EngagementCache engagementCache;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        engagementService = Mockito.mock(EngagementService.class);
+        engagementCache = Mockito.mock(EngagementCache.class);
+        registry = new SimpleMeterRegistry();
+        outbox = outbox();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.shutdown();
+    }
+
+    @Test
+    void testRecordedWriteSentAndMarkedDone() throws Exception {
+        outbox.start();
+
+        outbox.record(EngagementSection.CATEGORIES, engagement("uuid1"), AUTHOR);
+
+        ArgumentCaptor<Engagement> sent = ArgumentCaptor.forClass(Engagement.class);
+        Mockito.verify(engagementService, Mockito.timeout(5000)).writeSection(Mockito.eq(EngagementSection.CATEGORIES),
+                sent.capture(), Mockito.eq(AUTHOR));
+        assertEquals("uuid1", sent.getValue().getUuid());
+        assertEquals("na", sent.getValue().getRegion());
+        assertEquals("cat", sent.getValue().getCategories().get(0).getName());
+        assertNull(sent.getValue().getArtifacts(), "only the recorded section is kept");
+
+        awaitDispatched("success", 1);
+        assertEquals(0, outbox.pending());
+        awaitLines(2);
+        assertTrue(entries().get(1).isDone());
+    }
+
+    @Test
+    void testReplayedAfterCrash() throws Exception {
+        Engagement sent = engagement("uuid1");
+        Engagement unsent = engagement("uuid2");
+        Files.write(dir.resolve("outbox.log"), List.of(
+                jsonb.toJson(entry(4, EngagementSection.ARTIFACTS, sent)),
+                jsonb.toJson(entry(7, EngagementSection.PARTICIPANTS, unsent)),
+                jsonb.toJson(OutboxEntry.builder().id(4).done(true).build()),
+                "{\"id\":9,\"section\":\"ARTIF"), StandardCharsets.UTF_8);
+
+        outbox.start();
+
+        Mockito.verify(engagementService, Mockito.timeout(5000)).writeSection(Mockito.eq(EngagementSection.PARTICIPANTS),
+                Mockito.argThat(e -> "uuid2".equals(e.getUuid())), Mockito.eq(AUTHOR));
+        awaitDispatched("success", 1);
+
+        outbox.record(EngagementSection.HOSTING, engagement("uuid3"), AUTHOR);
+        awaitDispatched("success", 2);
+        Mockito.verify(engagementService, Mockito.never()).writeSection(Mockito.eq(EngagementSection.ARTIFACTS),
+                Mockito.any(), Mockito.any());
+
+        List<OutboxEntry> entries = entries();
+        assertEquals(7, entries.get(0).getId(), "compacted to the unsent write");
+        assertTrue(entries.stream().anyMatch(e -> e.getId() == 8 && !e.isDone()), "ids continue from the log");
+    }
+
+    @Test
+    void testOlderWriteDroppedForNewerOne() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        Mockito.doAnswer(i -> {
+            Engagement e = i.getArgument(1);
+            if(e.getCategories().get(0).getName().equals("old") && failed.getCount() > 0) {
+                failed.countDown();
+                throw new WebApplicationException(503);
+            }
+            return null;
+        }).when(engagementService).writeSection(Mockito.any(), Mockito.any(), Mockito.any());
+        outbox.start();
+
+        outbox.record(EngagementSection.CATEGORIES, withCategory("old"), AUTHOR);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        outbox.record(EngagementSection.CATEGORIES, withCategory("new"), AUTHOR);
+
+        awaitDispatched("superseded", 1);
+        assertEquals(1.0, registry.counter(Outbox.METRIC_NAME + ".dispatched", "outcome", "success").count());
+        assertEquals(1.0, registry.counter(Outbox.METRIC_NAME + ".retries").count());
+        Mockito.verify(engagementService, Mockito.times(2)).writeSection(Mockito.any(), Mockito.any(), Mockito.any());
+        assertEquals(0, outbox.pending());
+    }
+
+    @Test
+    void testRejectedWriteNotRetried() throws Exception {
+        Mockito.doThrow(new WebApplicationException(400)).when(engagementService).writeSection(Mockito.any(),
+                Mockito.any(), Mockito.any());
+        outbox.start();
+
+        outbox.record(EngagementSection.ARTIFACTS, engagement("uuid1"), AUTHOR);
+
+        awaitDispatched("rejected", 1);
+        assertEquals(0.0, registry.counter(Outbox.METRIC_NAME + ".retries").count());
+        assertEquals(0, outbox.pending());
+        Mockito.verify(engagementCache).invalidate("uuid1");
+    }
+
+    @Test
+    void testWriteParkedOnceRetriesRunOut() throws Exception {
+        Mockito.doThrow(new WebApplicationException(503)).when(engagementService).writeSection(Mockito.any(),
+                Mockito.any(), Mockito.any());
+        outbox.maxRetries = 2;
+        outbox.maxRetryDelay = 0;
+        outbox.start();
+
+        outbox.record(EngagementSection.PARTICIPANTS, engagement("uuid1"), AUTHOR);
+
+        awaitDispatched("exhausted", 1);
+        Mockito.verify(engagementService, Mockito.times(3)).writeSection(Mockito.any(), Mockito.any(), Mockito.any());
+        assertEquals(2.0, registry.counter(Outbox.METRIC_NAME + ".retries").count());
+        assertEquals(0, outbox.pending());
+        Mockito.verify(engagementCache).invalidate("uuid1");
+
+        List<String> parked = Files.readAllLines(dir.resolve("outbox.dead"), StandardCharsets.UTF_8);
+        assertEquals(1, parked.size());
+        OutboxEntry entry = jsonb.fromJson(parked.get(0), OutboxEntry.class);
+        assertEquals(EngagementSection.PARTICIPANTS, entry.getSection());
+        assertEquals("uuid1", entry.getEngagement().getUuid());
+    }
+
+    @Test
+    void testLogTruncatedOnceNothingPending() throws Exception {
+        outbox.compactBytes = 1;
+        outbox.start();
+
+        outbox.record(EngagementSection.HOSTING, engagement("uuid1"), AUTHOR);
+        awaitDispatched("success", 1);
+        outbox.record(EngagementSection.HOSTING, engagement("uuid2"), AUTHOR);
+        awaitDispatched("success", 2);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(Files.size(dir.resolve("outbox.log")) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, Files.size(dir.resolve("outbox.log")));
+    }
+
+    private Outbox outbox() {
+        Outbox outbox = new Outbox();
+        outbox.engagementService = engagementService;
+        outbox.engagementCache = engagementCache;
+        outbox.jsonb = jsonb;
+        outbox.registry = registry;
+        outbox.path = dir.resolve("outbox.log").toString();
+        outbox.maxBatch = 256;
+        outbox.compactBytes = Long.MAX_VALUE;
+        outbox.maxRetryDelay = 60;
+        outbox.maxRetries = 15;
+        outbox.deadLetterPath = dir.resolve("outbox.dead").toString();
+        return outbox;
+    }
+
+    private void awaitDispatched(String outcome, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(count(outcome) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count(outcome));
+    }
+
+    private void awaitLines(int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(entries().size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, entries().size());
+    }
+
+    private double count(String outcome) {
+        return registry.counter(Outbox.METRIC_NAME + ".dispatched", "outcome", outcome).count();
+    }
+
+    private List<OutboxEntry> entries() throws Exception {
+        List<String> lines = Files.readAllLines(dir.resolve("outbox.log"), StandardCharsets.UTF_8);
+        return lines.stream().map(line -> jsonb.fromJson(line, OutboxEntry.class)).collect(Collectors.toList());
+    }
+
+    private static OutboxEntry entry(long id, EngagementSection section, Engagement engagement) {
+        return OutboxEntry.builder().id(id).section(section).author(AUTHOR).engagement(engagement).build();
+    }
+
+    private static Engagement withCategory(String name) {
+        Engagement engagement = engagement("uuid1");
+        engagement.setCategories(List.of(Category.builder().name(name).build()));
+        return engagement;
+    }
+
+    private static Engagement engagement(String uuid) {
+        return Engagement.builder().uuid(uuid).region("na").customerName("customer")
+                .categories(List.of(Category.builder().name("cat").build()))
+                .artifacts(List.of(Artifact.builder().title("artifact").build()))
+                .engagementUsers(Set.of(EngagementUser.builder().email("p@example.com").role("dev").build())).build();
+    }
+}
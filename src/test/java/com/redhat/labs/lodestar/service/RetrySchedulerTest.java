@@ -0,0 +1,195 @@
+package com.redhat.labs.lodestar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.event.RetriableEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+class RetrySchedulerTest {
+
+    RetryScheduler scheduler;
+    SimpleMeterRegistry registry;
+    List<Runnable> timers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+
+        scheduler = new RetryScheduler();
+        scheduler.vertx = Mockito.mock(Vertx.class);
+        Mockito.when(scheduler.vertx.setTimer(Mockito.anyLong(), Mockito.any())).thenAnswer(i -> {
+            long id = timers.size();
+            Handler<Long> handler = i.getArgument(1);
+            timers.add(() -> handler.handle(id));
+            return id;
+        });
+        scheduler.executor = ManagedExecutor.builder().propagated(ThreadContext.NONE)
+                .cleared(ThreadContext.ALL_REMAINING).build();
+        scheduler.registry = registry;
+        scheduler.delayFactor = 0;
+        scheduler.maxDelay = 60;
+        scheduler.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        scheduler.executor.shutdown();
+    }
+
+    @Test
+    void testBackoffDoublesWithJitterUpToMax() {
+        scheduler.delayFactor = 2;
+        scheduler.maxDelay = 60;
+
+        for(int i = 0; i < 100; i++) {
+            assertBetween(1000, 2000, scheduler.delayMillis(0));
+            assertBetween(4000, 8000, scheduler.delayMillis(2));
+            assertBetween(30000, 60000, scheduler.delayMillis(5));
+            assertBetween(30000, 60000, scheduler.delayMillis(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void testRetryRunsOffTheTimerThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        String[] thread = new String[1];
+
+        assertTrue(scheduler.schedule(event(2, 0), () -> {
+            thread[0] = Thread.currentThread().getName();
+            done.countDown();
+        }));
+        assertEquals(1, scheduler.inFlight(), "waiting on the timer");
+        Mockito.verify(scheduler.vertx).setTimer(Mockito.longThat(delay -> delay >= 1), Mockito.any());
+
+        timers.get(0).run();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread().getName(), thread[0], "retry runs off the timer thread");
+        awaitInFlight(0);
+        assertEquals(1, registry.counter(RetryScheduler.METRIC_NAME + ".retried").count());
+    }
+
+    @Test
+    void testNothingScheduledWhenRetriesExhausted() {
+        assertFalse(scheduler.schedule(event(2, 2), () -> {
+            throw new AssertionError("retried");
+        }));
+
+        assertEquals(0, scheduler.inFlight());
+        assertTrue(timers.isEmpty());
+        assertEquals(1, registry.counter(RetryScheduler.METRIC_NAME + ".exhausted").count());
+    }
+
+    @Test
+    void testInFlightUntilRetryFinishes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        scheduler.schedule(event(-1, 7), () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("downstream down");
+        });
+        timers.get(0).run();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get(RetryScheduler.METRIC_NAME + ".in.flight").gauge().value());
+
+        release.countDown();
+        awaitInFlight(0);
+        assertEquals(1, registry.counter(RetryScheduler.METRIC_NAME + ".retried").count());
+    }
+
+    @Test
+    void testRefusedRetryRunsOnAWorker() throws Exception {
+        saturate();
+        Mockito.doAnswer(i -> {
+            Handler<Promise<Object>> blocking = i.getArgument(0);
+            new Thread(() -> blocking.handle(Promise.promise()), "vert.x-worker-thread-0").start();
+            return null;
+        }).when(scheduler.vertx).executeBlocking(Mockito.any(), Mockito.eq(false), Mockito.any());
+
+        CountDownLatch done = new CountDownLatch(1);
+        String[] thread = new String[1];
+        scheduler.schedule(event(2, 0), () -> {
+            thread[0] = Thread.currentThread().getName();
+            done.countDown();
+        });
+        timers.get(0).run();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("vert.x-worker-thread-0", thread[0]);
+        awaitInFlight(0);
+        assertEquals(1, registry.counter(RetryScheduler.METRIC_NAME + ".retried").count());
+        assertEquals(0, registry.counter(RetryScheduler.METRIC_NAME + ".exhausted").count());
+    }
+
+    @Test
+    void testRetryThatCannotStartCountsAsExhausted() {
+        saturate();
+        Mockito.doThrow(new IllegalStateException("closed")).when(scheduler.vertx)
+                .executeBlocking(Mockito.any(), Mockito.eq(false), Mockito.any());
+
+        scheduler.schedule(event(2, 0), () -> {
+            throw new AssertionError("retried");
+        });
+        timers.get(0).run();
+
+        assertEquals(0, scheduler.inFlight());
+        assertEquals(0, registry.counter(RetryScheduler.METRIC_NAME + ".retried").count());
+        assertEquals(1, registry.counter(RetryScheduler.METRIC_NAME + ".exhausted").count());
+    }
+
+    /**
+     * As the downstream executor behaves on the event loop once its queue is full.
+     */
+    private void saturate() {
+        scheduler.executor.shutdown();
+        scheduler.executor = Mockito.mock(ManagedExecutor.class);
+        Mockito.doThrow(new RejectedExecutionException("downstream executor is saturated")).when(scheduler.executor)
+                .execute(Mockito.any());
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(scheduler.inFlight() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, scheduler.inFlight());
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+
+    private static RetriableEvent event(int max, int current) {
+        return RetriableEvent.builder().maxRetryCount(max).currentRetryCount(current)
+                .engagement(Engagement.builder().uuid("uuid").build()).build();
+    }
+}
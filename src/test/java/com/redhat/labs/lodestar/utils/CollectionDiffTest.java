@@ -0,0 +1,123 @@
+package com.redhat.labs.lodestar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javers.core.Javers;
+import org.javers.core.JaversBuilder;
+import org.javers.core.diff.ListCompareAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.redhat.labs.lodestar.model.Artifact;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.util.CollectionDiff;
+
+class CollectionDiffTest {
+
+    Javers javers = JaversBuilder.javers().withListCompareAlgorithm(ListCompareAlgorithm.LEVENSHTEIN_DISTANCE).build();
+
+    CollectionDiff<Artifact> artifactDiff = CollectionDiff.of(Artifact.class, Artifact::getUuid);
+    CollectionDiff<EngagementUser> participantDiff = CollectionDiff.of(EngagementUser.class, EngagementUser::getEmail);
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10, 100, 1000 })
+    void testArtifactsSameAnswerAsJavers(int size) {
+        Map<String, Consumer<List<Artifact>>> mutations = new LinkedHashMap<>();
+        mutations.put("none", l -> { });
+        mutations.put("modify", l -> l.get(size / 2).setTitle("changed"));
+        mutations.put("ignored field", l -> l.get(size / 2).setCreated("2021-01-01"));
+        mutations.put("add", l -> l.add(artifact(size)));
+        mutations.put("add without uuid", l -> l.add(Artifact.builder().title("new").build()));
+        mutations.put("remove", l -> l.remove(size / 2));
+        mutations.put("swap", l -> Collections.swap(l, 0, size - 1));
+        mutations.put("replace", l -> l.set(1, artifact(size + 1)));
+
+        mutations.forEach((name, mutation) -> {
+            List<Artifact> current = artifacts(size);
+            List<Artifact> desired = artifacts(size);
+            mutation.accept(desired);
+
+            boolean expected = javers.compareCollections(current, desired, Artifact.class).hasChanges();
+            assertEquals(expected, artifactDiff.compare(current, desired).hasChanges(), name);
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10, 100, 1000 })
+    void testParticipantsSameAnswerAsJavers(int size) {
+        Map<String, Consumer<List<EngagementUser>>> mutations = new LinkedHashMap<>();
+        mutations.put("none", l -> { });
+        mutations.put("role", l -> l.get(size / 2).setRole("changed"));
+        mutations.put("reset", l -> l.get(0).setReset(true));
+        mutations.put("add", l -> l.add(participant(size)));
+        mutations.put("remove", l -> l.remove(size / 2));
+        mutations.put("reorder", Collections::reverse);
+
+        mutations.forEach((name, mutation) -> {
+            List<EngagementUser> desiredList = participants(size);
+            mutation.accept(desiredList);
+            Set<EngagementUser> current = new HashSet<>(participants(size));
+            Set<EngagementUser> desired = new LinkedHashSet<>(desiredList);
+
+            boolean expected = javers.compareCollections(current, desired, EngagementUser.class).hasChanges();
+            assertEquals(expected, participantDiff.compare(current, desired).hasChanges(), name);
+        });
+    }
+
+    @Test
+    void testChangesByIdentity() {
+        List<Artifact> current = artifacts(3);
+        List<Artifact> desired = artifacts(3);
+        desired.remove(0);
+        desired.get(0).setTitle("changed");
+        desired.add(artifact(3));
+
+        CollectionDiff.Changes changes = artifactDiff.compare(current, desired);
+
+        assertEquals(List.of("a3"), changes.getAdded());
+        assertEquals(List.of("a0"), changes.getRemoved());
+        assertEquals(List.of("a1"), changes.getModified());
+        assertFalse(changes.isReordered());
+    }
+
+    @Test
+    void testDuplicatesWithoutIdentity() {
+        Artifact a = Artifact.builder().title("same").build();
+        Artifact b = Artifact.builder().title("other").build();
+
+        assertFalse(artifactDiff.compare(List.of(a, a), List.of(a, a)).hasChanges());
+        assertTrue(artifactDiff.compare(List.of(a, a), List.of(a)).hasChanges());
+        assertTrue(artifactDiff.compare(List.of(a, b), List.of(b, a)).isReordered());
+    }
+
+    @Test
+    void testNullIsEmpty() {
+        assertFalse(artifactDiff.compare(null, Collections.emptyList()).hasChanges());
+        assertTrue(artifactDiff.compare(null, artifacts(1)).hasChanges());
+    }
+
+    private List<Artifact> artifacts(int size) {
+        return IntStream.range(0, size).mapToObj(this::artifact).collect(Collectors.toList());
+    }
+
+    private Artifact artifact(int i) {
+        return Artifact.builder().uuid("a" + i).title("title " + i).type("demo").linkAddress("http://" + i)
+                .created("2020-01-01").build();
+    }
+
+    private List<EngagementUser> participants(int size) {
+        return IntStream.range(0, size).mapToObj(this::participant).collect(Collectors.toList());
+    }
+
+    private EngagementUser participant(int i) {
+        return EngagementUser.builder().email(i + "@rh.com").firstName("first" + i).lastName("last" + i).role("dev").build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.redhat.labs.lodestar.utils;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.json.bind.config.PropertyNamingStrategy;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.redhat.labs.lodestar.config.JsonConfig;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.Launch;
+import com.redhat.labs.lodestar.model.Status;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+/**
+ * Stands in for the downstream LodeStar services with WireMock. Every call needed to compose {@link #UUID} waits
+ * {@link #DELAY_MS} before answering. The engagement is active so its status is fetched as well. The latest
+ * activity is the {@link #RECENT} engagements, which are stubbed the same way, and the bulk hosting and
+ * participant queries wait as well, as do the artifact page and the hosting refresh. Init args are passed on as
+ * config.
+ */
+public class DownstreamStubResource implements QuarkusTestResourceLifecycleManager {
+
+    public static final String UUID = "slow";
+    public static final int DELAY_MS = 200;
+
+    /**
+     * engagement, hosting, artifacts, participants, categories, activity and status
+     */
+    public static final int CALLS = 7;
+
+    public static final List<String> RECENT = List.of("recent-1", "recent-2", "recent-3", "recent-4", "recent-5");
+
+    private static final List<String> CLIENTS = List.of("lodestar.status.api", "lodestar.config.api",
+            "lodestar.activity.api", "lodestar.artifacts.api", "lodestar.participants.api",
+            "lodestar.engagement.status.api", "lodestar.engagements.api", "lodestar.hosting.api");
+
+    private final Jsonb jsonb = JsonbBuilder.create(JsonConfig.withCodecs(
+            new JsonbConfig().withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES)));
+
+    private Map<String, String> args = Map.of();
+    private WireMockServer server;
+
+    @Override
+    public void init(Map<String, String> initArgs) {
+        args = initArgs;
+    }
+
+    @Override
+    public Map<String, String> start() {
+        server = new WireMockServer(WireMockConfiguration.options().dynamicPort().containerThreads(500));
+        server.start();
+
+        Engagement engagement = Engagement.builder().uuid(UUID).type("Residency").customerName("Customer")
+                .projectName("Project").startDate("2020-01-01T00:00:00Z").endDate("2099-01-01T00:00:00Z")
+                .launch(Launch.builder().launchedDateTime("2020-01-01T00:00:00Z").build()).build();
+
+        stubEngagement(engagement);
+        RECENT.forEach(uuid -> stubEngagement(engagement.toBuilder().uuid(uuid).build()));
+        server.stubFor(get(urlPathEqualTo("/api/artifacts")).willReturn(aResponse().withFixedDelay(DELAY_MS)
+                .withHeader("Content-Type", "application/json").withHeader("x-total-artifacts", "0").withBody("[]")));
+        server.stubFor(put(urlPathEqualTo("/api/hosting/refresh")).willReturn(aResponse().withFixedDelay(DELAY_MS)));
+        stub("/api/v2/categories", "[]");
+        stub("/api/activity/latest", jsonb.toJson(RECENT));
+        stub("/api/hosting", "[]");
+        stub("/api/participants", "[]");
+        List.of("rbac", "artifact/options", "participant/options", "engagement/options", "region/options")
+                .forEach(config -> server.stubFor(get(urlPathEqualTo("/api/v1/configs/runtime/" + config))
+                        .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("{}"))));
+
+        Map<String, String> config = new HashMap<>(args);
+        CLIENTS.forEach(client -> config.put(client + "/mp-rest/url", server.baseUrl()));
+        return config;
+    }
+
+    @Override
+    public void stop() {
+        if(server != null) {
+            server.stop();
+        }
+    }
+
+    private void stubEngagement(Engagement engagement) {
+        String uuid = engagement.getUuid();
+        stub("/api/v2/engagements/" + uuid, jsonb.toJson(engagement));
+        stub("/api/hosting/engagements/" + uuid, "[]");
+        stub("/api/participants/engagements/uuid/" + uuid, "[]");
+        stub("/api/activity/uuid/" + uuid, "[]");
+        stub("/api/engagement/status/" + uuid, jsonb.toJson(Status.builder().status("green").build()));
+    }
+
+    private void stub(String path, String body) {
+        server.stubFor(get(urlPathEqualTo(path)).willReturn(aResponse().withFixedDelay(DELAY_MS)
+                .withHeader("Content-Type", "application/json").withBody(body)));
+    }
+}
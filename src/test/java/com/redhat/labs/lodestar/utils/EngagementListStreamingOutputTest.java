@@ -0,0 +1,88 @@
+package com.redhat.labs.lodestar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.json.bind.Jsonb;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.model.Category;
+import com.redhat.labs.lodestar.model.Engagement;
+import com.redhat.labs.lodestar.model.EngagementUser;
+import com.redhat.labs.lodestar.util.EngagementListStreamingOutput;
+
+class EngagementListStreamingOutputTest {
+
+    private static final Type ENGAGEMENT_LIST = new ArrayList<Engagement>(){}.getClass().getGenericSuperclass();
+
+    Jsonb quarkusJsonb = new IntegrationTestHelper().quarkusJsonb;
+
+    Map<String, String> engagementOptions = Map.of("Residency", "Residency Pretty", "DO", "Dojo");
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1000, 10000 })
+    void testSameEngagementsAsBufferedPath(int size) throws IOException {
+        List<Engagement> engagements = IntStream.range(0, size).mapToObj(this::engagement).collect(Collectors.toList());
+        byte[] downstream = quarkusJsonb.toJson(engagements).getBytes(StandardCharsets.UTF_8);
+
+        List<Engagement> streamed = quarkusJsonb.fromJson(stream(downstream), ENGAGEMENT_LIST);
+
+        List<Engagement> buffered = quarkusJsonb.fromJson(new String(downstream, StandardCharsets.UTF_8), ENGAGEMENT_LIST);
+        buffered.forEach(e -> e.setPrettyType(engagementOptions.getOrDefault(e.getType(), e.getType())));
+
+        assertEquals(buffered, streamed);
+    }
+
+    @Test
+    void testPrettyTypeReplacedAndDownstreamClosed() throws IOException {
+        String json = "[{\"uuid\":\"1\",\"pretty_type\":\"stale\",\"type\":\"DO\",\"score\":1.5,\"public_reference\":false},"
+                + "{\"uuid\":\"2\",\"type\":\"Other\"},{\"uuid\":\"3\",\"type\":null,\"launch\":{\"type\":\"DO\"}}]";
+        Response response = Mockito.spy(Response.ok(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new EngagementListStreamingOutput(response, engagementOptions).write(out);
+        String streamed = out.toString(StandardCharsets.UTF_8);
+
+        List<Engagement> engagements = quarkusJsonb.fromJson(streamed, ENGAGEMENT_LIST);
+        assertEquals("Dojo", engagements.get(0).getPrettyType());
+        assertEquals("Other", engagements.get(1).getPrettyType());
+        assertNull(engagements.get(2).getPrettyType());
+        assertEquals(2, streamed.split("pretty_type", -1).length - 1, "stale pretty_type dropped");
+        assertTrue(streamed.contains("\"score\":1.5"));
+        Mockito.verify(response).close();
+    }
+
+    private InputStream stream(byte[] downstream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new EngagementListStreamingOutput(Response.ok(new ByteArrayInputStream(downstream)).build(), engagementOptions)
+                .write(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private Engagement engagement(int i) {
+        return Engagement.builder().uuid("uuid-" + i).customerName("Customer \"" + i + "\"").projectName("Project " + i)
+                .type(i % 3 == 0 ? "Residency" : i % 3 == 1 ? "DO" : "Unknown").region("na").publicReference(i % 2 == 0)
+                .startDate("2021-01-01T00:00:00.000Z").lastUpdate("2021-04-08T00:00:00.000Z")
+                .engagementUsers(Set.of(EngagementUser.builder().email(i + "@rh.com").role("dev").build()))
+                .categories(List.of(Category.builder().name("cat " + i).count(i).build())).build();
+    }
+}
@@ -5,15 +5,18 @@ import javax.json.bind.JsonbBuilder;
 import javax.json.bind.JsonbConfig;
 import javax.json.bind.config.PropertyNamingStrategy;
 
+import com.redhat.labs.lodestar.config.JsonConfig;
 import com.redhat.labs.lodestar.rest.client.*;
+import com.redhat.labs.lodestar.service.ConfigService;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import io.quarkus.arc.Arc;
 import io.quarkus.test.junit.mockito.InjectMock;
 
 public class IntegrationTestHelper {
 
-    JsonbConfig config = new JsonbConfig().withFormatting(true)
-            .withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES);
+    JsonbConfig config = JsonConfig.withCodecs(new JsonbConfig().withFormatting(true)
+            .withPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CASE_WITH_UNDERSCORES));
     public Jsonb quarkusJsonb = JsonbBuilder.create(config);
 
     @InjectMock
@@ -28,6 +31,13 @@ public class IntegrationTestHelper {
     @RestClient
     public EngagementApiClient engagementApiClient;
 
+    /**
+     * Reloads the config snapshot from the config client stubs set up by the running test
+     */
+    public static void reloadConfig() {
+        Arc.container().instance(ConfigService.class).get().invalidateCache();
+    }
+
     public static String[] nullEmptyBlankSource() {
         return new String[] { null, "", "   " };
     }
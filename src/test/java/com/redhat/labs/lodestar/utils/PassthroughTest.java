@@ -0,0 +1,76 @@
+package com.redhat.labs.lodestar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.redhat.labs.lodestar.util.Passthrough;
+
+class PassthroughTest {
+
+    @Test
+    void testBodyCopiedAndHeadersFiltered() throws IOException {
+        byte[] body = "[{\"uuid\":\"1\"}]".getBytes(StandardCharsets.UTF_8);
+        Response downstream = Mockito.spy(Response.status(206).entity(new ByteArrayInputStream(body))
+                .type(MediaType.APPLICATION_JSON_TYPE).header("x-total-activity", 12).header("X-Next-Page", 3)
+                .header("last-update", "2021-04-08T00:00:00.000Z").header("content-length", 999)
+                .header("x-request-id", "abc").build());
+
+        Response relayed = Passthrough.relay(downstream);
+
+        assertEquals(206, relayed.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, relayed.getMediaType());
+        assertEquals("12", relayed.getHeaderString("x-total-activity"));
+        assertEquals("3", relayed.getHeaderString("x-next-page"));
+        assertEquals("2021-04-08T00:00:00.000Z", relayed.getHeaderString("last-update"));
+        assertNull(relayed.getHeaderString("content-length"));
+        assertNull(relayed.getHeaderString("x-request-id"));
+        assertEquals(Set.of("x-total-activity", "X-Next-Page", "last-update"),
+                Set.of(relayed.getHeaderString("Access-Control-Expose-Headers").split(",")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) relayed.getEntity()).write(out);
+        assertEquals(new String(body, StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        Mockito.verify(downstream).close();
+    }
+
+    @Test
+    void testMaterializedEntityKept() {
+        List<String> entity = List.of("a");
+        Response relayed = Passthrough.relay(Response.ok(entity).header("x-total-things", 1).build());
+
+        assertEquals(entity, relayed.getEntity());
+        assertEquals("1", relayed.getHeaderString("x-total-things"));
+    }
+
+    @Test
+    void testDownstreamExposedHeadersKept() {
+        Response relayed = Passthrough.relay(Response.ok().header("x-total-things", 1)
+                .header("Access-Control-Expose-Headers", "x-things-version, x-total-things").build());
+
+        assertEquals(Set.of("x-total-things", "x-things-version"),
+                Set.of(relayed.getHeaderString("Access-Control-Expose-Headers").split(",")));
+    }
+
+    @Test
+    void testErrorWithoutBody() {
+        Response relayed = Passthrough.relay(Response.serverError().build());
+
+        assertEquals(500, relayed.getStatus());
+        assertNull(relayed.getEntity());
+        assertNull(relayed.getHeaderString("Access-Control-Expose-Headers"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.redhat.labs.lodestar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.labs.lodestar.util.RbacIndex;
+
+class RbacIndexTest {
+
+    @Test
+    void testAllowedByAnyGroup() {
+        RbacIndex index = new RbacIndex(Map.of("Residency", List.of("writer", "admin"), "DO", List.of("admin")));
+
+        assertTrue(index.isAllowed(Set.of("reader", "writer"), "Residency"));
+        assertFalse(index.isAllowed(Set.of("reader", "writer"), "DO"));
+        assertTrue(index.isAllowed(Set.of("admin"), "DO"));
+        assertFalse(index.isAllowed(Set.of("admin"), "Unknown"));
+        assertFalse(index.isAllowed(Set.of("admin"), null));
+        assertFalse(index.isAllowed(Set.of(), "Residency"));
+    }
+
+    @Test
+    void testCachedDecisionNotTiedToCallersSet() {
+        RbacIndex index = new RbacIndex(Map.of("Residency", List.of("writer")));
+        Set<String> groups = new HashSet<>(Set.of("writer"));
+
+        assertTrue(index.isAllowed(groups, "Residency"));
+        groups.remove("writer");
+        assertFalse(index.isAllowed(groups, "Residency"));
+        assertTrue(index.isAllowed(Set.of("writer"), "Residency"));
+    }
+
+    @Test
+    void testSameAsListContainsForLargeTokens() {
+        Random random = new Random(7);
+        List<String> types = IntStream.range(0, 12).mapToObj(i -> "type" + i).collect(Collectors.toList());
+        Map<String, List<String>> rbac = types.stream().collect(Collectors.toMap(t -> t,
+                t -> IntStream.range(0, 5).mapToObj(i -> "group" + random.nextInt(200)).collect(Collectors.toList())));
+        RbacIndex index = new RbacIndex(rbac);
+
+        for(int token = 0; token < 100; token++) {
+            Set<String> groups = IntStream.range(0, 50).mapToObj(i -> "group" + random.nextInt(400)).collect(Collectors.toSet());
+
+            for(String type : types) {
+                boolean expected = groups.stream().anyMatch(rbac.get(type)::contains);
+                assertEquals(expected, index.isAllowed(groups, type));
+                assertEquals(expected, index.isAllowed(groups, type));
+            }
+        }
+    }
+}